@@ -0,0 +1,205 @@
+package net.coderodde.graph.benchmark;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.generation.GraphGenerator;
+import net.coderodde.graph.generation.LayeredDagModel;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * This class holds the layered random dag the benchmarks run on, together with
+ * the query pairs. The dag is generated by {@link LayeredDagModel} once per
+ * trial from a fixed seed, so that all forks and all benchmarks of a parameter
+ * combination see the same graph. The queries cycle through
+ * {@link #QUERY_AMOUNT} distinct pairs of each kind, so that a single pair
+ * cannot settle in the caches of the finders:
+ * <ul>
+ *   <li><b>short</b> pairs are connected by an arc,</li>
+ *   <li><b>long</b> pairs lead from the first tenth of the layers to the
+ *       deepest node reachable,</li>
+ *   <li><b>unreachable</b> pairs lead from the first tenth of the layers to
+ *       the deepest node not reachable, which lies after the source in
+ *       topological order.</li>
+ * </ul>
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@State(Scope.Benchmark)
+public abstract class AbstractDagBenchmark {
+    
+    /**
+     * The amount of distinct query pairs of each kind.
+     */
+    static final int QUERY_AMOUNT = 256;
+    
+    /**
+     * Maximum advance of an arc through layers.
+     */
+    private static final int MAX_PROCEED = 15;
+    
+    /**
+     * The seed of the dag generator.
+     */
+    private static final long SEED = 13L;
+    
+    /**
+     * The maximum amount of sources drawn for a query pair before giving up 
+     * on finding a source with a later unreachable node.
+     */
+    private static final int MAX_SOURCE_DRAWS = 1000;
+    
+    /**
+     * The amount of layers in the dag.
+     */
+    @Param({"1000", "10000"})
+    public int layers;
+    
+    /**
+     * The maximum amount of nodes in a layer.
+     */
+    @Param({"10"})
+    public int layerWidth;
+    
+    /**
+     * The average amount of arcs leaving a node.
+     */
+    @Param({"2", "8"})
+    public int density;
+    
+    protected Graph<DirectedGraphNode> graph;
+    protected DirectedGraphWeightFunction weightFunction;
+    
+    /**
+     * The nodes of the dag in topological order.
+     */
+    private DirectedGraphNode[] nodes;
+    
+    protected DirectedGraphNode[][] shortPairs;
+    protected DirectedGraphNode[][] longPairs;
+    protected DirectedGraphNode[][] unreachablePairs;
+    
+    /**
+     * The position of the next query pair.
+     */
+    private int queryIndex;
+    
+    @Setup
+    public void createDag() {
+        graph = new Graph<>();
+        weightFunction = new DirectedGraphWeightFunction();
+        nodes = new GraphGenerator(SEED).generate(
+                new LayeredDagModel(layers, layerWidth, MAX_PROCEED, density),
+                graph,
+                weightFunction);
+        
+        createQueries(new Random(SEED));
+    }
+    
+    /**
+     * Returns the next query pair of the input kind.
+     * 
+     * @param pairs the pairs of a kind.
+     * @return a source and a target node.
+     */
+    protected DirectedGraphNode[] nextPair(DirectedGraphNode[][] pairs) {
+        queryIndex = (queryIndex + 1) & (QUERY_AMOUNT - 1);
+        return pairs[queryIndex];
+    }
+    
+    private void createQueries(Random random) {
+        List<DirectedGraphNode> nodeList = Arrays.asList(nodes);
+        int sourceBound = Math.max(1, nodes.length / 10);
+        
+        shortPairs = new DirectedGraphNode[QUERY_AMOUNT][];
+        longPairs = new DirectedGraphNode[QUERY_AMOUNT][];
+        unreachablePairs = new DirectedGraphNode[QUERY_AMOUNT][];
+        
+        for (int i = 0; i < QUERY_AMOUNT; ++i) {
+            DirectedGraphNode tail;
+            
+            do {
+                tail = choose(nodeList, random);
+            } while (tail.children().isEmpty());
+            
+            shortPairs[i] = new DirectedGraphNode[]{
+                tail,
+                choose(new ArrayList<>(tail.children()), random)
+            };
+            
+            DirectedGraphNode source;
+            int deepestReached;
+            int deepestUnreached;
+            int draws = 0;
+            
+            // Redraw the source until some later node is not reachable from 
+            // it, so that the unreachable pair passes the topological order
+            // check and exercises the reachability filter.
+            do {
+                if (++draws > MAX_SOURCE_DRAWS) {
+                    throw new IllegalStateException(
+                            "No source among the first " + sourceBound + 
+                            " nodes has an unreachable successor in " +
+                            "topological order.");
+                }
+                
+                source = nodes[random.nextInt(sourceBound)];
+                boolean[] reached = reachFrom(source);
+                deepestReached = source.getId();
+                deepestUnreached = -1;
+                
+                // The ids are the topological indices of the generator.
+                for (int id = reached.length - 1; id > source.getId(); --id) {
+                    if (reached[id]) {
+                        deepestReached = Math.max(deepestReached, id);
+                    } else if (deepestUnreached == -1) {
+                        deepestUnreached = id;
+                    }
+                }
+            } while (deepestUnreached == -1);
+            
+            longPairs[i] = new DirectedGraphNode[]{
+                source,
+                nodes[deepestReached]
+            };
+            
+            unreachablePairs[i] = new DirectedGraphNode[]{
+                source,
+                nodes[deepestUnreached]
+            };
+        }
+    }
+    
+    private boolean[] reachFrom(DirectedGraphNode source) {
+        boolean[] reached = new boolean[graph.getIdCapacity()];
+        Deque<DirectedGraphNode> stack = new ArrayDeque<>();
+        
+        reached[source.getId()] = true;
+        stack.push(source);
+        
+        while (!stack.isEmpty()) {
+            for (DirectedGraphNode child : stack.pop().children()) {
+                if (!reached[child.getId()]) {
+                    reached[child.getId()] = true;
+                    stack.push(child);
+                }
+            }
+        }
+        
+        return reached;
+    }
+    
+    private static <T> T choose(List<T> list, Random random) {
+        return list.get(random.nextInt(list.size()));
+    }
+}
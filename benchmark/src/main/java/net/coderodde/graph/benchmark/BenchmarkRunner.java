@@ -0,0 +1,30 @@
+package net.coderodde.graph.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * This class runs the benchmarks with the allocation profiler enabled. The
+ * command line accepts the usual JMH options, for example
+ * {@code -p layers=100000 DagShortestPathFinder}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args)
+            throws CommandLineOptionException, RunnerException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build();
+        
+        new Runner(options).run();
+    }
+}
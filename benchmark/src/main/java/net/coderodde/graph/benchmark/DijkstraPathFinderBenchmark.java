@@ -0,0 +1,54 @@
+package net.coderodde.graph.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import net.coderodde.graph.pathfinding.support.DijkstraPathFinder;
+import net.coderodde.graph.support.DirectedGraphNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the queries of {@link DijkstraPathFinder} on the same
+ * dags and pairs as {@link DagShortestPathFinderBenchmark}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class DijkstraPathFinderBenchmark extends AbstractDagBenchmark {
+    
+    private DijkstraPathFinder<DirectedGraphNode> finder;
+    
+    @Setup
+    public void createFinder() {
+        finder = new DijkstraPathFinder<>(weightFunction);
+    }
+    
+    @Benchmark
+    public List<DirectedGraphNode> findShortPath() {
+        DirectedGraphNode[] pair = nextPair(shortPairs);
+        return finder.find(pair[0], pair[1]);
+    }
+    
+    @Benchmark
+    public List<DirectedGraphNode> findLongPath() {
+        DirectedGraphNode[] pair = nextPair(longPairs);
+        return finder.find(pair[0], pair[1]);
+    }
+    
+    @Benchmark
+    public List<DirectedGraphNode> findUnreachable() {
+        DirectedGraphNode[] pair = nextPair(unreachablePairs);
+        return finder.find(pair[0], pair[1]);
+    }
+}
@@ -0,0 +1,38 @@
+package net.coderodde.graph.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import net.coderodde.graph.pathfinding.support.DepthFirstSearchTraversal;
+import net.coderodde.graph.pathfinding.support.DepthFirstSearchTraversal.DepthFirstSearchResult;
+import net.coderodde.graph.pathfinding.support.TopologicalSort;
+import net.coderodde.graph.support.DirectedGraphNode;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * This class benchmarks the whole-graph traversals.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class GraphTraversalBenchmark extends AbstractDagBenchmark {
+    
+    @Benchmark
+    public DirectedGraphNode[] topologicalSort() {
+        return TopologicalSort.sort(graph);
+    }
+    
+    @Benchmark
+    public DepthFirstSearchResult<DirectedGraphNode> depthFirstSearch() {
+        return new DepthFirstSearchTraversal<DirectedGraphNode>().search(graph);
+    }
+}
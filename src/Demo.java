@@ -1,7 +1,9 @@
-import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Random;
 import net.coderodde.graph.Graph;
+import net.coderodde.graph.generation.GraphGenerator;
+import net.coderodde.graph.generation.LayeredDagModel;
 import net.coderodde.graph.pathfinding.AbstractWeightedPathFinder;
 import net.coderodde.graph.pathfinding.support.DagShortestPathFinder;
 import net.coderodde.graph.pathfinding.support.DijkstraPathFinder;
@@ -33,44 +35,46 @@ public class Demo {
     private static final int MAX_PROCEED = 15;
     
     /**
-     * The percentage of all possible edges.
+     * The average amount of arcs leaving a node.
      */
-    private static final float EDGE_PROBABILITY = 0.001f;
+    private static final double AVERAGE_OUT_DEGREE = 25.0;
     
     public static void main(String[] args) {
         long seed = System.currentTimeMillis();
         Random random = new Random(seed);
-        WeightedDag weightedDag = createRandomDag(LAYERS,
-                                                  MAX_LAYER_WIDTH,
-                                                  EDGE_PROBABILITY,
-                                                  random);
+        Graph<DirectedGraphNode> graph = new Graph<>();
+        DirectedGraphWeightFunction weightFunction = 
+                new DirectedGraphWeightFunction();
+        DirectedGraphNode[] nodes = 
+                new GraphGenerator(seed).generate(
+                        new LayeredDagModel(LAYERS, 
+                                            MAX_LAYER_WIDTH, 
+                                            MAX_PROCEED, 
+                                            AVERAGE_OUT_DEGREE),
+                        graph, 
+                        weightFunction);
         System.out.println("Amount of nodes: " + 
-                           weightedDag.graph.getNodeAmount());
+                           graph.getNodeAmount());
         System.out.println("Amount of edges: " + 
-                           weightedDag.graph.getEdgeAmount());
+                           graph.getEdgeAmount());
         System.out.println("Seed: " + seed);
         
         long startTime = System.currentTimeMillis();
         
         DagShortestPathFinder finder1 = 
-                new DagShortestPathFinder(weightedDag.graph,
-                                          weightedDag.weightFunction);
+                new DagShortestPathFinder(graph,
+                                          weightFunction);
         
         long endTime = System.currentTimeMillis();
         
         AbstractWeightedPathFinder<DirectedGraphNode> finder2 =
-                new DijkstraPathFinder<>(weightedDag.weightFunction);
+                new DijkstraPathFinder<>(weightFunction);
         
         System.out.println("Dag preprocessed in " + 
                            (endTime - startTime) + " milliseconds.");
         bar();
         
-        List<DirectedGraphNode> nodeList = 
-                new ArrayList<>(weightedDag.graph.getNodeAmount());
-        
-        for (DirectedGraphNode node : weightedDag.graph) {
-            nodeList.add(node);
-        }
+        List<DirectedGraphNode> nodeList = Arrays.asList(nodes);
         
         ////////////////////////////////////////////////////////////////////////
         DirectedGraphNode source = choose(nodeList, random);
@@ -119,94 +123,6 @@ public class Demo {
         }
     }
     
-    /**
-     * A simple struct for holding a dag and its weight function.
-     */
-    private static class WeightedDag {
-        Graph<DirectedGraphNode> graph;
-        DirectedGraphWeightFunction weightFunction;
-    }
-    
-    /**
-     * Creates a random dag.
-     * 
-     * @param layers          the amount of layers.
-     * @param maxLayerWidth   the maximum layer width.
-     * @param edgeProbability edge probability.
-     * @param random          the random number generator.
-     * @return a dag with its weight function.
-     */
-    private static WeightedDag createRandomDag(int layers,
-                                               int maxLayerWidth,
-                                               float edgeProbability,
-                                               Random random) {
-        List<List<DirectedGraphNode>> levelList = new ArrayList<>();
-        int nodeIndex = 0;
-        
-        Graph<DirectedGraphNode> graph = new Graph<>();
-        DirectedGraphWeightFunction weightFunction = 
-                new DirectedGraphWeightFunction();
-        
-        // Create nodes.
-        for (int i = 0; i < layers; ++i) {
-            List<DirectedGraphNode> level = new ArrayList<>(maxLayerWidth);
-            int levelWidth = 1 + random.nextInt(maxLayerWidth);
-            
-            for (int j = 0; j < levelWidth; ++j) {
-                DirectedGraphNode node = 
-                        new DirectedGraphNode("Level " + i + ", "
-                                                       + nodeIndex++);
-                graph.addNode(node);
-                level.add(node);
-            }
-            
-            levelList.add(level);
-        }
-        
-        // Create directed arcs.
-        int edges = (int)(Math.min(0.95, edgeProbability) * nodeIndex 
-                                                          * nodeIndex);
-        
-        while (edges > 0) {
-            int a = random.nextInt(levelList.size());
-            int b = Math.min(levelList.size() - 1, 
-                             a + random.nextInt(MAX_PROCEED + 1));
-            if (a < b) {
-                DirectedGraphNode tail = choose(levelList.get(a), random);
-                DirectedGraphNode head = choose(levelList.get(b), random);
-                
-                tail.addChild(head);
-                weightFunction.put(tail, head, random.nextFloat());
-                --edges;
-            } else {
-                // Tail and head nodes in the same level. Make sure the new arc
-                // does not introduce cycles.
-                int index1 = random.nextInt(levelList.get(a).size());
-                int index2 = random.nextInt(levelList.get(a).size());
-                
-                if (index1 != index2) {
-                    if (index1 > index2) {
-                        int tmp = index1;
-                        index1 = index2;
-                        index2 = tmp;
-                    }
-                    
-                    DirectedGraphNode tail = levelList.get(a).get(index1);
-                    DirectedGraphNode head = levelList.get(a).get(index2);
-                    
-                    tail.addChild(head);
-                    weightFunction.put(tail, head, random.nextFloat());
-                    --edges;
-                }
-            }
-        }
-        
-        WeightedDag ret = new WeightedDag();
-        ret.graph = graph;
-        ret.weightFunction = weightFunction;
-        return ret;
-    }
-        
     /**
      * Chooses a random element from a list.
      * 
@@ -23,6 +23,12 @@ public abstract class AbstractGraphNode<N extends AbstractGraphNode<N>> {
      */
     protected Graph<N> ownerGraph;
     
+    /**
+     * The id of this node in its owner graph, or -1 if this node belongs to no
+     * graph.
+     */
+    int id = -1;
+    
     /**
      * Constructs this node with given name.
      * 
@@ -101,6 +107,17 @@ public abstract class AbstractGraphNode<N extends AbstractGraphNode<N>> {
         return ownerGraph;
     }
     
+    /**
+     * Returns the dense id of this node in its owner graph. The id stays the
+     * same for as long as this node belongs to the graph, and may be given to
+     * another node after this node is removed.
+     * 
+     * @return the id of this node, or -1 if this node belongs to no graph.
+     */
+    public int getId() {
+        return id;
+    }
+    
     /**
      * Returns the name of this node.
      * 
@@ -143,4 +160,24 @@ public abstract class AbstractGraphNode<N extends AbstractGraphNode<N>> {
     protected final void decEdgeAmount() {
         --ownerGraph.edgeAmount;
     }
+    
+    /**
+     * Notifies the listeners of the owner graph about a new arc.
+     * 
+     * @param tail the tail node of the arc.
+     * @param head the head node of the arc.
+     */
+    protected final void fireArcAdded(N tail, N head) {
+        ownerGraph.fireArcAdded(tail, head);
+    }
+    
+    /**
+     * Notifies the listeners of the owner graph about a removed arc.
+     * 
+     * @param tail the tail node of the arc.
+     * @param head the head node of the arc.
+     */
+    protected final void fireArcRemoved(N tail, N head) {
+        ownerGraph.fireArcRemoved(tail, head);
+    }
 }
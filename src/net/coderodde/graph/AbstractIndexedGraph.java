@@ -0,0 +1,78 @@
+package net.coderodde.graph;
+
+/**
+ * This abstract class defines the API for read-only, int-indexed views of
+ * weighted directed graphs. The nodes have the indices
+ * {@code 0, 1, ..., getNodeAmount() - 1}, and the out-going arcs of the node
+ * with index {@code i} have the arc indices
+ * {@code getArcBeginIndex(i), ..., getArcEndIndex(i) - 1}. The views let the
+ * searches work on node indices alone, whether the graph data lives in
+ * arrays, in a mapped file or off the heap.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public abstract class AbstractIndexedGraph {
+    
+    /**
+     * Returns the amount of nodes in this graph.
+     * 
+     * @return the amount of nodes.
+     */
+    public abstract int getNodeAmount();
+    
+    /**
+     * Returns the amount of arcs in this graph.
+     * 
+     * @return the amount of arcs.
+     */
+    public abstract int getArcAmount();
+    
+    /**
+     * Returns the index of the first out-going arc of the given node.
+     * 
+     * @param nodeIndex the index of the tail node.
+     * @return the first arc index.
+     */
+    public abstract int getArcBeginIndex(int nodeIndex);
+    
+    /**
+     * Returns the index one past the last out-going arc of the given node.
+     * 
+     * @param nodeIndex the index of the tail node.
+     * @return the arc end index.
+     */
+    public abstract int getArcEndIndex(int nodeIndex);
+    
+    /**
+     * Returns the index of the head node of the given arc.
+     * 
+     * @param arcIndex the index of the arc.
+     * @return the head node index.
+     */
+    public abstract int getArcHead(int arcIndex);
+    
+    /**
+     * Returns the weight of the given arc.
+     * 
+     * @param arcIndex the index of the arc.
+     * @return the arc weight.
+     */
+    public abstract double getArcWeight(int arcIndex);
+    
+    /**
+     * Returns the name of the node with the given index.
+     * 
+     * @param nodeIndex the index of the node.
+     * @return the name of the node.
+     */
+    public abstract String getNodeName(int nodeIndex);
+    
+    /**
+     * Returns the index of the node with the given name.
+     * 
+     * @param nodeName the name of the node.
+     * @return the index of the node, or -1 if there is no such node.
+     */
+    public abstract int getNodeIndex(String nodeName);
+}
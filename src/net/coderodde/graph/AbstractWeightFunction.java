@@ -8,6 +8,11 @@ package net.coderodde.graph;
  */
 public abstract class AbstractWeightFunction<N extends AbstractGraphNode<N>> {
 
+    /**
+     * The amount of modifications made to this weight function.
+     */
+    private int modificationCount;
+    
     /**
      * Sets the weight for the edge {@code (tail, head)}.
      * 
@@ -33,6 +38,22 @@ public abstract class AbstractWeightFunction<N extends AbstractGraphNode<N>> {
      */
     public abstract void clear();
     
+    /**
+     * Gets the modification count of this weight function.
+     * 
+     * @return the modification count.
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+    
+    /**
+     * Increments the modification count of this weight function. 
+     */
+    protected void incModificationCount() {
+        ++modificationCount;
+    }
+    
     /**
      * Checks that the weight is not {@code NaN}.
      * 
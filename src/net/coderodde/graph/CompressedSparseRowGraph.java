@@ -0,0 +1,397 @@
+package net.coderodde.graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * This class implements a frozen, int-indexed snapshot of a graph in
+ * compressed sparse row (CSR) form. The out-going arcs of the node with index
+ * {@code i} occupy the arc indices {@code offsets[i], ..., offsets[i + 1] - 1},
+ * and for each arc index the arrays {@code heads} and {@code weights} hold the
+ * index of the head node and the weight of the arc, respectively. The 
+ * incoming arcs are stored in the same manner, so that the parents of each 
+ * node may be scanned as efficiently as its children.
+ * <p>
+ * The snapshot does not follow the modifications of the graph and the weight
+ * function it was built from; use {@link #isUpToDate()} in order to find out 
+ * whether either of them has changed since.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ * @param <N> the actual graph node implementation type.
+ */
+public class CompressedSparseRowGraph<N extends AbstractGraphNode<N>> 
+extends AbstractIndexedGraph {
+
+    /**
+     * The graph this snapshot was built from.
+     */
+    private final Graph<N> graph;
+
+    /**
+     * The weight function this snapshot was built from.
+     */
+    private final AbstractWeightFunction<N> weightFunction;
+    
+    /**
+     * The modification count of {@code graph} at the time of building.
+     */
+    private final int modificationCount;
+    
+    /**
+     * The modification count of {@code weightFunction} at the time of 
+     * building.
+     */
+    private final int weightModificationCount;
+
+    /**
+     * Maps each node index to its node.
+     */
+    private final List<N> nodeList;
+
+    /**
+     * Maps each node id to the index of its node, or to -1 if no node in this
+     * snapshot has the id.
+     */
+    private final int[] nodeIndices;
+
+    /**
+     * The arc index of the first out-going arc of each node. Has one extra
+     * element at the end so that the arc range of the last node is defined.
+     */
+    private final int[] offsets;
+
+    /**
+     * The head node index of each arc.
+     */
+    private final int[] heads;
+
+    /**
+     * The weight of each arc.
+     */
+    private final double[] weights;
+    
+    /**
+     * The in-arc index of the first incoming arc of each node. Has one extra
+     * element at the end.
+     */
+    private final int[] inOffsets;
+    
+    /**
+     * The tail node index of each in-arc.
+     */
+    private final int[] tails;
+    
+    /**
+     * The weight of each in-arc.
+     */
+    private final double[] inWeights;
+
+    /**
+     * Builds a snapshot of {@code graph}. The node indices follow the iteration
+     * order of the graph.
+     *
+     * @param graph          the graph to compress.
+     * @param weightFunction the weight function of the graph.
+     */
+    public CompressedSparseRowGraph(Graph<N> graph,
+                                    AbstractWeightFunction<N> weightFunction) {
+        this(graph, graph, weightFunction);
+    }
+
+    /**
+     * Builds a snapshot of {@code graph} in which the node indices follow the
+     * order of {@code nodeOrder}. The order must contain each node of the graph
+     * exactly once.
+     *
+     * @param graph          the graph to compress.
+     * @param nodeOrder      the nodes of the graph in the desired index order.
+     * @param weightFunction the weight function of the graph.
+     * @throws IllegalArgumentException if {@code nodeOrder} does not list the
+     *                                  nodes of {@code graph}.
+     */
+    public CompressedSparseRowGraph(Graph<N> graph,
+                                    Iterable<N> nodeOrder,
+                                    AbstractWeightFunction<N> weightFunction) {
+        this.graph = Objects.requireNonNull(graph, "The input graph is null.");
+        Objects.requireNonNull(nodeOrder, "The node order is null.");
+        this.weightFunction = 
+                Objects.requireNonNull(weightFunction,
+                                       "The input weight function is null.");
+
+        this.modificationCount = graph.getModificationCount();
+        this.weightModificationCount = weightFunction.getModificationCount();
+
+        int nodeAmount = graph.getNodeAmount();
+        this.nodeList = new ArrayList<>(nodeAmount);
+        this.nodeIndices = new int[graph.getIdCapacity()];
+        Arrays.fill(nodeIndices, -1);
+
+        for (N node : nodeOrder) {
+            if (node.getOwnerGraph() != graph) {
+                throw new IllegalArgumentException(
+                        "The node " + node + " does not belong to the " +
+                        "input graph.");
+            }
+
+            if (nodeIndices[node.getId()] != -1) {
+                throw new IllegalArgumentException(
+                        "The node " + node + " appears twice in the node " +
+                        "order.");
+            }
+
+            nodeIndices[node.getId()] = nodeList.size();
+            nodeList.add(node);
+        }
+
+        if (nodeList.size() != nodeAmount) {
+            throw new IllegalArgumentException(
+                    "The node order does not contain all the nodes of the " +
+                    "input graph.");
+        }
+
+        this.offsets = new int[nodeAmount + 1];
+        this.heads = new int[graph.getEdgeAmount()];
+        this.weights = new double[graph.getEdgeAmount()];
+
+        int arcIndex = 0;
+
+        for (int i = 0; i < nodeAmount; ++i) {
+            N tail = nodeList.get(i);
+            offsets[i] = arcIndex;
+
+            for (N head : tail.children()) {
+                heads[arcIndex] = nodeIndices[head.getId()];
+                weights[arcIndex] = weightFunction.get(tail, head);
+                ++arcIndex;
+            }
+        }
+
+        offsets[nodeAmount] = arcIndex;
+        
+        // Bucket the arcs by their head nodes. Since the tails are scanned in
+        // index order, the in-arcs of each node end up sorted by tail index.
+        this.inOffsets = new int[nodeAmount + 1];
+        this.tails = new int[arcIndex];
+        this.inWeights = new double[arcIndex];
+        
+        for (int arc = 0; arc < arcIndex; ++arc) {
+            ++inOffsets[heads[arc] + 1];
+        }
+        
+        for (int i = 0; i < nodeAmount; ++i) {
+            inOffsets[i + 1] += inOffsets[i];
+        }
+        
+        int[] cursors = Arrays.copyOf(inOffsets, nodeAmount);
+        
+        for (int i = 0; i < nodeAmount; ++i) {
+            for (int arc = offsets[i]; arc < offsets[i + 1]; ++arc) {
+                int inArc = cursors[heads[arc]]++;
+                tails[inArc] = i;
+                inWeights[inArc] = weights[arc];
+            }
+        }
+    }
+
+    /**
+     * Returns the graph this snapshot was built from.
+     *
+     * @return the source graph.
+     */
+    public Graph<N> getGraph() {
+        return graph;
+    }
+
+    /**
+     * Returns the modification count of the source graph at the time this
+     * snapshot was built.
+     *
+     * @return the modification count.
+     */
+    public int getModificationCount() {
+        return modificationCount;
+    }
+
+    /**
+     * Returns {@code true} only if neither the source graph nor its weight 
+     * function have been modified since this snapshot was built.
+     *
+     * @return {@code true} if this snapshot reflects the source graph.
+     */
+    public boolean isUpToDate() {
+        return modificationCount == graph.getModificationCount()
+                && weightModificationCount == 
+                   weightFunction.getModificationCount();
+    }
+
+    /**
+     * Returns the amount of nodes in this snapshot.
+     *
+     * @return the amount of nodes.
+     */
+    @Override
+    public int getNodeAmount() {
+        return nodeList.size();
+    }
+
+    /**
+     * Returns the amount of arcs in this snapshot.
+     *
+     * @return the amount of arcs.
+     */
+    @Override
+    public int getArcAmount() {
+        return heads.length;
+    }
+
+    /**
+     * Returns the node with index {@code nodeIndex}.
+     *
+     * @param nodeIndex the index of the node.
+     * @return the node.
+     */
+    public N getNode(int nodeIndex) {
+        return nodeList.get(nodeIndex);
+    }
+
+    /**
+     * Returns an unmodifiable list of the nodes in index order.
+     *
+     * @return the node list.
+     */
+    public List<N> getNodeList() {
+        return Collections.<N>unmodifiableList(nodeList);
+    }
+
+    /**
+     * Returns the index of the input node, or -1 if the node is not in this
+     * snapshot. Runs in constant time via the id of the node.
+     *
+     * @param node the node whose index to return.
+     * @return the index of the node.
+     */
+    public int getNodeIndex(N node) {
+        int id = node.getId();
+        
+        if (id < 0 || id >= nodeIndices.length) {
+            return -1;
+        }
+        
+        int index = nodeIndices[id];
+        
+        // The id may have been recycled since this snapshot was built.
+        return index != -1 && nodeList.get(index) == node ? index : -1;
+    }
+
+    /**
+     * Returns the name of the node with index {@code nodeIndex}.
+     * 
+     * @param nodeIndex the index of the node.
+     * @return the name of the node.
+     */
+    @Override
+    public String getNodeName(int nodeIndex) {
+        return nodeList.get(nodeIndex).getName();
+    }
+    
+    /**
+     * Returns the index of the node named {@code nodeName}, or -1 if the node
+     * is not in this snapshot.
+     * 
+     * @param nodeName the name of the node.
+     * @return the index of the node.
+     */
+    @Override
+    public int getNodeIndex(String nodeName) {
+        N node = graph.getNode(nodeName);
+        return node == null ? -1 : getNodeIndex(node);
+    }
+    
+    /**
+     * Returns the index of the first out-going arc of the given node.
+     *
+     * @param nodeIndex the index of the tail node.
+     * @return the first arc index.
+     */
+    @Override
+    public int getArcBeginIndex(int nodeIndex) {
+        return offsets[nodeIndex];
+    }
+
+    /**
+     * Returns the index one past the last out-going arc of the given node.
+     *
+     * @param nodeIndex the index of the tail node.
+     * @return the arc end index.
+     */
+    @Override
+    public int getArcEndIndex(int nodeIndex) {
+        return offsets[nodeIndex + 1];
+    }
+
+    /**
+     * Returns the index of the head node of the given arc.
+     *
+     * @param arcIndex the index of the arc.
+     * @return the head node index.
+     */
+    @Override
+    public int getArcHead(int arcIndex) {
+        return heads[arcIndex];
+    }
+
+    /**
+     * Returns the weight of the given arc.
+     *
+     * @param arcIndex the index of the arc.
+     * @return the arc weight.
+     */
+    @Override
+    public double getArcWeight(int arcIndex) {
+        return weights[arcIndex];
+    }
+    
+    /**
+     * Returns the index of the first incoming arc of the given node.
+     * 
+     * @param nodeIndex the index of the head node.
+     * @return the first in-arc index.
+     */
+    public int getInArcBeginIndex(int nodeIndex) {
+        return inOffsets[nodeIndex];
+    }
+    
+    /**
+     * Returns the index one past the last incoming arc of the given node.
+     * 
+     * @param nodeIndex the index of the head node.
+     * @return the in-arc end index.
+     */
+    public int getInArcEndIndex(int nodeIndex) {
+        return inOffsets[nodeIndex + 1];
+    }
+    
+    /**
+     * Returns the index of the tail node of the given in-arc.
+     * 
+     * @param inArcIndex the index of the in-arc.
+     * @return the tail node index.
+     */
+    public int getInArcTail(int inArcIndex) {
+        return tails[inArcIndex];
+    }
+    
+    /**
+     * Returns the weight of the given in-arc.
+     * 
+     * @param inArcIndex the index of the in-arc.
+     * @return the arc weight.
+     */
+    public double getInArcWeight(int inArcIndex) {
+        return inWeights[inArcIndex];
+    }
+}
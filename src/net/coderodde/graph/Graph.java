@@ -1,12 +1,23 @@
 package net.coderodde.graph;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import java.util.TreeMap;
 
 /**
  * This class implements the graph data structure.
+ * <p>
+ * Each node gets a dense integer id upon insertion. The ids are in the range
+ * {@code 0, 1, ..., getIdCapacity() - 1} and are recycled after the removal
+ * of their nodes, so that the algorithms may keep per-node state in plain 
+ * arrays indexed by node id instead of hash maps.
  * 
  * @author Rodion "rodde" Efremov
  * @version 1.6
@@ -29,11 +40,41 @@ public class Graph<N extends AbstractGraphNode<N>> implements Iterable<N> {
      */
     private final Map<String, N> map;
     
+    /**
+     * Maps each node id to its node, or to {@code null} if the id is free.
+     */
+    private final List<N> nodeList;
+    
+    /**
+     * The stack of the ids freed by removed nodes.
+     */
+    private int[] freeIds;
+    
+    /**
+     * The amount of ids in {@code freeIds}.
+     */
+    private int freeIdAmount;
+    
+    /**
+     * Caches the nodes of this graph sorted by name, or is {@code null} if the
+     * node set has changed since the last iteration.
+     */
+    private List<N> sortedNodeList;
+    
+    /**
+     * The listeners of this graph. The graph does not keep its listeners 
+     * reachable.
+     */
+    private final List<WeakReference<GraphListener<N>>> listenerList;
+    
     /**
      * Constructs an empty graph.
      */
     public Graph() {
-        this.map = new TreeMap<>();
+        this.map = new HashMap<>();
+        this.nodeList = new ArrayList<>();
+        this.freeIds = new int[0];
+        this.listenerList = new ArrayList<>();
     }
     
     /**
@@ -55,10 +96,25 @@ public class Graph<N extends AbstractGraphNode<N>> implements Iterable<N> {
             node.clear();
             node.getOwnerGraph().removeNode(node);
         }
-            
+        
+        N previous = map.get(node.getName());
+        
+        if (previous != null) {
+            // The node replaces a namesake, which leaves the graph with all 
+            // its arcs so that the listeners see a consistent node set.
+            removeNode(previous);
+        }
+        
         map.put(node.getName(), node);
+        node.id = acquireId(node);
         node.ownerGraph = this;
+        sortedNodeList = null;
         modificationCount++;
+        
+        for (GraphListener<N> listener : getListeners()) {
+            listener.nodeAdded(node);
+        }
+        
         return true;
     }
     
@@ -83,7 +139,15 @@ public class Graph<N extends AbstractGraphNode<N>> implements Iterable<N> {
         node.clear();
         node.ownerGraph = null;
         map.remove(node.getName());
+        sortedNodeList = null;
         modificationCount++;
+        
+        for (GraphListener<N> listener : getListeners()) {
+            listener.nodeRemoved(node);
+        }
+        
+        // Release the id only after the listeners have seen the node with it.
+        releaseId(node);
         return true;
     }
     
@@ -93,7 +157,24 @@ public class Graph<N extends AbstractGraphNode<N>> implements Iterable<N> {
     public void clear() {
         map.values().stream().forEach((node) -> node.clear());
         modificationCount += map.size();
+        
+        List<GraphListener<N>> listeners = getListeners();
+        
+        for (N node : map.values()) {
+            for (GraphListener<N> listener : listeners) {
+                listener.nodeRemoved(node);
+            }
+        }
+        
+        for (N node : map.values()) {
+            node.ownerGraph = null;
+            node.id = -1;
+        }
+        
         map.clear();
+        nodeList.clear();
+        freeIdAmount = 0;
+        sortedNodeList = null;
     }
     
     /**
@@ -107,6 +188,28 @@ public class Graph<N extends AbstractGraphNode<N>> implements Iterable<N> {
         return map.get(nodeName);
     }
     
+    /**
+     * Gets a node by its id in constant time.
+     * 
+     * @param id the id of the node.
+     * @return the node with id {@code id} or {@code null} if the id is not in
+     *         use.
+     */
+    public N getNodeById(int id) {
+        return id >= 0 && id < nodeList.size() ? nodeList.get(id) : null;
+    }
+    
+    /**
+     * Returns the upper bound of the node ids of this graph: each node in this
+     * graph has an id smaller than the returned value. The capacity does not 
+     * shrink when nodes are removed, since the freed ids are recycled.
+     * 
+     * @return the id capacity.
+     */
+    public int getIdCapacity() {
+        return nodeList.size();
+    }
+    
     /**
      * Gets the amount of nodes in this graph.
      * 
@@ -142,7 +245,117 @@ public class Graph<N extends AbstractGraphNode<N>> implements Iterable<N> {
     }
 
     /**
-     * Returns an iterator over this graph's nodes.
+     * Registers a listener for the structural modifications of this graph. 
+     * The graph refers to its listeners weakly, so the caller must keep 
+     * {@code listener} reachable for as long as it should receive events.
+     * The references to the collected listeners are dropped here as well, so
+     * that a graph that is never modified does not accumulate them.
+     * 
+     * @param listener the listener to register.
+     */
+    public void addGraphListener(GraphListener<N> listener) {
+        Objects.requireNonNull(listener, "The input listener is null.");
+        listenerList.removeIf((reference) -> reference.get() == null);
+        listenerList.add(new WeakReference<>(listener));
+    }
+    
+    /**
+     * Unregisters a listener of this graph.
+     * 
+     * @param listener the listener to unregister.
+     */
+    public void removeGraphListener(GraphListener<N> listener) {
+        listenerList.removeIf((reference) -> {
+            GraphListener<N> current = reference.get();
+            return current == null || current == listener;
+        });
+    }
+    
+    /**
+     * Notifies the listeners of this graph about a new arc.
+     * 
+     * @param tail the tail node of the arc.
+     * @param head the head node of the arc.
+     */
+    void fireArcAdded(N tail, N head) {
+        for (GraphListener<N> listener : getListeners()) {
+            listener.arcAdded(tail, head);
+        }
+    }
+    
+    /**
+     * Notifies the listeners of this graph about a removed arc.
+     * 
+     * @param tail the tail node of the arc.
+     * @param head the head node of the arc.
+     */
+    void fireArcRemoved(N tail, N head) {
+        for (GraphListener<N> listener : getListeners()) {
+            listener.arcRemoved(tail, head);
+        }
+    }
+    
+    /**
+     * Assigns an id to the input node, recycling a freed id if there is one.
+     * 
+     * @param node the node to get an id.
+     * @return the id of the node.
+     */
+    private int acquireId(N node) {
+        if (freeIdAmount > 0) {
+            int id = freeIds[--freeIdAmount];
+            nodeList.set(id, node);
+            return id;
+        }
+        
+        nodeList.add(node);
+        return nodeList.size() - 1;
+    }
+    
+    /**
+     * Frees the id of the input node for recycling.
+     * 
+     * @param node the node whose id to free.
+     */
+    private void releaseId(N node) {
+        if (freeIdAmount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, Math.max(8, 2 * freeIdAmount));
+        }
+        
+        nodeList.set(node.id, null);
+        freeIds[freeIdAmount++] = node.id;
+        node.id = -1;
+    }
+    
+    /**
+     * Returns the live listeners of this graph and forgets the collected ones.
+     * 
+     * @return the list of listeners.
+     */
+    private List<GraphListener<N>> getListeners() {
+        if (listenerList.isEmpty()) {
+            return Collections.<GraphListener<N>>emptyList();
+        }
+        
+        List<GraphListener<N>> ret = new ArrayList<>(listenerList.size());
+        Iterator<WeakReference<GraphListener<N>>> iterator = 
+                listenerList.iterator();
+        
+        while (iterator.hasNext()) {
+            GraphListener<N> listener = iterator.next().get();
+            
+            if (listener == null) {
+                iterator.remove();
+            } else {
+                ret.add(listener);
+            }
+        }
+        
+        return ret;
+    }
+
+    /**
+     * Returns an iterator over this graph's nodes in the order of their names.
      * 
      * @return a node iterator.
      */
@@ -156,7 +369,13 @@ public class Graph<N extends AbstractGraphNode<N>> implements Iterable<N> {
         private final Iterator<N> iterator;
         
         NodeIterator() {
-            this.iterator = map.values().iterator();
+            if (sortedNodeList == null) {
+                List<N> list = new ArrayList<>(map.values());
+                list.sort(Comparator.comparing(AbstractGraphNode::getName));
+                sortedNodeList = list;
+            }
+            
+            this.iterator = sortedNodeList.iterator();
         }
         
         @Override
@@ -0,0 +1,44 @@
+package net.coderodde.graph;
+
+/**
+ * This interface defines the API for objects listening to the structural
+ * modifications of a graph. All the methods are called after the modification
+ * took place.
+ *
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ * @param <N> the actual graph node implementation type.
+ */
+public interface GraphListener<N extends AbstractGraphNode<N>> {
+
+    /**
+     * Called after {@code node} was added to the graph.
+     *
+     * @param node the added node.
+     */
+    default void nodeAdded(N node) {}
+
+    /**
+     * Called after {@code node} was removed from the graph. All the arcs
+     * incident to {@code node} are reported as removed before this call.
+     *
+     * @param node the removed node.
+     */
+    default void nodeRemoved(N node) {}
+
+    /**
+     * Called after the arc {@code (tail, head)} was added to the graph.
+     *
+     * @param tail the tail node of the arc.
+     * @param head the head node of the arc.
+     */
+    default void arcAdded(N tail, N head) {}
+
+    /**
+     * Called after the arc {@code (tail, head)} was removed from the graph.
+     *
+     * @param tail the tail node of the arc.
+     * @param head the head node of the arc.
+     */
+    default void arcRemoved(N tail, N head) {}
+}
@@ -0,0 +1,139 @@
+package net.coderodde.graph.generation;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class defines the API for the random graph models used by
+ * {@link GraphGenerator}. A model describes the graph node by node: the
+ * generator asks for the out-degree of each node and then for the head of
+ * each of its arcs. The nodes are identified by the indices 
+ * {@code 0, 1, ..., getNodeAmount() - 1}.
+ * <p>
+ * The generator works on many nodes in parallel, each range of nodes with a
+ * random stream of its own, so the methods drawing the arcs must depend on
+ * their arguments only. The structure shared by all nodes, such as the sizes 
+ * of the layers of a layered graph, is drawn in 
+ * {@link #initialize(SplittableRandom)} before any arc is generated.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public abstract class AbstractGraphModel {
+    
+    /**
+     * The largest mean for which the Poisson variates are drawn exactly.
+     */
+    private static final double EXACT_POISSON_LIMIT = 30.0;
+    
+    /**
+     * Draws the structure shared by all nodes. The generator calls this 
+     * method once per generated graph before calling any other method.
+     * 
+     * @param random the random stream of the model.
+     */
+    protected void initialize(SplittableRandom random) {}
+    
+    /**
+     * Returns the amount of nodes in the generated graph.
+     * 
+     * @return the amount of nodes.
+     */
+    public abstract int getNodeAmount();
+    
+    /**
+     * Draws the out-degree of a node.
+     * 
+     * @param tail   the index of the node.
+     * @param random the random stream to draw from.
+     * @return the amount of arcs leaving the node.
+     */
+    public abstract int getOutDegree(int tail, SplittableRandom random);
+    
+    /**
+     * Draws the head of an arc.
+     * 
+     * @param tail   the index of the tail node.
+     * @param arc    the index of the arc among the arcs of the tail node.
+     * @param random the random stream to draw from.
+     * @return the index of the head node.
+     */
+    public abstract int getHead(int tail, int arc, SplittableRandom random);
+    
+    /**
+     * Draws the weight of an arc. The weights are uniform in [0, 1) by 
+     * default.
+     * 
+     * @param tail   the index of the tail node.
+     * @param head   the index of the head node.
+     * @param random the random stream to draw from.
+     * @return the weight of the arc.
+     */
+    public double getWeight(int tail, int head, SplittableRandom random) {
+        return random.nextDouble();
+    }
+    
+    /**
+     * Returns {@code true} if each arc of this model leads from a smaller node
+     * index to a larger one, so that the indices are in topological order.
+     * 
+     * @return {@code true} if the generated graphs are acyclic.
+     */
+    public boolean isAcyclic() {
+        return false;
+    }
+    
+    /**
+     * Draws a Poisson-distributed variate. Large means are approximated by
+     * the normal distribution.
+     * 
+     * @param random the random stream to draw from.
+     * @param mean   the mean of the distribution.
+     * @return the variate.
+     */
+    protected static int nextPoisson(SplittableRandom random, double mean) {
+        if (mean < EXACT_POISSON_LIMIT) {
+            double limit = Math.exp(-mean);
+            double product = random.nextDouble();
+            int k = 0;
+            
+            while (product > limit) {
+                product *= random.nextDouble();
+                ++k;
+            }
+            
+            return k;
+        }
+        
+        // Box-Muller transform.
+        double gaussian = Math.sqrt(-2.0 * Math.log(1.0 - random.nextDouble()))
+                        * Math.cos(2.0 * Math.PI * random.nextDouble());
+        
+        return (int) Math.max(0L, Math.round(mean + Math.sqrt(mean) * gaussian));
+    }
+    
+    /**
+     * Checks that an integer parameter of a model is positive.
+     * 
+     * @param value the value of the parameter.
+     * @param name  the name of the parameter.
+     */
+    static void checkPositive(int value, String name) {
+        if (value < 1) {
+            throw new IllegalArgumentException(
+                    "The " + name + " must be positive: " + value + ".");
+        }
+    }
+    
+    /**
+     * Checks that the average out-degree of a model is sensible.
+     * 
+     * @param averageOutDegree the average out-degree.
+     */
+    static void checkAverageOutDegree(double averageOutDegree) {
+        if (!(averageOutDegree >= 0.0) || Double.isInfinite(averageOutDegree)) {
+            throw new IllegalArgumentException(
+                    "The average out-degree must be a non-negative number: " + 
+                    averageOutDegree + ".");
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package net.coderodde.graph.generation;
+
+import net.coderodde.graph.AbstractIndexedGraph;
+
+/**
+ * This class holds a graph produced by {@link GraphGenerator} in compressed 
+ * sparse row form: the arcs of each node occupy a contiguous range of two 
+ * primitive arrays, so a graph of 10^8 arcs takes 1.2 GB and no node objects.
+ * The name of each node is its index in decimal. A generated graph may be
+ * searched directly with 
+ * {@link net.coderodde.graph.pathfinding.support.IndexedGraphSearch}, written 
+ * to a file with {@link net.coderodde.graph.io.GraphFileWriter} or copied out 
+ * of the heap with {@link net.coderodde.graph.io.OffHeapGraph}.
+ * <p>
+ * The models draw the heads independently, so a node may have several 
+ * parallel arcs to the same head.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class GeneratedGraph extends AbstractIndexedGraph {
+    
+    /**
+     * The index of the first arc of each node, followed by the amount of arcs.
+     */
+    private final int[] offsets;
+    
+    /**
+     * The head node index of each arc.
+     */
+    private final int[] heads;
+    
+    /**
+     * The weight of each arc.
+     */
+    private final double[] weights;
+    
+    /**
+     * Whether each arc leads from a smaller node index to a larger one.
+     */
+    private final boolean topologicallyOrdered;
+    
+    GeneratedGraph(int[] offsets, 
+                   int[] heads, 
+                   double[] weights,
+                   boolean topologicallyOrdered) {
+        this.offsets = offsets;
+        this.heads = heads;
+        this.weights = weights;
+        this.topologicallyOrdered = topologicallyOrdered;
+    }
+    
+    /**
+     * Returns {@code true} if each arc of this graph leads from a smaller node
+     * index to a larger one.
+     * 
+     * @return {@code true} if the node indices are in topological order.
+     */
+    public boolean isTopologicallyOrdered() {
+        return topologicallyOrdered;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getNodeAmount() {
+        return offsets.length - 1;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getArcAmount() {
+        return heads.length;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getArcBeginIndex(int nodeIndex) {
+        return offsets[nodeIndex];
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getArcEndIndex(int nodeIndex) {
+        return offsets[nodeIndex + 1];
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getArcHead(int arcIndex) {
+        return heads[arcIndex];
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double getArcWeight(int arcIndex) {
+        return weights[arcIndex];
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public String getNodeName(int nodeIndex) {
+        return Integer.toString(nodeIndex);
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getNodeIndex(String nodeName) {
+        int nodeIndex;
+        
+        try {
+            nodeIndex = Integer.parseInt(nodeName);
+        } catch (NumberFormatException ex) {
+            return -1;
+        }
+        
+        // Reject the names of other spelling, such as "+1" or "01".
+        return nodeIndex >= 0 
+                && nodeIndex < getNodeAmount() 
+                && nodeName.equals(getNodeName(nodeIndex)) ? nodeIndex : -1;
+    }
+}
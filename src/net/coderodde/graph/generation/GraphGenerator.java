@@ -0,0 +1,203 @@
+package net.coderodde.graph.generation;
+
+import java.util.Objects;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+import net.coderodde.graph.AbstractWeightFunction;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.support.DirectedGraphNode;
+
+/**
+ * This class generates random graphs from the models extending 
+ * {@link AbstractGraphModel}. The generation is deterministic: a seed and a 
+ * model always produce the same graph, regardless of the parallelism of the 
+ * pool generating it.
+ * <p>
+ * The nodes are split into blocks of {@link #BLOCK_SIZE} consecutive nodes, 
+ * and each block draws from two {@link SplittableRandom} streams split off 
+ * the seed in block order: one for the out-degrees and one for the arcs. The
+ * blocks are generated in parallel in two passes. The first pass draws the 
+ * out-degrees, from which the arc offsets of the nodes are summed up; the 
+ * second pass draws the heads and the weights straight into their final 
+ * positions, so no intermediate arc lists are ever allocated.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class GraphGenerator {
+    
+    /**
+     * The amount of nodes in a block.
+     */
+    static final int BLOCK_SIZE = 1 << 14;
+    
+    /**
+     * The seed of the random streams.
+     */
+    private final long seed;
+    
+    /**
+     * The pool generating the blocks.
+     */
+    private final ForkJoinPool pool;
+    
+    /**
+     * Constructs a generator working in the common pool.
+     * 
+     * @param seed the seed of the random streams.
+     */
+    public GraphGenerator(long seed) {
+        this(seed, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Constructs a generator.
+     * 
+     * @param seed the seed of the random streams.
+     * @param pool the pool to generate in.
+     */
+    public GraphGenerator(long seed, ForkJoinPool pool) {
+        this.seed = seed;
+        this.pool = Objects.requireNonNull(pool, "The input pool is null.");
+    }
+    
+    /**
+     * Generates a graph in compressed sparse row form.
+     * 
+     * @param model the model of the graph.
+     * @return the generated graph.
+     * @throws IllegalStateException if the graph has more than 
+     *                               {@code Integer.MAX_VALUE} arcs.
+     */
+    public GeneratedGraph generate(AbstractGraphModel model) {
+        Objects.requireNonNull(model, "The input model is null.");
+        
+        SplittableRandom random = new SplittableRandom(seed);
+        model.initialize(random.split());
+        
+        int nodeAmount = model.getNodeAmount();
+        int blockAmount = (nodeAmount + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        SplittableRandom[] degreeRandoms = new SplittableRandom[blockAmount];
+        SplittableRandom[] arcRandoms = new SplittableRandom[blockAmount];
+        
+        for (int block = 0; block < blockAmount; ++block) {
+            degreeRandoms[block] = random.split();
+            arcRandoms[block] = random.split();
+        }
+        
+        // offsets[tail + 1] holds the out-degree of 'tail' until summed up.
+        int[] offsets = new int[nodeAmount + 1];
+        
+        forEachBlock(blockAmount, (block) -> {
+            SplittableRandom blockRandom = degreeRandoms[block];
+            
+            for (int tail = block * BLOCK_SIZE, 
+                     end = Math.min(nodeAmount, tail + BLOCK_SIZE);
+                     tail < end;
+                     ++tail) {
+                offsets[tail + 1] = model.getOutDegree(tail, blockRandom);
+            }
+        });
+        
+        long arcAmount = 0L;
+        
+        for (int i = 1; i <= nodeAmount; ++i) {
+            arcAmount += offsets[i];
+            
+            if (arcAmount > Integer.MAX_VALUE) {
+                throw new IllegalStateException(
+                        "The generated graph has more than " + 
+                        Integer.MAX_VALUE + " arcs.");
+            }
+            
+            offsets[i] = (int) arcAmount;
+        }
+        
+        int[] heads = new int[(int) arcAmount];
+        double[] weights = new double[(int) arcAmount];
+        
+        forEachBlock(blockAmount, (block) -> {
+            SplittableRandom blockRandom = arcRandoms[block];
+            
+            for (int tail = block * BLOCK_SIZE, 
+                     end = Math.min(nodeAmount, tail + BLOCK_SIZE);
+                     tail < end;
+                     ++tail) {
+                for (int arc = offsets[tail]; arc < offsets[tail + 1]; ++arc) {
+                    int head = model.getHead(tail, 
+                                             arc - offsets[tail], 
+                                             blockRandom);
+                    heads[arc] = head;
+                    weights[arc] = model.getWeight(tail, head, blockRandom);
+                }
+            }
+        });
+        
+        return new GeneratedGraph(offsets, heads, weights, model.isAcyclic());
+    }
+    
+    /**
+     * Generates a graph into a {@link Graph}. The nodes are added in the order
+     * of their indices and named by them, so in an initially empty graph the 
+     * ids of the nodes equal their indices. Parallel arcs are merged into a 
+     * single arc with the least weight, which preserves the shortest paths.
+     * 
+     * @param model          the model of the graph.
+     * @param graph          the graph to add the nodes and the arcs to.
+     * @param weightFunction the weight function to add the weights to.
+     * @return the added nodes indexed by the node indices of the model.
+     * @throws IllegalStateException if the graph has more than 
+     *                               {@code Integer.MAX_VALUE} arcs.
+     */
+    public DirectedGraphNode[] generate(
+            AbstractGraphModel model,
+            Graph<DirectedGraphNode> graph,
+            AbstractWeightFunction<DirectedGraphNode> weightFunction) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        Objects.requireNonNull(weightFunction, 
+                               "The input weight function is null.");
+        
+        GeneratedGraph generated = generate(model);
+        DirectedGraphNode[] nodes = 
+                new DirectedGraphNode[generated.getNodeAmount()];
+        
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new DirectedGraphNode(generated.getNodeName(i));
+            graph.addNode(nodes[i]);
+        }
+        
+        for (int i = 0; i < nodes.length; ++i) {
+            DirectedGraphNode tail = nodes[i];
+            
+            for (int arc = generated.getArcBeginIndex(i), 
+                     end = generated.getArcEndIndex(i);
+                     arc < end;
+                     ++arc) {
+                DirectedGraphNode head = nodes[generated.getArcHead(arc)];
+                double weight = generated.getArcWeight(arc);
+                
+                if (tail.addChild(head) 
+                        || weight < weightFunction.get(tail, head)) {
+                    weightFunction.put(tail, head, weight);
+                }
+            }
+        }
+        
+        return nodes;
+    }
+    
+    /**
+     * Runs an action for each block in the pool of this generator.
+     * 
+     * @param blockAmount the amount of blocks.
+     * @param action      the action to run for each block index.
+     */
+    private void forEachBlock(int blockAmount, IntConsumer action) {
+        pool.submit(() -> IntStream.range(0, blockAmount)
+                                   .parallel()
+                                   .forEach(action))
+            .join();
+    }
+}
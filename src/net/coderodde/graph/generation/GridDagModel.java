@@ -0,0 +1,85 @@
+package net.coderodde.graph.generation;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class implements a model of grid-like dags. The nodes form a grid of
+ * {@code rows} times {@code columns} nodes numbered row by row, and each node
+ * has an arc to its right neighbor and to its lower neighbor. Only the 
+ * weights are random. The shortest paths of grids are long and there are 
+ * exponentially many paths between two distant nodes, which stresses the 
+ * relaxations rather than the reachability pruning.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class GridDagModel extends AbstractGraphModel {
+    
+    /**
+     * The amount of rows.
+     */
+    private final int rows;
+    
+    /**
+     * The amount of columns.
+     */
+    private final int columns;
+    
+    /**
+     * Constructs a grid dag model.
+     * 
+     * @param rows    the amount of rows.
+     * @param columns the amount of columns.
+     * @throws IllegalArgumentException if a parameter is out of range.
+     */
+    public GridDagModel(int rows, int columns) {
+        checkPositive(rows, "amount of rows");
+        checkPositive(columns, "amount of columns");
+        
+        if ((long) rows * columns > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "The grid has more than " + Integer.MAX_VALUE + 
+                    " nodes.");
+        }
+        
+        this.rows = rows;
+        this.columns = columns;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getNodeAmount() {
+        return rows * columns;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getOutDegree(int tail, SplittableRandom random) {
+        return (hasRightNeighbor(tail) ? 1 : 0) + 
+               (tail / columns < rows - 1 ? 1 : 0);
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getHead(int tail, int arc, SplittableRandom random) {
+        return arc == 0 && hasRightNeighbor(tail) ? tail + 1 : tail + columns;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean isAcyclic() {
+        return true;
+    }
+    
+    private boolean hasRightNeighbor(int node) {
+        return node % columns < columns - 1;
+    }
+}
@@ -0,0 +1,136 @@
+package net.coderodde.graph.generation;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * This class implements a model of layered dags. The nodes are split into
+ * layers of random width, and each arc leads from a layer to one of the next 
+ * {@code maxProceed} layers. The node indices grow layer by layer, so they are
+ * in topological order. The out-degrees follow the Poisson distribution; the 
+ * nodes of the last layer have no arcs.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class LayeredDagModel extends AbstractGraphModel {
+    
+    /**
+     * The amount of layers.
+     */
+    private final int layers;
+    
+    /**
+     * The maximum amount of nodes in a layer.
+     */
+    private final int maxLayerWidth;
+    
+    /**
+     * The maximum advance of an arc through layers.
+     */
+    private final int maxProceed;
+    
+    /**
+     * The average amount of arcs leaving a node outside the last layer.
+     */
+    private final double averageOutDegree;
+    
+    /**
+     * The index of the first node of each layer, followed by the amount of 
+     * nodes.
+     */
+    private int[] layerBegins;
+    
+    /**
+     * Constructs a layered dag model.
+     * 
+     * @param layers           the amount of layers.
+     * @param maxLayerWidth    the maximum amount of nodes in a layer. The 
+     *                         widths are uniform in 
+     *                         {@code 1, ..., maxLayerWidth}.
+     * @param maxProceed       the maximum advance of an arc through layers.
+     * @param averageOutDegree the average out-degree of the nodes.
+     * @throws IllegalArgumentException if a parameter is out of range.
+     */
+    public LayeredDagModel(int layers,
+                           int maxLayerWidth,
+                           int maxProceed,
+                           double averageOutDegree) {
+        checkPositive(layers, "amount of layers");
+        checkPositive(maxLayerWidth, "maximum layer width");
+        checkPositive(maxProceed, "maximum advance");
+        checkAverageOutDegree(averageOutDegree);
+        
+        if ((long) layers * maxLayerWidth > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(
+                    "The model may have more than " + Integer.MAX_VALUE + 
+                    " nodes.");
+        }
+        
+        this.layers = layers;
+        this.maxLayerWidth = maxLayerWidth;
+        this.maxProceed = maxProceed;
+        this.averageOutDegree = averageOutDegree;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    protected void initialize(SplittableRandom random) {
+        layerBegins = new int[layers + 1];
+        
+        for (int i = 0; i < layers; ++i) {
+            layerBegins[i + 1] = layerBegins[i] + 1 + 
+                                 random.nextInt(maxLayerWidth);
+        }
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getNodeAmount() {
+        return layerBegins[layers];
+    }
+    
+    /**
+     * Returns the layer of a node.
+     * 
+     * @param node the index of the node.
+     * @return the index of the layer.
+     */
+    public int getLayer(int node) {
+        int index = Arrays.binarySearch(layerBegins, 0, layers, node);
+        return index >= 0 ? index : -index - 2;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getOutDegree(int tail, SplittableRandom random) {
+        return getLayer(tail) == layers - 1 ? 
+               0 : 
+               nextPoisson(random, averageOutDegree);
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getHead(int tail, int arc, SplittableRandom random) {
+        int layer = Math.min(layers - 1, 
+                             getLayer(tail) + 1 + random.nextInt(maxProceed));
+        int width = layerBegins[layer + 1] - layerBegins[layer];
+        return layerBegins[layer] + random.nextInt(width);
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean isAcyclic() {
+        return true;
+    }
+}
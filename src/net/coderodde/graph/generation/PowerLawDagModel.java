@@ -0,0 +1,108 @@
+package net.coderodde.graph.generation;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class implements a model of dags whose out-degrees follow a power law:
+ * most nodes have a few arcs while a few hubs have very many. The 
+ * out-degrees are drawn from a discretized Pareto distribution with the 
+ * probability of the out-degree {@code d} proportional to 
+ * {@code d^-exponent}. Each arc leads to one of the next {@code window} 
+ * nodes, so the node indices are in topological order.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class PowerLawDagModel extends AbstractGraphModel {
+    
+    /**
+     * The amount of nodes.
+     */
+    private final int nodeAmount;
+    
+    /**
+     * The smallest out-degree of the Pareto distribution.
+     */
+    private final double scale;
+    
+    /**
+     * The negated reciprocal of the shape of the Pareto distribution.
+     */
+    private final double power;
+    
+    /**
+     * The maximum distance between the tail and the head of an arc, which is
+     * also the maximum out-degree.
+     */
+    private final int window;
+    
+    /**
+     * Constructs a power-law dag model.
+     * 
+     * @param nodeAmount       the amount of nodes.
+     * @param averageOutDegree the average out-degree before the out-degrees
+     *                         are capped to {@code window}.
+     * @param exponent         the exponent of the power law. Must be larger 
+     *                         than 2 so that the average is finite.
+     * @param window           the maximum index distance of an arc.
+     * @throws IllegalArgumentException if a parameter is out of range.
+     */
+    public PowerLawDagModel(int nodeAmount,
+                            double averageOutDegree,
+                            double exponent,
+                            int window) {
+        checkPositive(nodeAmount, "amount of nodes");
+        checkAverageOutDegree(averageOutDegree);
+        checkPositive(window, "window");
+        
+        if (!(exponent > 2.0) || Double.isInfinite(exponent)) {
+            throw new IllegalArgumentException(
+                    "The exponent must be larger than 2: " + exponent + ".");
+        }
+        
+        double shape = exponent - 1.0;
+        
+        this.nodeAmount = nodeAmount;
+        this.scale = averageOutDegree * (shape - 1.0) / shape;
+        this.power = -1.0 / shape;
+        this.window = window;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getNodeAmount() {
+        return nodeAmount;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getOutDegree(int tail, SplittableRandom random) {
+        if (tail == nodeAmount - 1) {
+            return 0;
+        }
+        
+        double degree = scale * Math.pow(1.0 - random.nextDouble(), power);
+        return (int) Math.min(window, Math.round(degree));
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getHead(int tail, int arc, SplittableRandom random) {
+        return tail + 1 + random.nextInt(Math.min(window, 
+                                                  nodeAmount - 1 - tail));
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean isAcyclic() {
+        return true;
+    }
+}
@@ -0,0 +1,65 @@
+package net.coderodde.graph.generation;
+
+import java.util.SplittableRandom;
+
+/**
+ * This class implements a model of general directed graphs, which are cyclic
+ * in all but the sparsest cases. The out-degrees follow the Poisson 
+ * distribution and the heads are uniform over all the other nodes.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class RandomGraphModel extends AbstractGraphModel {
+    
+    /**
+     * The amount of nodes.
+     */
+    private final int nodeAmount;
+    
+    /**
+     * The average out-degree of the nodes.
+     */
+    private final double averageOutDegree;
+    
+    /**
+     * Constructs a random graph model.
+     * 
+     * @param nodeAmount       the amount of nodes.
+     * @param averageOutDegree the average out-degree of the nodes.
+     * @throws IllegalArgumentException if a parameter is out of range.
+     */
+    public RandomGraphModel(int nodeAmount, double averageOutDegree) {
+        checkPositive(nodeAmount, "amount of nodes");
+        checkAverageOutDegree(averageOutDegree);
+        
+        this.nodeAmount = nodeAmount;
+        this.averageOutDegree = averageOutDegree;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getNodeAmount() {
+        return nodeAmount;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getOutDegree(int tail, SplittableRandom random) {
+        return nodeAmount == 1 ? 0 : nextPoisson(random, averageOutDegree);
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getHead(int tail, int arc, SplittableRandom random) {
+        // Skip the tail itself.
+        int head = random.nextInt(nodeAmount - 1);
+        return head < tail ? head : head + 1;
+    }
+}
@@ -0,0 +1,311 @@
+package net.coderodde.graph.io;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * This class implements a little-endian byte buffer addressed by
+ * {@code long} positions, backed either by a mapped file or by direct memory
+ * outside the collected heap. A single {@link ByteBuffer} holds at most
+ * {@code Integer.MAX_VALUE} bytes, so the contents are split into chunks of
+ * {@code 2^30} bytes. Since the chunk size is a multiple of 8, a naturally
+ * aligned primitive never straddles two chunks.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class ChunkedBuffer {
+    
+    /**
+     * The base-2 logarithm of the chunk size.
+     */
+    private static final int CHUNK_SHIFT = 30;
+    
+    /**
+     * Masks the position within a chunk.
+     */
+    private static final long CHUNK_MASK = (1L << CHUNK_SHIFT) - 1;
+    
+    /**
+     * Replaces the chunks of a released buffer, so that any further access 
+     * fails with an {@link IndexOutOfBoundsException} instead of touching the
+     * freed memory.
+     */
+    private static final ByteBuffer RELEASED = ByteBuffer.allocate(0);
+    
+    /**
+     * Frees the memory of a direct or mapped {@link ByteBuffer} right away, or
+     * is {@code null} if the running JDK offers no way to do so, in which case
+     * the memory is freed once the buffer is collected.
+     */
+    private static final MethodHandle CLEANER = findCleaner();
+    
+    /**
+     * The chunks.
+     */
+    private final ByteBuffer[] chunks;
+    
+    /**
+     * The size of this buffer in bytes.
+     */
+    private final long size;
+    
+    private ChunkedBuffer(ByteBuffer[] chunks, long size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+    
+    /**
+     * Maps a read-only region of a file. The mapping stays valid after the
+     * channel is closed.
+     * 
+     * @param channel  the channel of the file.
+     * @param position the position of the region in the file.
+     * @param size     the size of the region in bytes.
+     * @return the buffer over the region.
+     * @throws IOException if an I/O error occurs.
+     */
+    static ChunkedBuffer map(FileChannel channel, long position, long size)
+            throws IOException {
+        ByteBuffer[] chunks = new ByteBuffer[chunkAmount(size)];
+        
+        for (int i = 0; i < chunks.length; ++i) {
+            long chunkPosition = (long) i << CHUNK_SHIFT;
+            long chunkSize = Math.min(1L << CHUNK_SHIFT, size - chunkPosition);
+            
+            chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                                    position + chunkPosition,
+                                    chunkSize)
+                               .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        
+        return new ChunkedBuffer(chunks, size);
+    }
+    
+    /**
+     * Allocates a zeroed buffer in direct memory. The memory is released by 
+     * {@link #release()}, or once the buffer becomes unreachable. The 
+     * allocation counts towards the direct memory limit of the JVM.
+     * 
+     * @param size the size of the buffer in bytes.
+     * @return the buffer.
+     */
+    static ChunkedBuffer allocateDirect(long size) {
+        ByteBuffer[] chunks = new ByteBuffer[chunkAmount(size)];
+        
+        for (int i = 0; i < chunks.length; ++i) {
+            long chunkPosition = (long) i << CHUNK_SHIFT;
+            int chunkSize = 
+                    (int) Math.min(1L << CHUNK_SHIFT, size - chunkPosition);
+            
+            chunks[i] = ByteBuffer.allocateDirect(chunkSize)
+                                  .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        
+        return new ChunkedBuffer(chunks, size);
+    }
+    
+    /**
+     * Reads a whole file into direct memory.
+     * 
+     * @param channel the channel of the file.
+     * @return the buffer holding the contents of the file.
+     * @throws IOException if an I/O error occurs.
+     */
+    static ChunkedBuffer read(FileChannel channel) throws IOException {
+        ChunkedBuffer buffer = allocateDirect(channel.size());
+        long position = 0L;
+        
+        for (ByteBuffer chunk : buffer.chunks) {
+            while (chunk.hasRemaining()) {
+                int read = channel.read(chunk, position);
+                
+                if (read == -1) {
+                    throw new IOException("The file was truncated while " +
+                                          "being read.");
+                }
+                
+                position += read;
+            }
+            
+            chunk.clear();
+        }
+        
+        return buffer;
+    }
+    
+    /**
+     * Frees the memory of this buffer without waiting for the garbage 
+     * collector to find it unreachable. The buffer may not be accessed 
+     * concurrently with or after this call; the accesses after it fail. 
+     * Releasing a buffer twice has no effect.
+     */
+    void release() {
+        for (int i = 0; i < chunks.length; ++i) {
+            ByteBuffer chunk = chunks[i];
+            chunks[i] = RELEASED;
+            
+            if (chunk != RELEASED && CLEANER != null) {
+                try {
+                    CLEANER.invokeExact(chunk);
+                } catch (Throwable ex) {
+                    // The chunk is left to its cleaner.
+                }
+            }
+        }
+    }
+    
+    /**
+     * Returns the size of this buffer in bytes.
+     * 
+     * @return the size of this buffer.
+     */
+    long size() {
+        return size;
+    }
+    
+    /**
+     * Returns the byte at the given position.
+     * 
+     * @param position the byte position.
+     * @return the byte.
+     */
+    byte getByte(long position) {
+        return chunks[(int) (position >>> CHUNK_SHIFT)]
+                .get((int) (position & CHUNK_MASK));
+    }
+    
+    /**
+     * Returns the {@code int} with the given element index.
+     * 
+     * @param index the index of the {@code int}.
+     * @return the value.
+     */
+    int getInt(long index) {
+        long position = index << 2;
+        return chunks[(int) (position >>> CHUNK_SHIFT)]
+                .getInt((int) (position & CHUNK_MASK));
+    }
+    
+    /**
+     * Returns the {@code long} with the given element index.
+     * 
+     * @param index the index of the {@code long}.
+     * @return the value.
+     */
+    long getLong(long index) {
+        long position = index << 3;
+        return chunks[(int) (position >>> CHUNK_SHIFT)]
+                .getLong((int) (position & CHUNK_MASK));
+    }
+    
+    /**
+     * Returns the {@code double} with the given element index.
+     * 
+     * @param index the index of the {@code double}.
+     * @return the value.
+     */
+    double getDouble(long index) {
+        long position = index << 3;
+        return chunks[(int) (position >>> CHUNK_SHIFT)]
+                .getDouble((int) (position & CHUNK_MASK));
+    }
+    
+    /**
+     * Stores a byte to the given position.
+     * 
+     * @param position the byte position.
+     * @param value    the byte.
+     */
+    void putByte(long position, byte value) {
+        chunks[(int) (position >>> CHUNK_SHIFT)]
+                .put((int) (position & CHUNK_MASK), value);
+    }
+    
+    /**
+     * Stores an {@code int} to the given element index.
+     * 
+     * @param index the index of the {@code int}.
+     * @param value the value.
+     */
+    void putInt(long index, int value) {
+        long position = index << 2;
+        chunks[(int) (position >>> CHUNK_SHIFT)]
+                .putInt((int) (position & CHUNK_MASK), value);
+    }
+    
+    /**
+     * Stores a {@code long} to the given element index.
+     * 
+     * @param index the index of the {@code long}.
+     * @param value the value.
+     */
+    void putLong(long index, long value) {
+        long position = index << 3;
+        chunks[(int) (position >>> CHUNK_SHIFT)]
+                .putLong((int) (position & CHUNK_MASK), value);
+    }
+    
+    /**
+     * Stores a {@code double} to the given element index.
+     * 
+     * @param index the index of the {@code double}.
+     * @param value the value.
+     */
+    void putDouble(long index, double value) {
+        long position = index << 3;
+        chunks[(int) (position >>> CHUNK_SHIFT)]
+                .putDouble((int) (position & CHUNK_MASK), value);
+    }
+    
+    /**
+     * Copies bytes starting from the given position.
+     * 
+     * @param position    the byte position.
+     * @param destination the array to copy to.
+     */
+    void getBytes(long position, byte[] destination) {
+        for (int i = 0; i < destination.length; ++i) {
+            destination[i] = getByte(position + i);
+        }
+    }
+    
+    /**
+     * Looks up {@code sun.misc.Unsafe.invokeCleaner(ByteBuffer)}, which the
+     * JDK exports through the {@code jdk.unsupported} module since Java 9.
+     * 
+     * @return the handle of the cleaner, or {@code null} if there is none.
+     */
+    private static MethodHandle findCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field field = unsafeClass.getDeclaredField("theUnsafe");
+            field.setAccessible(true);
+            
+            return MethodHandles.lookup()
+                    .findVirtual(unsafeClass, 
+                                 "invokeCleaner",
+                                 MethodType.methodType(void.class, 
+                                                       ByteBuffer.class))
+                    .bindTo(field.get(null));
+        } catch (ReflectiveOperationException | RuntimeException ex) {
+            return null;
+        }
+    }
+    
+    /**
+     * Returns the amount of chunks needed for the given size.
+     * 
+     * @param size the size in bytes.
+     * @return the amount of chunks.
+     */
+    private static int chunkAmount(long size) {
+        return (int) ((size + CHUNK_MASK) >>> CHUNK_SHIFT);
+    }
+}
@@ -0,0 +1,424 @@
+package net.coderodde.graph.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+import net.coderodde.graph.AbstractWeightFunction;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.support.DirectedGraphNode;
+
+/**
+ * This class imports graphs from text edge lists. Each line of an edge list
+ * holds the name of the tail node, the name of the head node and the weight
+ * of the arc, separated by spaces or tabs. Blank lines and lines starting with
+ * {@code #} are skipped. Gzip-compressed input is detected by its magic
+ * number.
+ * <p>
+ * The input is read in batches of whole lines. The batches are parsed in
+ * parallel in a fork/join pool while the calling thread adds the parsed arcs
+ * of the earlier batches to the graph in input order, so at most a bounded
+ * amount of batches is held in memory at any time. The nodes are created
+ * upon the first occurrence of their names, and so get their dense ids in
+ * the order of appearance.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class EdgeListImporter {
+    
+    /**
+     * The default batch size in bytes.
+     */
+    private static final int DEFAULT_BATCH_SIZE = 1 << 22;
+    
+    /**
+     * The first two bytes of gzip streams.
+     */
+    private static final int GZIP_MAGIC = 0x1f8b;
+    
+    /**
+     * The pool parsing the batches.
+     */
+    private final ForkJoinPool pool;
+    
+    /**
+     * The size of the batches in bytes.
+     */
+    private final int batchSize;
+    
+    /**
+     * The maximum amount of batches being parsed at a time.
+     */
+    private final int maximumPendingBatches;
+    
+    /**
+     * Constructs an importer parsing in the common pool.
+     */
+    public EdgeListImporter() {
+        this(ForkJoinPool.commonPool(), DEFAULT_BATCH_SIZE);
+    }
+    
+    /**
+     * Constructs an importer.
+     * 
+     * @param pool      the pool to parse in.
+     * @param batchSize the amount of bytes read per batch. A line longer than
+     *                  the batch size gets a batch of its own.
+     * @throws IllegalArgumentException if {@code batchSize} is not positive.
+     */
+    public EdgeListImporter(ForkJoinPool pool, int batchSize) {
+        this.pool = Objects.requireNonNull(pool, "The input pool is null.");
+        
+        if (batchSize < 1) {
+            throw new IllegalArgumentException(
+                    "The batch size must be positive: " + batchSize + ".");
+        }
+        
+        this.batchSize = batchSize;
+        this.maximumPendingBatches = 2 * pool.getParallelism();
+    }
+    
+    /**
+     * Imports the edge list in a file.
+     * 
+     * @param file           the file to import.
+     * @param graph          the graph to add the nodes and the arcs to.
+     * @param weightFunction the weight function to add the weights to.
+     * @return the amount of arcs read.
+     * @throws IOException if an I/O error occurs or a line is malformed.
+     */
+    public long importGraph(
+            Path file,
+            Graph<DirectedGraphNode> graph,
+            AbstractWeightFunction<DirectedGraphNode> weightFunction)
+            throws IOException {
+        Objects.requireNonNull(file, "The input file is null.");
+        
+        try (InputStream in = Files.newInputStream(file)) {
+            return importGraph(in, graph, weightFunction);
+        }
+    }
+    
+    /**
+     * Imports the edge list in a stream. The stream is not closed.
+     * 
+     * @param in             the stream to import.
+     * @param graph          the graph to add the nodes and the arcs to.
+     * @param weightFunction the weight function to add the weights to.
+     * @return the amount of arcs read.
+     * @throws IOException if an I/O error occurs or a line is malformed.
+     */
+    public long importGraph(
+            InputStream in,
+            Graph<DirectedGraphNode> graph,
+            AbstractWeightFunction<DirectedGraphNode> weightFunction)
+            throws IOException {
+        Objects.requireNonNull(in, "The input stream is null.");
+        Objects.requireNonNull(graph, "The input graph is null.");
+        Objects.requireNonNull(weightFunction,
+                               "The input weight function is null.");
+        
+        InputStream input = decompressIfNeeded(in);
+        Deque<Future<Batch>> pending = new ArrayDeque<>();
+        byte[] buffer = new byte[batchSize];
+        int length = 0;
+        long arcAmount = 0L;
+        
+        try {
+            while (true) {
+                int read = input.read(buffer, length, buffer.length - length);
+                
+                if (read == -1) {
+                    break;
+                }
+                
+                length += read;
+                
+                if (length < buffer.length) {
+                    continue;
+                }
+                
+                int end = lastLineEnd(buffer, length);
+                
+                if (end == 0) {
+                    // The line does not fit in the buffer.
+                    buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+                    continue;
+                }
+                
+                byte[] batch = Arrays.copyOf(buffer, end);
+                pending.addLast(pool.submit(() -> Batch.parse(batch)));
+                
+                length -= end;
+                System.arraycopy(buffer, end, buffer, 0, length);
+                
+                if (buffer.length > batchSize && length < batchSize) {
+                    buffer = Arrays.copyOf(buffer, batchSize);
+                }
+                
+                if (pending.size() >= maximumPendingBatches) {
+                    arcAmount += join(pending.removeFirst())
+                            .addTo(graph, weightFunction);
+                }
+            }
+            
+            if (length > 0) {
+                byte[] batch = Arrays.copyOf(buffer, length);
+                pending.addLast(pool.submit(() -> Batch.parse(batch)));
+            }
+            
+            while (!pending.isEmpty()) {
+                arcAmount += join(pending.removeFirst())
+                        .addTo(graph, weightFunction);
+            }
+        } finally {
+            pending.forEach((future) -> future.cancel(false));
+        }
+        
+        return arcAmount;
+    }
+    
+    /**
+     * Wraps the input stream into a gzip decoder if the stream starts with the
+     * gzip magic number.
+     * 
+     * @param in the stream to examine.
+     * @return the stream of the uncompressed data.
+     * @throws IOException if an I/O error occurs.
+     */
+    private static InputStream decompressIfNeeded(InputStream in)
+            throws IOException {
+        InputStream buffered = new BufferedInputStream(in);
+        buffered.mark(2);
+        int magic = (buffered.read() << 8) | buffered.read();
+        buffered.reset();
+        
+        return magic == GZIP_MAGIC ?
+               new GZIPInputStream(buffered, 1 << 16) :
+               buffered;
+    }
+    
+    /**
+     * Returns the position one past the last line feed in the buffer.
+     * 
+     * @param buffer the buffer.
+     * @param length the amount of bytes in the buffer.
+     * @return the length of the complete lines, or 0 if there are none.
+     */
+    private static int lastLineEnd(byte[] buffer, int length) {
+        for (int i = length - 1; i >= 0; --i) {
+            if (buffer[i] == '\n') {
+                return i + 1;
+            }
+        }
+        
+        return 0;
+    }
+    
+    /**
+     * Waits for a batch to be parsed.
+     * 
+     * @param future the future of the batch.
+     * @return the parsed batch.
+     * @throws IOException if the batch is malformed or the wait is
+     *                     interrupted.
+     */
+    private static Batch join(Future<Batch> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("The import was interrupted.");
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof IOException) {
+                throw (IOException) ex.getCause();
+            }
+            
+            throw new IOException(ex.getCause());
+        }
+    }
+    
+    /**
+     * Holds the arcs parsed from a batch of lines.
+     */
+    private static final class Batch {
+        
+        private String[] tails;
+        private String[] heads;
+        private double[] weights;
+        private int size;
+        
+        private Batch(int capacity) {
+            this.tails = new String[capacity];
+            this.heads = new String[capacity];
+            this.weights = new double[capacity];
+        }
+        
+        /**
+         * Parses the lines in the input bytes.
+         * 
+         * @param bytes the lines.
+         * @return the parsed arcs.
+         * @throws IOException if a line is malformed.
+         */
+        static Batch parse(byte[] bytes) throws IOException {
+            // Guess the amount of lines from a short line length.
+            Batch batch = new Batch(Math.max(16, bytes.length / 16));
+            int[] fields = new int[6];
+            int lineBegin = 0;
+            
+            while (lineBegin < bytes.length) {
+                int lineEnd = lineBegin;
+                
+                while (lineEnd < bytes.length && bytes[lineEnd] != '\n') {
+                    ++lineEnd;
+                }
+                
+                int fieldAmount = split(bytes, lineBegin, lineEnd, fields);
+                
+                if (fieldAmount > 0 && bytes[fields[0]] != '#') {
+                    if (fieldAmount != 3) {
+                        throw new IOException(
+                                "Malformed edge list line: \"" +
+                                new String(bytes,
+                                           lineBegin,
+                                           lineEnd - lineBegin,
+                                           StandardCharsets.UTF_8).trim() +
+                                "\".");
+                    }
+                    
+                    batch.add(field(bytes, fields, 0),
+                              field(bytes, fields, 1),
+                              parseWeight(bytes, fields));
+                }
+                
+                lineBegin = lineEnd + 1;
+            }
+            
+            return batch;
+        }
+        
+        /**
+         * Adds the parsed arcs to a graph, creating the missing nodes.
+         * 
+         * @param graph          the graph to add to.
+         * @param weightFunction the weight function to add to.
+         * @return the amount of arcs in this batch.
+         */
+        long addTo(Graph<DirectedGraphNode> graph,
+                   AbstractWeightFunction<DirectedGraphNode> weightFunction) {
+            for (int i = 0; i < size; ++i) {
+                DirectedGraphNode tail = intern(graph, tails[i]);
+                DirectedGraphNode head = intern(graph, heads[i]);
+                
+                tail.addChild(head);
+                weightFunction.put(tail, head, weights[i]);
+            }
+            
+            return size;
+        }
+        
+        private void add(String tail, String head, double weight) {
+            if (size == tails.length) {
+                tails = Arrays.copyOf(tails, 2 * size);
+                heads = Arrays.copyOf(heads, 2 * size);
+                weights = Arrays.copyOf(weights, 2 * size);
+            }
+            
+            tails[size] = tail;
+            heads[size] = head;
+            weights[size++] = weight;
+        }
+        
+        private static DirectedGraphNode intern(Graph<DirectedGraphNode> graph,
+                                                String name) {
+            DirectedGraphNode node = graph.getNode(name);
+            
+            if (node == null) {
+                node = new DirectedGraphNode(name);
+                graph.addNode(node);
+            }
+            
+            return node;
+        }
+        
+        /**
+         * Splits a line into whitespace-separated fields.
+         * 
+         * @param bytes  the bytes holding the line.
+         * @param begin  the position of the first byte of the line.
+         * @param end    the position one past the last byte of the line.
+         * @param fields the begin and end positions of the first three fields.
+         * @return the amount of fields in the line.
+         */
+        private static int split(byte[] bytes,
+                                 int begin,
+                                 int end,
+                                 int[] fields) {
+            int fieldAmount = 0;
+            int i = begin;
+            
+            while (true) {
+                while (i < end && isSpace(bytes[i])) {
+                    ++i;
+                }
+                
+                if (i == end) {
+                    return fieldAmount;
+                }
+                
+                int fieldBegin = i;
+                
+                while (i < end && !isSpace(bytes[i])) {
+                    ++i;
+                }
+                
+                if (fieldAmount < 3) {
+                    fields[2 * fieldAmount] = fieldBegin;
+                    fields[2 * fieldAmount + 1] = i;
+                }
+                
+                ++fieldAmount;
+            }
+        }
+        
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+        
+        private static String field(byte[] bytes, int[] fields, int index) {
+            int begin = fields[2 * index];
+            return new String(bytes,
+                              begin,
+                              fields[2 * index + 1] - begin,
+                              StandardCharsets.UTF_8);
+        }
+        
+        private static double parseWeight(byte[] bytes, int[] fields)
+                throws IOException {
+            String text = new String(bytes,
+                                     fields[4],
+                                     fields[5] - fields[4],
+                                     StandardCharsets.ISO_8859_1);
+            
+            try {
+                return Double.parseDouble(text);
+            } catch (NumberFormatException ex) {
+                throw new IOException("Malformed arc weight: \"" +
+                                      text + "\".");
+            }
+        }
+    }
+}
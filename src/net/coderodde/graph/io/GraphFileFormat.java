@@ -0,0 +1,113 @@
+package net.coderodde.graph.io;
+
+/**
+ * This class describes the layout of the binary graph files. All the values
+ * are little-endian. A file starts with the header
+ * <pre>
+ *   int  magic          0x47524631 ("GRF1")
+ *   int  version
+ *   int  flags
+ *   int  node amount    V
+ *   int  arc amount     E
+ *   int  reserved
+ *   long name bytes     B
+ * </pre>
+ * followed by the sections
+ * <pre>
+ *   int[V + 1]  arc offsets
+ *   int[E]      arc heads
+ *   double[E]   arc weights
+ *   long[V + 1] name offsets into the name bytes
+ *   int[V]      node indices sorted by the UTF-8 bytes of their names
+ *   byte[B]     the UTF-8 encoded node names
+ * </pre>
+ * each starting at a multiple of 8 bytes.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class GraphFileFormat {
+    
+    /**
+     * The magic number of the graph files.
+     */
+    static final int MAGIC = 0x47524631;
+    
+    /**
+     * The current version of the format.
+     */
+    static final int VERSION = 1;
+    
+    /**
+     * Set if each arc leads from a smaller node index to a larger one.
+     */
+    static final int FLAG_TOPOLOGICAL = 1;
+    
+    /**
+     * The size of the header in bytes.
+     */
+    static final int HEADER_SIZE = 32;
+    
+    /**
+     * The position of the arc offset section.
+     */
+    final long offsetsPosition;
+    
+    /**
+     * The position of the arc head section.
+     */
+    final long headsPosition;
+    
+    /**
+     * The position of the arc weight section.
+     */
+    final long weightsPosition;
+    
+    /**
+     * The position of the name offset section.
+     */
+    final long nameOffsetsPosition;
+    
+    /**
+     * The position of the name order section.
+     */
+    final long nameOrderPosition;
+    
+    /**
+     * The position of the name bytes.
+     */
+    final long namesPosition;
+    
+    /**
+     * The size of the whole file in bytes.
+     */
+    final long fileSize;
+    
+    /**
+     * Computes the layout of a file with the given contents.
+     * 
+     * @param nodeAmount the amount of nodes.
+     * @param arcAmount  the amount of arcs.
+     * @param nameBytes  the total length of the encoded names.
+     */
+    GraphFileFormat(int nodeAmount, int arcAmount, long nameBytes) {
+        this.offsetsPosition = HEADER_SIZE;
+        this.headsPosition = align(offsetsPosition + 4L * (nodeAmount + 1));
+        this.weightsPosition = align(headsPosition + 4L * arcAmount);
+        this.nameOffsetsPosition = align(weightsPosition + 8L * arcAmount);
+        this.nameOrderPosition =
+                align(nameOffsetsPosition + 8L * (nodeAmount + 1));
+        this.namesPosition = align(nameOrderPosition + 4L * nodeAmount);
+        this.fileSize = namesPosition + nameBytes;
+    }
+    
+    /**
+     * Rounds the input position up to a multiple of 8.
+     * 
+     * @param position the position to align.
+     * @return the aligned position.
+     */
+    static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+}
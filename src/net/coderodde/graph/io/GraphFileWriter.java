@@ -0,0 +1,146 @@
+package net.coderodde.graph.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import net.coderodde.graph.AbstractGraphNode;
+import net.coderodde.graph.AbstractIndexedGraph;
+import net.coderodde.graph.AbstractWeightFunction;
+import net.coderodde.graph.CompressedSparseRowGraph;
+import net.coderodde.graph.Graph;
+
+/**
+ * This class writes graphs to the binary format read by {@link MappedGraph} 
+ * and {@link OffHeapGraph#load(Path)}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class GraphFileWriter {
+    
+    /**
+     * The size of the write buffer in bytes.
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+    
+    /**
+     * Writes a graph to a file. The node indices in the file follow the
+     * iteration order of the graph.
+     * 
+     * @param <N>            the actual graph node implementation type.
+     * @param graph          the graph to write.
+     * @param weightFunction the weight function of the graph.
+     * @param file           the file to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static <N extends AbstractGraphNode<N>>
+        void write(Graph<N> graph,
+                   AbstractWeightFunction<N> weightFunction,
+                   Path file) throws IOException {
+        write(new CompressedSparseRowGraph<>(graph, weightFunction), file);
+    }
+    
+    /**
+     * Writes an indexed graph, such as a graph snapshot, to a file. The node 
+     * indices in the file are those of the input graph, so writing a snapshot
+     * in topological order produces a file that may be searched with
+     * {@link net.coderodde.graph.pathfinding.support.IndexedGraphSearch#findShortestPathInDag}.
+     * 
+     * @param graph the graph to write.
+     * @param file  the file to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void write(AbstractIndexedGraph graph, Path file)
+            throws IOException {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        Objects.requireNonNull(file, "The output file is null.");
+        
+        GraphImage image = new GraphImage(graph);
+        
+        try (FileChannel channel =
+                FileChannel.open(file,
+                                 StandardOpenOption.CREATE,
+                                 StandardOpenOption.TRUNCATE_EXISTING,
+                                 StandardOpenOption.WRITE)) {
+            ChannelOutput out = new ChannelOutput(channel);
+            image.writeTo(out);
+            out.flush();
+        }
+    }
+    
+    /**
+     * Buffers the little-endian output to a channel.
+     */
+    private static final class ChannelOutput extends GraphImage.Output {
+        
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long position;
+        
+        ChannelOutput(FileChannel channel) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocate(BUFFER_SIZE)
+                                    .order(ByteOrder.LITTLE_ENDIAN);
+        }
+        
+        @Override
+        long position() {
+            return position + buffer.position();
+        }
+        
+        @Override
+        void putByte(byte value) throws IOException {
+            ensureRoom(1);
+            buffer.put(value);
+        }
+        
+        @Override
+        void putInt(int value) throws IOException {
+            ensureRoom(4);
+            buffer.putInt(value);
+        }
+        
+        @Override
+        void putLong(long value) throws IOException {
+            ensureRoom(8);
+            buffer.putLong(value);
+        }
+        
+        @Override
+        void putDouble(double value) throws IOException {
+            ensureRoom(8);
+            buffer.putDouble(value);
+        }
+        
+        @Override
+        void putBytes(byte[] bytes) throws IOException {
+            for (int offset = 0; offset < bytes.length;) {
+                ensureRoom(1);
+                int length = Math.min(buffer.remaining(),
+                                      bytes.length - offset);
+                buffer.put(bytes, offset, length);
+                offset += length;
+            }
+        }
+        
+        void flush() throws IOException {
+            buffer.flip();
+            
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer);
+            }
+            
+            buffer.clear();
+        }
+        
+        private void ensureRoom(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+    }
+}
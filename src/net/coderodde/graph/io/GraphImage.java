@@ -0,0 +1,196 @@
+package net.coderodde.graph.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+import net.coderodde.graph.AbstractIndexedGraph;
+
+/**
+ * This class lays out an indexed graph in the binary format described by
+ * {@link GraphFileFormat}, so that the same image may be written to a file or
+ * to direct memory.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class GraphImage {
+    
+    /**
+     * The graph to lay out.
+     */
+    private final AbstractIndexedGraph graph;
+    
+    /**
+     * The UTF-8 encoded name of each node.
+     */
+    private final byte[][] names;
+    
+    /**
+     * The node indices sorted by the encoded names.
+     */
+    private final int[] nameOrder;
+    
+    /**
+     * The total length of the encoded names.
+     */
+    private final long nameBytes;
+    
+    /**
+     * Whether each arc leads from a smaller node index to a larger one.
+     */
+    private final boolean topological;
+    
+    /**
+     * The layout of the image.
+     */
+    private final GraphFileFormat format;
+    
+    /**
+     * Prepares the image of the input graph.
+     * 
+     * @param graph the graph to lay out.
+     */
+    GraphImage(AbstractIndexedGraph graph) {
+        this.graph = graph;
+        
+        int nodeAmount = graph.getNodeAmount();
+        long bytes = 0L;
+        boolean ordered = true;
+        
+        this.names = new byte[nodeAmount][];
+        
+        for (int i = 0; i < nodeAmount; ++i) {
+            names[i] = graph.getNodeName(i).getBytes(StandardCharsets.UTF_8);
+            bytes += names[i].length;
+            
+            for (int arc = graph.getArcBeginIndex(i),
+                     end = graph.getArcEndIndex(i);
+                     arc < end;
+                     ++arc) {
+                ordered &= graph.getArcHead(arc) > i;
+            }
+        }
+        
+        this.nameBytes = bytes;
+        this.topological = ordered;
+        this.nameOrder =
+                IntStream.range(0, nodeAmount)
+                         .boxed()
+                         .sorted((i, j) -> Arrays.compareUnsigned(names[i],
+                                                                  names[j]))
+                         .mapToInt(Integer::intValue)
+                         .toArray();
+        this.format = new GraphFileFormat(nodeAmount,
+                                          graph.getArcAmount(),
+                                          nameBytes);
+    }
+    
+    /**
+     * Returns the size of this image in bytes.
+     * 
+     * @return the size of this image.
+     */
+    long getSize() {
+        return format.fileSize;
+    }
+    
+    /**
+     * Writes this image to the input output.
+     * 
+     * @param out the output to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeTo(Output out) throws IOException {
+        int nodeAmount = graph.getNodeAmount();
+        int arcAmount = graph.getArcAmount();
+        
+        out.putInt(GraphFileFormat.MAGIC);
+        out.putInt(GraphFileFormat.VERSION);
+        out.putInt(topological ? GraphFileFormat.FLAG_TOPOLOGICAL : 0);
+        out.putInt(nodeAmount);
+        out.putInt(arcAmount);
+        out.putInt(0);
+        out.putLong(nameBytes);
+        
+        out.padTo(format.offsetsPosition);
+        
+        for (int i = 0; i < nodeAmount; ++i) {
+            out.putInt(graph.getArcBeginIndex(i));
+        }
+        
+        out.putInt(arcAmount);
+        out.padTo(format.headsPosition);
+        
+        for (int arc = 0; arc < arcAmount; ++arc) {
+            out.putInt(graph.getArcHead(arc));
+        }
+        
+        out.padTo(format.weightsPosition);
+        
+        for (int arc = 0; arc < arcAmount; ++arc) {
+            out.putDouble(graph.getArcWeight(arc));
+        }
+        
+        out.padTo(format.nameOffsetsPosition);
+        
+        long nameOffset = 0L;
+        
+        for (byte[] name : names) {
+            out.putLong(nameOffset);
+            nameOffset += name.length;
+        }
+        
+        out.putLong(nameOffset);
+        out.padTo(format.nameOrderPosition);
+        
+        for (int index : nameOrder) {
+            out.putInt(index);
+        }
+        
+        out.padTo(format.namesPosition);
+        
+        for (byte[] name : names) {
+            out.putBytes(name);
+        }
+    }
+    
+    /**
+     * This abstract class defines the sequential output of images.
+     */
+    abstract static class Output {
+        
+        /**
+         * Returns the amount of bytes written so far.
+         * 
+         * @return the current position.
+         */
+        abstract long position();
+        
+        abstract void putByte(byte value) throws IOException;
+        
+        abstract void putInt(int value) throws IOException;
+        
+        abstract void putLong(long value) throws IOException;
+        
+        abstract void putDouble(double value) throws IOException;
+        
+        void putBytes(byte[] bytes) throws IOException {
+            for (byte b : bytes) {
+                putByte(b);
+            }
+        }
+        
+        /**
+         * Writes zero bytes up to the input position.
+         * 
+         * @param targetPosition the position to pad to.
+         * @throws IOException if an I/O error occurs.
+         */
+        void padTo(long targetPosition) throws IOException {
+            while (position() < targetPosition) {
+                putByte((byte) 0);
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package net.coderodde.graph.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+
+/**
+ * This class implements a read-only graph backed by a memory-mapped file in
+ * the format written by {@link GraphFileWriter}. Opening a file only reads its
+ * header: the arcs, the weights and the names are read from the mapped pages
+ * as the searches touch them, so no node objects are ever materialized and
+ * the bulk of the graph stays out of the collected heap.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class MappedGraph extends OffHeapGraph {
+    
+    private MappedGraph(ChunkedBuffer buffer) throws IOException {
+        super(buffer);
+    }
+    
+    /**
+     * Maps a graph file.
+     * 
+     * @param file the file to map.
+     * @return the mapped graph.
+     * @throws IOException if an I/O error occurs, or the file is not a valid
+     *                     graph file.
+     */
+    public static MappedGraph open(Path file) throws IOException {
+        Objects.requireNonNull(file, "The input file is null.");
+        
+        try (FileChannel channel = FileChannel.open(file,
+                                                    StandardOpenOption.READ)) {
+            return new MappedGraph(ChunkedBuffer.map(channel,
+                                                     0L,
+                                                     channel.size()));
+        }
+    }
+}
@@ -0,0 +1,373 @@
+package net.coderodde.graph.io;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Objects;
+import net.coderodde.graph.AbstractIndexedGraph;
+
+/**
+ * This class implements a read-only graph stored outside the collected heap in
+ * the binary format written by {@link GraphFileWriter}. The arc offsets, the
+ * arc heads, the weights and the names live in direct memory, so a graph of
+ * hundreds of millions of arcs neither inflates the heap nor adds to the work
+ * of the garbage collector, and no node objects are ever materialized. 
+ * <p>
+ * The memory is released by {@link #close()}, or otherwise once the garbage 
+ * collector finds the graph unreachable, which may take long since the graph
+ * hardly occupies the heap. The direct memory of the JVM is bounded by 
+ * {@code -XX:MaxDirectMemorySize}, which defaults to the maximum heap size, so
+ * running with a small heap requires raising the bound to at least 
+ * {@link #getSizeInBytes()} for all the graphs held at a time; otherwise 
+ * {@link #copyOf} and {@link #load} fail with an {@link OutOfMemoryError} of 
+ * direct buffer memory. A {@link MappedGraph} is not subject to the bound.
+ * <p>
+ * A store is created by copying an indexed graph, such as a graph snapshot, or
+ * by loading a graph file. {@link MappedGraph} reads the same layout directly
+ * from the page cache of a mapped file.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class OffHeapGraph extends AbstractIndexedGraph 
+implements AutoCloseable {
+    
+    /**
+     * The memory holding the graph.
+     */
+    private final ChunkedBuffer buffer;
+    
+    /**
+     * The amount of nodes.
+     */
+    private final int nodeAmount;
+    
+    /**
+     * The amount of arcs.
+     */
+    private final int arcAmount;
+    
+    /**
+     * The flags of the file.
+     */
+    private final int flags;
+    
+    /**
+     * The {@code int} index of the first arc offset.
+     */
+    private final long offsetsBase;
+    
+    /**
+     * The {@code int} index of the first arc head.
+     */
+    private final long headsBase;
+    
+    /**
+     * The {@code double} index of the first arc weight.
+     */
+    private final long weightsBase;
+    
+    /**
+     * The {@code long} index of the first name offset.
+     */
+    private final long nameOffsetsBase;
+    
+    /**
+     * The {@code int} index of the first entry of the name order.
+     */
+    private final long nameOrderBase;
+    
+    /**
+     * The byte position of the name bytes.
+     */
+    private final long namesPosition;
+    
+    /**
+     * Constructs a graph over the input buffer holding a graph image.
+     * 
+     * @param buffer the buffer holding the graph.
+     * @throws IOException if the buffer does not hold a valid graph image.
+     */
+    OffHeapGraph(ChunkedBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        
+        if (buffer.size() < GraphFileFormat.HEADER_SIZE
+                || buffer.getInt(0) != GraphFileFormat.MAGIC) {
+            throw new IOException("The input file does not hold a graph.");
+        }
+        
+        int version = buffer.getInt(1);
+        
+        if (version != GraphFileFormat.VERSION) {
+            throw new IOException("Unsupported graph file version: " +
+                                  version + ".");
+        }
+        
+        this.flags = buffer.getInt(2);
+        this.nodeAmount = buffer.getInt(3);
+        this.arcAmount = buffer.getInt(4);
+        
+        long nameBytes = buffer.getLong(3);
+        
+        if (nodeAmount < 0 || arcAmount < 0 || nameBytes < 0) {
+            throw new IOException("The graph file header is corrupted.");
+        }
+        
+        GraphFileFormat format =
+                new GraphFileFormat(nodeAmount, arcAmount, nameBytes);
+        
+        if (buffer.size() != format.fileSize) {
+            throw new IOException("The graph file is truncated.");
+        }
+        
+        this.offsetsBase = format.offsetsPosition >>> 2;
+        this.headsBase = format.headsPosition >>> 2;
+        this.weightsBase = format.weightsPosition >>> 3;
+        this.nameOffsetsBase = format.nameOffsetsPosition >>> 3;
+        this.nameOrderBase = format.nameOrderPosition >>> 2;
+        this.namesPosition = format.namesPosition;
+    }
+    
+    /**
+     * Copies an indexed graph to direct memory. The node indices of the copy
+     * are those of the input graph.
+     * 
+     * @param graph the graph to copy.
+     * @return the off-heap copy of the graph.
+     */
+    public static OffHeapGraph copyOf(AbstractIndexedGraph graph) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        
+        GraphImage image = new GraphImage(graph);
+        ChunkedBuffer buffer = ChunkedBuffer.allocateDirect(image.getSize());
+        
+        try {
+            image.writeTo(new BufferOutput(buffer));
+            return new OffHeapGraph(buffer);
+        } catch (IOException ex) {
+            // Writing to memory does not fail.
+            throw new UncheckedIOException(ex);
+        }
+    }
+    
+    /**
+     * Reads a graph file to direct memory. Unlike {@link MappedGraph#open}, 
+     * the whole file is read up front, so the searches never wait for the 
+     * disk.
+     * 
+     * @param file the file to read.
+     * @return the loaded graph.
+     * @throws IOException if an I/O error occurs, or the file is not a valid
+     *                     graph file.
+     */
+    public static OffHeapGraph load(Path file) throws IOException {
+        Objects.requireNonNull(file, "The input file is null.");
+        
+        try (FileChannel channel = FileChannel.open(file,
+                                                    StandardOpenOption.READ)) {
+            return new OffHeapGraph(ChunkedBuffer.read(channel));
+        }
+    }
+    
+    /**
+     * Returns the amount of bytes this graph occupies outside the heap.
+     * 
+     * @return the size of this graph in bytes.
+     */
+    public long getSizeInBytes() {
+        return buffer.size();
+    }
+    
+    /**
+     * Releases the memory of this graph right away. The graph may not be 
+     * searched concurrently with this call, and any access after it throws an
+     * {@link IndexOutOfBoundsException}. Closing a graph twice has no effect.
+     */
+    @Override
+    public void close() {
+        buffer.release();
+    }
+    
+    /**
+     * Returns {@code true} if each arc of this graph leads from a smaller node
+     * index to a larger one.
+     * 
+     * @return {@code true} if the node indices are in topological order.
+     */
+    public boolean isTopologicallyOrdered() {
+        return (flags & GraphFileFormat.FLAG_TOPOLOGICAL) != 0;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getNodeAmount() {
+        return nodeAmount;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getArcAmount() {
+        return arcAmount;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getArcBeginIndex(int nodeIndex) {
+        return buffer.getInt(offsetsBase + nodeIndex);
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getArcEndIndex(int nodeIndex) {
+        return buffer.getInt(offsetsBase + nodeIndex + 1);
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int getArcHead(int arcIndex) {
+        return buffer.getInt(headsBase + arcIndex);
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double getArcWeight(int arcIndex) {
+        return buffer.getDouble(weightsBase + arcIndex);
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public String getNodeName(int nodeIndex) {
+        return new String(getNameBytes(nodeIndex), StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * Returns the index of the node with the given name. The node is looked 
+     * up by a binary search over the name order of the file.
+     * 
+     * @param nodeName the name of the node.
+     * @return the index of the node, or -1 if there is no such node.
+     */
+    @Override
+    public int getNodeIndex(String nodeName) {
+        byte[] key = nodeName.getBytes(StandardCharsets.UTF_8);
+        int low = 0;
+        int high = nodeAmount - 1;
+        
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int nodeIndex = buffer.getInt(nameOrderBase + middle);
+            int cmp = compareName(nodeIndex, key);
+            
+            if (cmp < 0) {
+                low = middle + 1;
+            } else if (cmp > 0) {
+                high = middle - 1;
+            } else {
+                return nodeIndex;
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Returns the encoded name of the given node.
+     * 
+     * @param nodeIndex the index of the node.
+     * @return the UTF-8 bytes of the name.
+     */
+    private byte[] getNameBytes(int nodeIndex) {
+        long begin = buffer.getLong(nameOffsetsBase + nodeIndex);
+        long end = buffer.getLong(nameOffsetsBase + nodeIndex + 1);
+        byte[] bytes = new byte[(int) (end - begin)];
+        buffer.getBytes(namesPosition + begin, bytes);
+        return bytes;
+    }
+    
+    /**
+     * Compares the encoded name of a node to a key as unsigned bytes without
+     * copying the name.
+     * 
+     * @param nodeIndex the index of the node.
+     * @param key       the UTF-8 bytes of the name to look for.
+     * @return a negative value, zero or a positive value if the name of the
+     *         node precedes, equals or follows the key.
+     */
+    private int compareName(int nodeIndex, byte[] key) {
+        long begin = namesPosition +
+                     buffer.getLong(nameOffsetsBase + nodeIndex);
+        int length = (int) (namesPosition +
+                            buffer.getLong(nameOffsetsBase + nodeIndex + 1) -
+                            begin);
+        int commonLength = Math.min(length, key.length);
+        
+        for (int i = 0; i < commonLength; ++i) {
+            int cmp = Byte.toUnsignedInt(buffer.getByte(begin + i)) -
+                      Byte.toUnsignedInt(key[i]);
+            
+            if (cmp != 0) {
+                return cmp;
+            }
+        }
+        
+        return length - key.length;
+    }
+    
+    /**
+     * Writes an image sequentially to a direct buffer.
+     */
+    private static final class BufferOutput extends GraphImage.Output {
+        
+        private final ChunkedBuffer buffer;
+        private long position;
+        
+        BufferOutput(ChunkedBuffer buffer) {
+            this.buffer = buffer;
+        }
+        
+        @Override
+        long position() {
+            return position;
+        }
+        
+        @Override
+        void putByte(byte value) {
+            buffer.putByte(position++, value);
+        }
+        
+        @Override
+        void putInt(int value) {
+            buffer.putInt(position >>> 2, value);
+            position += 4;
+        }
+        
+        @Override
+        void putLong(long value) {
+            buffer.putLong(position >>> 3, value);
+            position += 8;
+        }
+        
+        @Override
+        void putDouble(double value) {
+            buffer.putDouble(position >>> 3, value);
+            position += 8;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package net.coderodde.graph.pathfinding;
+
+import net.coderodde.graph.AbstractGraphNode;
+
+/**
+ * This class defines the API for potential functions guiding goal-directed 
+ * search. A potential function estimates the length of a shortest path from a
+ * node to the target node. In order for the search to return shortest paths,
+ * the estimate must never exceed the actual distance; it may, however, be 
+ * {@link Double#POSITIVE_INFINITY} whenever the target is known to be 
+ * unreachable from the node.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ * @param <N> the actual graph node implementation type.
+ */
+public abstract class AbstractPotentialFunction<N extends AbstractGraphNode<N>> {
+    
+    /**
+     * Returns a lower bound on the length of a shortest path from 
+     * {@code node} to {@code target}.
+     * 
+     * @param node   the node to estimate from.
+     * @param target the target node.
+     * @return a lower bound on the distance from {@code node} to 
+     *         {@code target}.
+     */
+    public abstract double estimate(N node, N target);
+}
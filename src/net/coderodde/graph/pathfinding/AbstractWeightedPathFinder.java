@@ -2,8 +2,11 @@ package net.coderodde.graph.pathfinding;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
 import net.coderodde.graph.AbstractGraphNode;
 
 /**
@@ -15,6 +18,12 @@ import net.coderodde.graph.AbstractGraphNode;
  */
 public abstract class AbstractWeightedPathFinder<N extends AbstractGraphNode<N>> {
     
+    /**
+     * The listener of the searches, or {@code null} if the searches are not
+     * observed.
+     */
+    private volatile SearchListener searchListener;
+    
     /**
      * Searches a shortest path from {@code source} to {@code target}
      * 
@@ -24,6 +33,127 @@ public abstract class AbstractWeightedPathFinder<N extends AbstractGraphNode<N>>
      */
     public abstract List<N> find(N source, N target);
     
+    /**
+     * Searches a shortest path for each of the input pairs. The pairs are 
+     * grouped by their source nodes so that each source is searched from only
+     * once, and the groups are processed in parallel.
+     * 
+     * @param pairs the source/target pairs.
+     * @return the list of shortest paths in the order of {@code pairs}. A path 
+     *         is empty if its target is not reachable.
+     */
+    public List<List<N>> findAll(List<SourceTargetPair<N>> pairs) {
+        Objects.requireNonNull(pairs, "The pair list is null.");
+        Map<N, List<Integer>> groupMap = new LinkedHashMap<>();
+        
+        for (int i = 0; i < pairs.size(); ++i) {
+            N source = Objects.requireNonNull(pairs.get(i), 
+                                              "A pair is null.").getSource();
+            groupMap.computeIfAbsent(source, (s) -> new ArrayList<>()).add(i);
+        }
+        
+        List<List<N>> paths = 
+                new ArrayList<>(Collections.<List<N>>nCopies(pairs.size(), 
+                                                             null));
+        
+        groupMap.entrySet().parallelStream().forEach((entry) -> {
+            List<Integer> indices = entry.getValue();
+            List<N> targets = new ArrayList<>(indices.size());
+            
+            for (int index : indices) {
+                targets.add(pairs.get(index).getTarget());
+            }
+            
+            List<List<N>> groupPaths = findFrom(entry.getKey(), targets);
+            
+            for (int i = 0; i < indices.size(); ++i) {
+                paths.set(indices.get(i), groupPaths.get(i));
+            }
+        });
+        
+        return paths;
+    }
+    
+    /**
+     * Searches shortest paths from {@code source} to each of 
+     * {@code targets}. This method is called concurrently for distinct source 
+     * nodes by {@link #findAll(java.util.List)}. The default implementation 
+     * calls {@link #find(AbstractGraphNode, AbstractGraphNode)} for each 
+     * target; subclasses should override it with a single search.
+     * 
+     * @param source  the source node.
+     * @param targets the target nodes.
+     * @return the list of shortest paths in the order of {@code targets}.
+     */
+    protected List<List<N>> findFrom(N source, List<N> targets) {
+        List<List<N>> ret = new ArrayList<>(targets.size());
+        
+        for (N target : targets) {
+            ret.add(find(source, target));
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Returns the listener of the searches of this finder.
+     * 
+     * @return the search listener, or {@code null} if there is none.
+     */
+    public SearchListener getSearchListener() {
+        return searchListener;
+    }
+    
+    /**
+     * Sets the listener of the searches of this finder. While a listener is
+     * set, the finders collecting metrics report the work done by each search
+     * to it; without one, they skip the bookkeeping altogether. The finders 
+     * that do not collect metrics never call the listener.
+     * 
+     * @param searchListener the search listener, or {@code null} for none.
+     */
+    public void setSearchListener(SearchListener searchListener) {
+        this.searchListener = searchListener;
+    }
+    
+    /**
+     * Begins the metrics of a search.
+     * 
+     * @return a fresh metrics object, or {@code null} if no listener is set.
+     */
+    protected SearchMetrics beginSearchMetrics() {
+        return searchListener == null ? null : new SearchMetrics();
+    }
+    
+    /**
+     * Ends the last phase of a completed search and reports its metrics to 
+     * the listener.
+     * 
+     * @param metrics the metrics returned by {@link #beginSearchMetrics()}, or
+     *                {@code null}.
+     */
+    protected void reportSearchMetrics(SearchMetrics metrics) {
+        SearchListener listener = searchListener;
+        
+        if (metrics != null && listener != null) {
+            metrics.endPhase();
+            listener.searchCompleted(metrics);
+        }
+    }
+    
+    /**
+     * Begins a phase of a search if its metrics are being collected.
+     * 
+     * @param metrics the metrics of the search, or {@code null}.
+     * @param phase   the phase to begin.
+     */
+    protected static void beginPhase(SearchMetrics metrics, 
+                                     SearchMetrics.Phase phase) {
+        if (metrics != null) {
+            metrics.beginPhase(phase);
+        }
+    }
+    
     /**
      * Traces back the path found by a path finder.
      * 
@@ -45,4 +175,51 @@ public abstract class AbstractWeightedPathFinder<N extends AbstractGraphNode<N>>
         Collections.<N>reverse(ret);
         return ret;
     }
+    
+    /**
+     * Traces back the path found by a path finder working on node indices.
+     * 
+     * @param targetIndex  the index of the target node.
+     * @param parents      the array mapping each node index to the index of 
+     *                     its parent node, or -1 if there is no parent.
+     * @param nodeFunction the function mapping node indices to nodes.
+     * @return a path as a list of nodes.
+     */
+    protected List<N> tracebackPath(int targetIndex,
+                                    int[] parents,
+                                    IntFunction<N> nodeFunction) {
+        List<N> ret = new ArrayList<>();
+        int current = targetIndex;
+        
+        while (current != -1) {
+            ret.add(nodeFunction.apply(current));
+            current = parents[current];
+        }
+        
+        Collections.<N>reverse(ret);
+        return ret;
+    }
+    
+    /**
+     * Checks the source and target nodes are in order.
+     * 
+     * @param <N> the actual graph node implementation type.
+     * @param source the source node.
+     * @param target the target node.
+     */
+    protected static <N extends AbstractGraphNode<N>> 
+        void checkNodes(N source, N target) {
+        Objects.requireNonNull(source, "The source node is null.");
+        Objects.requireNonNull(target, "The target node is null.");
+        Objects.requireNonNull(source.getOwnerGraph(), 
+                               "The source node does not belong to any graph.");
+        Objects.requireNonNull(target.getOwnerGraph(),
+                               "The target node does not belong to any graph.");
+        
+        if (source.getOwnerGraph() != target.getOwnerGraph()) {
+            throw new IllegalStateException(
+                    "The source and the target node do not belong to the " +
+                    "same graph");
+        }
+    }
 }
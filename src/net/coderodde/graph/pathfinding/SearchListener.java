@@ -0,0 +1,21 @@
+package net.coderodde.graph.pathfinding;
+
+/**
+ * This interface defines the API for objects observing the work done by the
+ * searches of a path finder. Since {@link AbstractWeightedPathFinder#findAll} 
+ * searches in parallel, the listener may be called concurrently from several
+ * threads.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public interface SearchListener {
+    
+    /**
+     * Called after a search is complete. The metrics object belongs to the
+     * listener from then on.
+     * 
+     * @param metrics the work done by the search.
+     */
+    void searchCompleted(SearchMetrics metrics);
+}
@@ -0,0 +1,179 @@
+package net.coderodde.graph.pathfinding;
+
+/**
+ * This class holds the work done by a single search of a path finder. A 
+ * finder creates a fresh metrics object per search only while a 
+ * {@link SearchListener} is registered, accumulates the work of the search 
+ * into it, and hands it over to the listener once the search is complete. 
+ * The phases of a search are timed one after another: beginning a phase ends
+ * the previous one.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public final class SearchMetrics {
+    
+    /**
+     * The counted units of work.
+     */
+    public enum Counter {
+        
+        /**
+         * The nodes whose arcs were scanned.
+         */
+        NODES_SCANNED,
+        
+        /**
+         * The arcs relaxed, that is, whose heads were offered a distance 
+         * through them.
+         */
+        ARCS_RELAXED,
+        
+        /**
+         * The insertions into the priority queue of the search.
+         */
+        HEAP_PUSHES,
+        
+        /**
+         * The extractions from the priority queue of the search.
+         */
+        HEAP_POPS,
+        
+        /**
+         * The rebuilds of the search structures triggered by changes of the
+         * graph or of the weights.
+         */
+        PREPROCESSING_RUNS
+    }
+    
+    /**
+     * The timed phases of a search.
+     */
+    public enum Phase {
+        
+        /**
+         * Bringing the search structures up to date with the graph.
+         */
+        PREPROCESSING,
+        
+        /**
+         * The search proper.
+         */
+        SEARCH,
+        
+        /**
+         * Reconstructing the paths from the search state.
+         */
+        TRACEBACK
+    }
+    
+    /**
+     * The values of the counters indexed by their ordinals.
+     */
+    private final long[] counts = new long[Counter.values().length];
+    
+    /**
+     * The wall time of the phases in nanoseconds indexed by their ordinals.
+     */
+    private final long[] nanos = new long[Phase.values().length];
+    
+    /**
+     * The phase being timed, or {@code null} if none is.
+     */
+    private Phase currentPhase;
+    
+    /**
+     * The {@link System#nanoTime()} at which the current phase began.
+     */
+    private long phaseBeginNanos;
+    
+    /**
+     * Returns the value of a counter.
+     * 
+     * @param counter the counter.
+     * @return the value of the counter.
+     */
+    public long get(Counter counter) {
+        return counts[counter.ordinal()];
+    }
+    
+    /**
+     * Adds to a counter.
+     * 
+     * @param counter the counter.
+     * @param amount  the amount to add.
+     */
+    public void add(Counter counter, long amount) {
+        counts[counter.ordinal()] += amount;
+    }
+    
+    /**
+     * Returns the wall time spent in a phase.
+     * 
+     * @param phase the phase.
+     * @return the time spent in the phase in nanoseconds.
+     */
+    public long getNanos(Phase phase) {
+        return nanos[phase.ordinal()];
+    }
+    
+    /**
+     * Ends the current phase, if any, and begins the input phase.
+     * 
+     * @param phase the phase to begin.
+     */
+    public void beginPhase(Phase phase) {
+        long now = System.nanoTime();
+        
+        if (currentPhase != null) {
+            nanos[currentPhase.ordinal()] += now - phaseBeginNanos;
+        }
+        
+        currentPhase = phase;
+        phaseBeginNanos = now;
+    }
+    
+    /**
+     * Ends the current phase, if any.
+     */
+    public void endPhase() {
+        if (currentPhase != null) {
+            nanos[currentPhase.ordinal()] += System.nanoTime() - phaseBeginNanos;
+            currentPhase = null;
+        }
+    }
+    
+    /**
+     * Returns the total wall time of the search.
+     * 
+     * @return the sum of the phase times in nanoseconds.
+     */
+    public long getTotalNanos() {
+        long total = 0L;
+        
+        for (long phaseNanos : nanos) {
+            total += phaseNanos;
+        }
+        
+        return total;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder("[");
+        
+        for (Counter counter : Counter.values()) {
+            sb.append(counter).append('=').append(get(counter)).append(", ");
+        }
+        
+        for (Phase phase : Phase.values()) {
+            sb.append(phase).append("_NANOS=").append(getNanos(phase));
+            sb.append(phase.ordinal() < nanos.length - 1 ? ", " : "]");
+        }
+        
+        return sb.toString();
+    }
+}
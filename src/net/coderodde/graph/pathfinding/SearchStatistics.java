@@ -0,0 +1,277 @@
+package net.coderodde.graph.pathfinding;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * This class implements a search listener aggregating the metrics of all the
+ * searches into histograms, one for each counter, one for each phase and one
+ * for the total time of the searches. The histograms have a bucket for each 
+ * power of two, so they take constant space and recording a value costs a
+ * few atomic additions; in exchange, a quantile is known only up to a factor
+ * of two. The histograms may be recorded into concurrently.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class SearchStatistics implements SearchListener {
+    
+    /**
+     * The histograms of the counters.
+     */
+    private final Map<SearchMetrics.Counter, Histogram> counterHistograms =
+            new EnumMap<>(SearchMetrics.Counter.class);
+    
+    /**
+     * The histograms of the phase times.
+     */
+    private final Map<SearchMetrics.Phase, Histogram> phaseHistograms =
+            new EnumMap<>(SearchMetrics.Phase.class);
+    
+    /**
+     * The histogram of the total search times.
+     */
+    private final Histogram latencyHistogram = new Histogram();
+    
+    /**
+     * Constructs empty statistics.
+     */
+    public SearchStatistics() {
+        for (SearchMetrics.Counter counter : SearchMetrics.Counter.values()) {
+            counterHistograms.put(counter, new Histogram());
+        }
+        
+        for (SearchMetrics.Phase phase : SearchMetrics.Phase.values()) {
+            phaseHistograms.put(phase, new Histogram());
+        }
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void searchCompleted(SearchMetrics metrics) {
+        for (Map.Entry<SearchMetrics.Counter, Histogram> entry : 
+                counterHistograms.entrySet()) {
+            entry.getValue().record(metrics.get(entry.getKey()));
+        }
+        
+        for (Map.Entry<SearchMetrics.Phase, Histogram> entry : 
+                phaseHistograms.entrySet()) {
+            entry.getValue().record(metrics.getNanos(entry.getKey()));
+        }
+        
+        latencyHistogram.record(metrics.getTotalNanos());
+    }
+    
+    /**
+     * Returns the histogram of a counter.
+     * 
+     * @param counter the counter.
+     * @return the histogram of the values of the counter.
+     */
+    public Histogram getHistogram(SearchMetrics.Counter counter) {
+        return counterHistograms.get(counter);
+    }
+    
+    /**
+     * Returns the histogram of the times of a phase.
+     * 
+     * @param phase the phase.
+     * @return the histogram of the phase times in nanoseconds.
+     */
+    public Histogram getHistogram(SearchMetrics.Phase phase) {
+        return phaseHistograms.get(phase);
+    }
+    
+    /**
+     * Returns the histogram of the total search times.
+     * 
+     * @return the histogram of the search times in nanoseconds.
+     */
+    public Histogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+    
+    /**
+     * Returns the amount of searches recorded.
+     * 
+     * @return the amount of searches.
+     */
+    public long getSearchAmount() {
+        return latencyHistogram.getCount();
+    }
+    
+    /**
+     * Empties all the histograms.
+     */
+    public void reset() {
+        counterHistograms.values().forEach(Histogram::reset);
+        phaseHistograms.values().forEach(Histogram::reset);
+        latencyHistogram.reset();
+    }
+    
+    /**
+     * This class implements a histogram of non-negative {@code long} values
+     * with exponentially growing buckets. The bucket 0 holds the zeros, and
+     * the bucket {@code i > 0} holds the values within 
+     * {@code 2^(i - 1), ..., 2^i - 1}.
+     */
+    public static final class Histogram {
+        
+        /**
+         * The amount of buckets.
+         */
+        public static final int BUCKET_AMOUNT = Long.SIZE;
+        
+        /**
+         * The amount of values in each bucket.
+         */
+        private final AtomicLongArray buckets = 
+                new AtomicLongArray(BUCKET_AMOUNT);
+        
+        /**
+         * The amount of values recorded.
+         */
+        private final LongAdder count = new LongAdder();
+        
+        /**
+         * The sum of the values recorded.
+         */
+        private final LongAdder sum = new LongAdder();
+        
+        /**
+         * The largest value recorded.
+         */
+        private final AtomicLong max = new AtomicLong();
+        
+        Histogram() {}
+        
+        /**
+         * Records a value. Negative values are recorded as zeros.
+         * 
+         * @param value the value to record.
+         */
+        public void record(long value) {
+            value = Math.max(0L, value);
+            buckets.incrementAndGet(getBucket(value));
+            count.increment();
+            sum.add(value);
+            
+            if (value > max.get()) {
+                max.accumulateAndGet(value, Math::max);
+            }
+        }
+        
+        /**
+         * Returns the amount of values recorded.
+         * 
+         * @return the amount of values.
+         */
+        public long getCount() {
+            return count.sum();
+        }
+        
+        /**
+         * Returns the sum of the values recorded.
+         * 
+         * @return the sum of the values.
+         */
+        public long getSum() {
+            return sum.sum();
+        }
+        
+        /**
+         * Returns the largest value recorded, or 0 if none was.
+         * 
+         * @return the largest value.
+         */
+        public long getMax() {
+            return max.get();
+        }
+        
+        /**
+         * Returns the mean of the values recorded, or {@code NaN} if none 
+         * was.
+         * 
+         * @return the mean of the values.
+         */
+        public double getMean() {
+            return (double) getSum() / getCount();
+        }
+        
+        /**
+         * Returns the amount of values in a bucket.
+         * 
+         * @param bucket the index of the bucket.
+         * @return the amount of values in the bucket.
+         */
+        public long getBucketCount(int bucket) {
+            return buckets.get(bucket);
+        }
+        
+        /**
+         * Returns the largest value a bucket may hold.
+         * 
+         * @param bucket the index of the bucket.
+         * @return the upper bound of the bucket.
+         */
+        public static long getBucketUpperBound(int bucket) {
+            return bucket == BUCKET_AMOUNT - 1 ? 
+                   Long.MAX_VALUE : 
+                   (1L << bucket) - 1;
+        }
+        
+        /**
+         * Returns an upper bound of a quantile of the values recorded: the
+         * upper bound of the bucket holding the quantile, capped to the 
+         * largest value recorded.
+         * 
+         * @param quantile the quantile within {@code [0, 1]}.
+         * @return an upper bound of the quantile, or 0 if no value was 
+         *         recorded.
+         * @throws IllegalArgumentException if {@code quantile} is out of 
+         *                                  range.
+         */
+        public long getQuantileUpperBound(double quantile) {
+            if (!(quantile >= 0.0 && quantile <= 1.0)) {
+                throw new IllegalArgumentException(
+                        "The quantile is out of range: " + quantile + ".");
+            }
+            
+            long rank = (long) Math.ceil(quantile * getCount());
+            long seen = 0L;
+            
+            for (int bucket = 0; bucket < BUCKET_AMOUNT; ++bucket) {
+                seen += buckets.get(bucket);
+                
+                if (seen >= Math.max(1L, rank)) {
+                    return Math.min(getBucketUpperBound(bucket), getMax());
+                }
+            }
+            
+            return getMax();
+        }
+        
+        /**
+         * Empties this histogram.
+         */
+        public void reset() {
+            for (int bucket = 0; bucket < BUCKET_AMOUNT; ++bucket) {
+                buckets.set(bucket, 0L);
+            }
+            
+            count.reset();
+            sum.reset();
+            max.set(0L);
+        }
+        
+        private static int getBucket(long value) {
+            return Math.min(BUCKET_AMOUNT - 1, 
+                            Long.SIZE - Long.numberOfLeadingZeros(value));
+        }
+    }
+}
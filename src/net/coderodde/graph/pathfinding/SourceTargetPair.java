@@ -0,0 +1,82 @@
+package net.coderodde.graph.pathfinding;
+
+import java.util.Objects;
+import net.coderodde.graph.AbstractGraphNode;
+
+/**
+ * This class holds a source node and a target node of a path query.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ * @param <N> the actual graph node implementation type.
+ */
+public final class SourceTargetPair<N extends AbstractGraphNode<N>> {
+    
+    /**
+     * The source node.
+     */
+    private final N source;
+    
+    /**
+     * The target node.
+     */
+    private final N target;
+    
+    /**
+     * Constructs a new pair.
+     * 
+     * @param source the source node.
+     * @param target the target node.
+     */
+    public SourceTargetPair(N source, N target) {
+        this.source = Objects.requireNonNull(source, "The source node is null.");
+        this.target = Objects.requireNonNull(target, "The target node is null.");
+    }
+    
+    /**
+     * Returns the source node.
+     * 
+     * @return the source node.
+     */
+    public N getSource() {
+        return source;
+    }
+    
+    /**
+     * Returns the target node.
+     * 
+     * @return the target node.
+     */
+    public N getTarget() {
+        return target;
+    }
+    
+    /**
+     * {@inheritDoc } 
+     */
+    @Override
+    public int hashCode() {
+        return 31 * source.hashCode() + target.hashCode();
+    }
+    
+    /**
+     * {@inheritDoc } 
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (!(o instanceof SourceTargetPair)) {
+            return false;
+        }
+        
+        SourceTargetPair<?> other = (SourceTargetPair<?>) o;
+        return source.equals(other.source) && target.equals(other.target);
+    }
+    
+    /**
+     * {@inheritDoc } 
+     */
+    @Override
+    public String toString() {
+        return "(" + source + ", " + target + ")";
+    }
+}
@@ -0,0 +1,131 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import net.coderodde.graph.AbstractGraphNode;
+import net.coderodde.graph.AbstractWeightFunction;
+import net.coderodde.graph.pathfinding.AbstractPotentialFunction;
+import net.coderodde.graph.pathfinding.AbstractWeightedPathFinder;
+
+/**
+ * This class implements the A* search algorithm. The nodes are expanded in the
+ * order of their tentative distance from the source plus the estimate of the 
+ * potential function, so that the search is directed towards the target. The 
+ * nodes the potential function reports as unable to reach the target are 
+ * pruned. If the potential function is not consistent, a node may be expanded
+ * more than once, but the returned path is still shortest as long as the 
+ * estimates are lower bounds.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ * @param <N> the actual graph node implementation type.
+ */
+public class AStarPathFinder<N extends AbstractGraphNode<N>> 
+extends AbstractWeightedPathFinder<N> {
+    
+    /**
+     * The weight function.
+     */
+    private final AbstractWeightFunction<N> weightFunction;
+    
+    /**
+     * The potential function.
+     */
+    private final AbstractPotentialFunction<N> potentialFunction;
+    
+    /**
+     * Constructs this shortest path finder with given weight and potential 
+     * functions.
+     * 
+     * @param weightFunction    the weight function.
+     * @param potentialFunction the potential function.
+     */
+    public AStarPathFinder(AbstractWeightFunction<N> weightFunction,
+                           AbstractPotentialFunction<N> potentialFunction) {
+        this.weightFunction = 
+                Objects.requireNonNull(weightFunction,
+                                       "The weight function is null.");
+        this.potentialFunction =
+                Objects.requireNonNull(potentialFunction,
+                                       "The potential function is null.");
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public List<N> find(N source, N target) {
+        checkNodes(source, target);
+        
+        Queue<NodeWrapper<N>> open = new PriorityQueue<>();
+        Map<N, N> parentMap = new HashMap<>();
+        Map<N, Double> distanceMap = new HashMap<>();
+        
+        open.add(new NodeWrapper<>(source, 
+                                   0.0, 
+                                   potentialFunction.estimate(source, target)));
+        parentMap.put(source, null);
+        distanceMap.put(source, 0.0);
+        
+        while (!open.isEmpty()) {
+            NodeWrapper<N> wrapper = open.poll();
+            N current = wrapper.node;
+            
+            if (wrapper.g > distanceMap.get(current)) {
+                // A stale entry of an improved node.
+                continue;
+            }
+            
+            if (current.equals(target)) {
+                return tracebackPath(target, parentMap);
+            }
+            
+            for (N child : current.children()) {
+                double g = wrapper.g + weightFunction.get(current, child);
+                
+                if (distanceMap.containsKey(child) 
+                        && distanceMap.get(child) <= g) {
+                    continue;
+                }
+                
+                double h = potentialFunction.estimate(child, target);
+                
+                if (h == Double.POSITIVE_INFINITY) {
+                    // The target is not reachable from 'child'.
+                    continue;
+                }
+                
+                open.add(new NodeWrapper<>(child, g, g + h));
+                distanceMap.put(child, g);
+                parentMap.put(child, current);
+            }
+        }
+        
+        return Collections.<N>emptyList();
+    }
+    
+    // An ad hoc structure for describing nodes and costs.
+    private static final class NodeWrapper<N> 
+    implements Comparable<NodeWrapper<N>> {
+        
+        N node;
+        double g;
+        double f;
+        
+        NodeWrapper(N node, double g, double f) {
+            this.node = node;
+            this.g = g;
+            this.f = f;
+        }
+        
+        @Override
+        public int compareTo(NodeWrapper<N> o) {
+            return Double.compare(f, o.f);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package net.coderodde.graph.pathfinding.support;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import net.coderodde.graph.Graph;
+
+/**
+ * This abstract class is the base of the Java Flight Recorder events emitted
+ * by the graph algorithms. It carries the size and the modification count of
+ * the graph an event concerns, so that the latency of the algorithms may be
+ * correlated with the churn of the graph. The events are committed only
+ * while a recording enables them; otherwise they cost next to nothing.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@Category({"Graph", "Path Finding"})
+abstract class AbstractGraphEvent extends Event {
+    
+    @Label("Node Amount")
+    int nodeAmount;
+    
+    @Label("Arc Amount")
+    int arcAmount;
+    
+    @Label("Modification Count")
+    int modificationCount;
+    
+    /**
+     * Records the size and the modification count of the input graph.
+     * 
+     * @param graph the graph the event concerns.
+     */
+    void setGraph(Graph<?> graph) {
+        nodeAmount = graph.getNodeAmount();
+        arcAmount = graph.getEdgeAmount();
+        modificationCount = graph.getModificationCount();
+    }
+}
@@ -0,0 +1,204 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.Set;
+import net.coderodde.graph.AbstractGraphNode;
+import net.coderodde.graph.AbstractWeightFunction;
+import net.coderodde.graph.pathfinding.AbstractWeightedPathFinder;
+
+/**
+ * This class implements bidirectional Dijkstra's algorithm. A forward search 
+ * grows from the source node over the child nodes, and a backward search grows
+ * from the target node over the parent nodes. At each step the search with 
+ * the smaller tentative distance on top of its queue is advanced. The shortest
+ * path found so far, {@code mu}, is updated whenever an arc connects the two 
+ * search frontiers, and the search stops as soon as the tops of both queues 
+ * sum to at least {@code mu}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ * @param <N> the actual graph node implementation type.
+ */
+public class BidirectionalDijkstraPathFinder<N extends AbstractGraphNode<N>> 
+extends AbstractWeightedPathFinder<N> {
+    
+    /**
+     * The weight function.
+     */
+    private final AbstractWeightFunction<N> weightFunction;
+    
+    /**
+     * Constructs this shortest path finder with given weight function.
+     * 
+     * @param weightFunction the weight function.
+     */
+    public BidirectionalDijkstraPathFinder(
+            AbstractWeightFunction<N> weightFunction) {
+        this.weightFunction = 
+                Objects.requireNonNull(weightFunction,
+                                       "The weight function is null.");
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public List<N> find(N source, N target) {
+        checkNodes(source, target);
+        
+        if (source.equals(target)) {
+            return Collections.<N>singletonList(source);
+        }
+        
+        Queue<NodeWrapper<N>> openForward = new PriorityQueue<>();
+        Queue<NodeWrapper<N>> openBackward = new PriorityQueue<>();
+        Set<N> closedForward = new HashSet<>();
+        Set<N> closedBackward = new HashSet<>();
+        Map<N, Double> distanceMapForward = new HashMap<>();
+        Map<N, Double> distanceMapBackward = new HashMap<>();
+        Map<N, N> parentMapForward = new HashMap<>();
+        Map<N, N> parentMapBackward = new HashMap<>();
+        
+        openForward.add(new NodeWrapper<>(source, 0.0));
+        openBackward.add(new NodeWrapper<>(target, 0.0));
+        distanceMapForward.put(source, 0.0);
+        distanceMapBackward.put(target, 0.0);
+        parentMapForward.put(source, null);
+        parentMapBackward.put(target, null);
+        
+        double mu = Double.POSITIVE_INFINITY;
+        N touchNode = null;
+        
+        while (true) {
+            removeSettled(openForward, closedForward);
+            removeSettled(openBackward, closedBackward);
+            
+            if (openForward.isEmpty() || openBackward.isEmpty()) {
+                break;
+            }
+            
+            double forwardTop = openForward.peek().g;
+            double backwardTop = openBackward.peek().g;
+            
+            if (forwardTop + backwardTop >= mu) {
+                break;
+            }
+            
+            if (forwardTop <= backwardTop) {
+                N current = openForward.poll().node;
+                closedForward.add(current);
+                
+                for (N child : current.children()) {
+                    if (closedForward.contains(child)) {
+                        continue;
+                    }
+                    
+                    double w = distanceMapForward.get(current) +
+                               weightFunction.get(current, child);
+                    
+                    if (!distanceMapForward.containsKey(child)
+                            || distanceMapForward.get(child) > w) {
+                        openForward.add(new NodeWrapper<>(child, w));
+                        distanceMapForward.put(child, w);
+                        parentMapForward.put(child, current);
+                    }
+                    
+                    if (distanceMapBackward.containsKey(child)) {
+                        double pathLength = distanceMapForward.get(child) +
+                                            distanceMapBackward.get(child);
+                        
+                        if (mu > pathLength) {
+                            mu = pathLength;
+                            touchNode = child;
+                        }
+                    }
+                }
+            } else {
+                N current = openBackward.poll().node;
+                closedBackward.add(current);
+                
+                for (N parent : current.parents()) {
+                    if (closedBackward.contains(parent)) {
+                        continue;
+                    }
+                    
+                    double w = distanceMapBackward.get(current) +
+                               weightFunction.get(parent, current);
+                    
+                    if (!distanceMapBackward.containsKey(parent)
+                            || distanceMapBackward.get(parent) > w) {
+                        openBackward.add(new NodeWrapper<>(parent, w));
+                        distanceMapBackward.put(parent, w);
+                        parentMapBackward.put(parent, current);
+                    }
+                    
+                    if (distanceMapForward.containsKey(parent)) {
+                        double pathLength = distanceMapForward.get(parent) +
+                                            distanceMapBackward.get(parent);
+                        
+                        if (mu > pathLength) {
+                            mu = pathLength;
+                            touchNode = parent;
+                        }
+                    }
+                }
+            }
+        }
+        
+        if (touchNode == null) {
+            return Collections.<N>emptyList();
+        }
+        
+        List<N> path = tracebackPath(touchNode, parentMapForward);
+        List<N> suffix = new ArrayList<>();
+        N current = parentMapBackward.get(touchNode);
+        
+        while (current != null) {
+            suffix.add(current);
+            current = parentMapBackward.get(current);
+        }
+        
+        path.addAll(suffix);
+        return path;
+    }
+    
+    /**
+     * Removes the entries of already settled nodes from the top of the queue.
+     * 
+     * @param <N>    the actual graph node implementation type.
+     * @param open   the queue.
+     * @param closed the set of settled nodes.
+     */
+    private static <N> void removeSettled(Queue<NodeWrapper<N>> open, 
+                                          Set<N> closed) {
+        while (!open.isEmpty() && closed.contains(open.peek().node)) {
+            open.poll();
+        }
+    }
+    
+    // An ad hoc structure for describing nodes and costs.
+    private static final class NodeWrapper<N> 
+    implements Comparable<NodeWrapper<N>> {
+        
+        N node;
+        double g;
+        
+        NodeWrapper(N node, double g) {
+            this.node = node;
+            this.g = g;
+        }
+        
+        @Override
+        public int compareTo(NodeWrapper<N> o) {
+            return Double.compare(g, o.g);
+        }
+    }
+}
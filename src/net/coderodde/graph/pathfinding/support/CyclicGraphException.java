@@ -0,0 +1,42 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Collections;
+import java.util.List;
+import net.coderodde.graph.support.DirectedGraphNode;
+
+/**
+ * This exception is thrown when an algorithm expecting an acyclic graph 
+ * encounters a cycle. The exception carries one of the cycles as a witness.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class CyclicGraphException extends IllegalStateException {
+    
+    private static final long serialVersionUID = 1L;
+    
+    /**
+     * The nodes of the witness cycle.
+     */
+    private final List<DirectedGraphNode> cycle;
+    
+    /**
+     * Constructs this exception with the given cycle.
+     * 
+     * @param cycle the witness cycle.
+     */
+    public CyclicGraphException(List<DirectedGraphNode> cycle) {
+        super("The input graph is not acyclic. Cycle: " + cycle);
+        this.cycle = Collections.<DirectedGraphNode>unmodifiableList(cycle);
+    }
+    
+    /**
+     * Returns the witness cycle. Each node in the list has an arc to the next 
+     * one, and the last node has an arc to the first one.
+     * 
+     * @return the witness cycle.
+     */
+    public List<DirectedGraphNode> getCycle() {
+        return cycle;
+    }
+}
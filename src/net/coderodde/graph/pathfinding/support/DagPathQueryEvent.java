@@ -0,0 +1,41 @@
+package net.coderodde.graph.pathfinding.support;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * This event is emitted by each query of {@link DagShortestPathFinder}: by
+ * each call to {@code find}, and by each group of pairs sharing a source
+ * node in {@code findAll}. The duration of the event includes bringing the
+ * search structures up to date, which is reported by a nested
+ * {@link GraphPreprocessingEvent}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@Name("net.coderodde.graph.DagPathQuery")
+@Label("Dag Path Query")
+@Description("Searches shortest paths from a source node in a dag.")
+@StackTrace(false)
+final class DagPathQueryEvent extends AbstractGraphEvent {
+    
+    @Label("Query Mode")
+    @Description("The query mode the search ran in: FULL_SWEEP, " +
+                 "TARGET_CONE or SPARSE_FRONTIER, or null if the query was " +
+                 "answered without a search.")
+    String queryMode;
+    
+    @Label("Target Amount")
+    int targetAmount;
+    
+    @Label("Range Span")
+    @Description("The amount of nodes in the topological range from the " +
+                 "source to the last target, or 0 if the range is empty.")
+    int rangeSpan;
+    
+    @Label("Result Length")
+    @Description("The total amount of nodes in the paths found.")
+    long resultLength;
+}
@@ -1,16 +1,29 @@
 package net.coderodde.graph.pathfinding.support;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.LongAdder;
+import net.coderodde.graph.AbstractWeightFunction;
+import net.coderodde.graph.CompressedSparseRowGraph;
 import net.coderodde.graph.Graph;
+import net.coderodde.graph.GraphListener;
 import net.coderodde.graph.pathfinding.AbstractWeightedPathFinder;
+import net.coderodde.graph.pathfinding.SearchMetrics;
+import net.coderodde.graph.pathfinding.SourceTargetPair;
 import net.coderodde.graph.support.DirectedGraphNode;
-import net.coderodde.graph.support.DirectedGraphWeightFunction;
 
 /**
  * This class implements a shortest path finder in dags (directed acyclic 
@@ -22,6 +35,64 @@ import net.coderodde.graph.support.DirectedGraphWeightFunction;
 public class DagShortestPathFinder 
 extends AbstractWeightedPathFinder<DirectedGraphNode> {
     
+    /**
+     * Marks the nodes not yet reached in the parent array of a search.
+     */
+    static final int UNREACHED = -2;
+    
+    /**
+     * Marks the ancestors of the target not yet reached in the parent array of
+     * a target cone search.
+     */
+    private static final int IN_CONE = -3;
+    
+    /**
+     * The {@link QueryMode#AUTOMATIC} mode chooses the sparse frontier sweep 
+     * when the topological range is at least this many times larger than the
+     * estimated amount of the nodes reachable from the source.
+     */
+    private static final int SPARSE_FRONTIER_FACTOR = 8;
+    
+    /**
+     * The amount of randomized traversals of the reachability index.
+     */
+    private static final int REACHABILITY_TRAVERSALS = 4;
+    
+    /**
+     * Selects the nodes a point-to-point query relaxes.
+     */
+    public enum QueryMode {
+        
+        /**
+         * Relaxes every node in the topological range from the source to the
+         * target.
+         */
+        FULL_SWEEP,
+        
+        /**
+         * Collects the ancestors of the target within the topological range 
+         * first, and relaxes only them. Pays off when most of the range cannot
+         * reach the target; when the ancestors fill the range, the additional
+         * backward pass makes the query slower than a full sweep.
+         */
+        TARGET_CONE,
+        
+        /**
+         * Relaxes the nodes reached from the source in topological order, 
+         * keeping them in a heap, so that the cost is proportional to the 
+         * reached subgraph rather than to the topological range. Pays off 
+         * when the source reaches only a few nodes of a long range.
+         */
+        SPARSE_FRONTIER,
+        
+        /**
+         * Chooses between {@link #FULL_SWEEP} and {@link #SPARSE_FRONTIER} for
+         * each query by comparing the length of the topological range to an 
+         * upper bound on the amount of the nodes reachable from the source.
+         */
+        AUTOMATIC
+    }
+    
     /**
      * The graph this finder works with.
      */
@@ -30,7 +101,7 @@ extends AbstractWeightedPathFinder<DirectedGraphNode> {
     /**
      * The weight function for {@code graph}.
      */
-    private final DirectedGraphWeightFunction weightFunction;
+    private final AbstractWeightFunction<DirectedGraphNode> weightFunction;
     
     /**
      * The list holding the nodes in topological order.
@@ -38,14 +109,91 @@ extends AbstractWeightedPathFinder<DirectedGraphNode> {
     private final List<DirectedGraphNode> nodeList;
     
     /**
-     * The map mapping each node to its appearance index in {@code nodeArray}.
+     * Maps each node id to the index of its node in {@code nodeList}, or to -1
+     * if the node with the id has no index.
+     */
+    private int[] nodeIndices;
+    
+    /**
+     * The compressed snapshot of the graph whose node indices are the 
+     * topological indices in {@code nodeList}.
+     */
+    private CompressedSparseRowGraph<DirectedGraphNode> snapshot;
+    
+    /**
+     * The level structure of {@code snapshot} for parallel sweeps. Built on 
+     * demand.
+     */
+    private LevelSynchronousSweep levelSweep;
+    
+    /**
+     * The reachability filter over {@code snapshot}, answering most of the 
+     * queries with no path without a sweep, or {@code null} if the structure
+     * of {@code snapshot} has changed since the filter was built.
+     */
+    private ReachabilityIndex reachabilityIndex;
+    
+    /**
+     * The topological range lengths of the queries run without the 
+     * reachability filter since it went out of date. The filter is rebuilt 
+     * once they add up to the cost of building it.
+     */
+    private final LongAdder unfilteredQueryWork = new LongAdder();
+    
+    /**
+     * The random number generator for building {@code reachabilityIndex}.
+     */
+    private final Random random = new Random();
+    
+    /**
+     * The query mode.
      */
-    private final Map<DirectedGraphNode, Integer> nodeIndexMap;
+    private QueryMode queryMode = QueryMode.AUTOMATIC;
     
     /**
-     * Caches the modification count of the graph.
+     * The maximum amount of cached target cones.
      */
-    private int graphModificationCount;
+    private int coneCacheCapacity;
+    
+    /**
+     * Maps the topological index of a recently queried target to its entire
+     * ancestor cone in {@code snapshot}. Iterates from the least recently used
+     * entry.
+     */
+    private final Map<Integer, TargetCone> coneCache = 
+            new LinkedHashMap<Integer, TargetCone>(16, 0.75f, true) {
+        
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, TargetCone> e) {
+            return size() > coneCacheCapacity;
+        }
+    };
+    
+    /**
+     * Whether {@code nodeList} is a valid topological order. Set to 
+     * {@code false} whenever the graph might have become cyclic, in which case
+     * the order is recomputed from scratch.
+     */
+    private boolean orderValid;
+    
+    /**
+     * The amount of removed nodes still occupying a slot in {@code nodeList}.
+     */
+    private int removedNodeAmount;
+    
+    /**
+     * The work done by the queries answered from the graph itself since 
+     * {@code snapshot} went out of date. Once it reaches the size of the 
+     * graph, the next query rebuilds the snapshot, so that a graph modified 
+     * between the queries is not rebuilt more often than the queries pay for.
+     */
+    private long staleQueryWork;
+    
+    /**
+     * Keeps the topological order up to date as the graph changes. The graph
+     * refers to its listeners weakly, so this finder keeps it reachable.
+     */
+    private final GraphListener<DirectedGraphNode> orderMaintainer;
     
     /**
      * Constructs this path finder.
@@ -53,25 +201,41 @@ extends AbstractWeightedPathFinder<DirectedGraphNode> {
      * @param graph          the graph to search.
      * @param weightFunction the weight function.
      */
-    public DagShortestPathFinder(Graph<DirectedGraphNode> graph,
-                                 DirectedGraphWeightFunction weightFunction) {
+    public DagShortestPathFinder(
+            Graph<DirectedGraphNode> graph,
+            AbstractWeightFunction<DirectedGraphNode> weightFunction) {
         this.graph = Objects.requireNonNull(graph, "The input graph is null.");
         this.weightFunction = 
                 Objects.requireNonNull(weightFunction,
                                        "The input weight function is null.");
         
         this.nodeList = new ArrayList<>();
-        this.nodeIndexMap = new HashMap<>();
+        this.nodeIndices = new int[0];
         
         processGraph();
+        
+        this.orderMaintainer = new TopologicalOrderMaintainer();
+        graph.addGraphListener(orderMaintainer);
     }
 
+    /**
+     * Returns the graph this finder works with.
+     * 
+     * @return the graph.
+     */
+    public Graph<DirectedGraphNode> getGraph() {
+        return graph;
+    }
+    
     /**
      * {@inheritDoc } 
      */
     @Override
     public List<DirectedGraphNode> find(DirectedGraphNode source, 
                                         DirectedGraphNode target) {
+        DagPathQueryEvent event = new DagPathQueryEvent();
+        event.begin();
+        
         Objects.requireNonNull(source, "The source node is null.");
         Objects.requireNonNull(target, "The target node is null.");
         
@@ -84,58 +248,999 @@ extends AbstractWeightedPathFinder<DirectedGraphNode> {
                                 graph, 
                                 "The target node does not belong to the " +
                                 "current graph.");
+        
+        SearchMetrics metrics = beginSearchMetrics();
+        beginPhase(metrics, SearchMetrics.Phase.PREPROCESSING);
+        
         // Check that the graph did not change since the last time it was
         // preprocessed.
-        checkGraph();
+        boolean snapshotUpToDate = checkGraphForQuery(metrics);
+        beginPhase(metrics, SearchMetrics.Phase.SEARCH);
+        
+        int sourceIndex = indexOf(source);
+        int targetIndex = indexOf(target);
+        List<DirectedGraphNode> path = snapshotUpToDate ?
+                findPath(sourceIndex, targetIndex, metrics, event) :
+                findInGraph(sourceIndex, targetIndex, metrics, event);
+        
+        reportSearchMetrics(metrics);
+        
+        if (event.shouldCommit()) {
+            commit(event, sourceIndex, targetIndex, 1, path.size());
+        }
+        
+        return path;
+    }
+    
+    /**
+     * Finds a shortest path between two nodes in the current snapshot.
+     * 
+     * @param sourceIndex the topological index of the source node.
+     * @param targetIndex the topological index of the target node.
+     * @param metrics     the metrics of the search, or {@code null}.
+     * @param event       the event of the query to record the query mode in.
+     * @return a shortest path, or an empty list if there is none.
+     */
+    private List<DirectedGraphNode> findPath(int sourceIndex, 
+                                             int targetIndex,
+                                             SearchMetrics metrics,
+                                             DagPathQueryEvent event) {
+        if (sourceIndex > targetIndex || !mayReach(sourceIndex, targetIndex)) {
+            return Collections.<DirectedGraphNode>emptyList();
+        }
+        
+        QueryMode mode = chooseQueryMode(sourceIndex, targetIndex);
+        event.queryMode = mode.name();
+        
+        if (mode == QueryMode.TARGET_CONE) {
+            return findInCone(sourceIndex, targetIndex, metrics);
+        }
+        
+        if (mode == QueryMode.SPARSE_FRONTIER) {
+            SparseFrontierSweep sweep = 
+                    new SparseFrontierSweep(snapshot, sourceIndex, targetIndex);
+            sweep.recordMetrics(metrics);
+            beginPhase(metrics, SearchMetrics.Phase.TRACEBACK);
+            return tracebackPath(sweep, targetIndex);
+        }
         
-        int sourceIndex = nodeIndexMap.get(source);
-        int targetIndex = nodeIndexMap.get(target);
+        int span = targetIndex - sourceIndex + 1;
+        double[] distances = new double[span];
+        int[] parents = new int[span];
         
+        sweep(snapshot, sourceIndex, distances, parents, metrics);
+        
+        if (parents[span - 1] == UNREACHED) {
+            // Path not found.
+            return Collections.<DirectedGraphNode>emptyList();
+        }
+        
+        beginPhase(metrics, SearchMetrics.Phase.TRACEBACK);
+        return tracebackPath(span - 1, 
+                             parents, 
+                             (i) -> nodeList.get(sourceIndex + i));
+    }
+    
+    /**
+     * Finds a shortest path between two nodes by sweeping the graph itself in
+     * the maintained topological order. Used while the snapshot is out of 
+     * date. The nodes removed since the last snapshot leave empty slots in 
+     * {@code nodeList}, which are never reached.
+     * 
+     * @param sourceIndex the topological index of the source node.
+     * @param targetIndex the topological index of the target node.
+     * @param metrics     the metrics of the search, or {@code null}.
+     * @param event       the event of the query to record the query mode in.
+     * @return a shortest path, or an empty list if there is none.
+     */
+    private List<DirectedGraphNode> findInGraph(int sourceIndex,
+                                                int targetIndex,
+                                                SearchMetrics metrics,
+                                                DagPathQueryEvent event) {
         if (sourceIndex > targetIndex) {
             return Collections.<DirectedGraphNode>emptyList();
         }
         
-        Map<DirectedGraphNode, Double> distanceMap = new HashMap<>();
-        Map<DirectedGraphNode, DirectedGraphNode> parentMap = new HashMap<>();
+        event.queryMode = QueryMode.FULL_SWEEP.name();
         
-        distanceMap.put(source, 0.0);
-        parentMap.put(source, null);
+        int span = targetIndex - sourceIndex + 1;
+        double[] distances = new double[span];
+        int[] parents = new int[span];
+        long scanned = 0L;
+        long relaxed = 0L;
         
-        List<DirectedGraphNode> range = nodeList.subList(sourceIndex, 
-                                                         targetIndex + 1);
+        Arrays.fill(parents, UNREACHED);
+        distances[0] = 0.0;
+        parents[0] = -1;
         
-        for (DirectedGraphNode current : range) {
-            if (distanceMap.containsKey(current)) {
-                if (current.equals(target)) {
-                    // We reached the target node.
-                    return tracebackPath(target, parentMap);
+        for (int current = 0; current < span; ++current) {
+            if (parents[current] == UNREACHED) {
+                continue;
+            }
+            
+            DirectedGraphNode node = nodeList.get(sourceIndex + current);
+            ++scanned;
+            
+            for (DirectedGraphNode child : node.children()) {
+                int childIndex = indexOf(child) - sourceIndex;
+                
+                if (childIndex >= span) {
+                    continue;
                 }
                 
-                // Expand the children of 'current'.
-                for (DirectedGraphNode child : current.children()) {
-                    double edgeWeight = weightFunction.get(current, child);
+                double distance = distances[current] + 
+                                  weightFunction.get(node, child);
+                ++relaxed;
+                
+                if (parents[childIndex] == UNREACHED 
+                        || distances[childIndex] > distance) {
+                    parents[childIndex] = current;
+                    distances[childIndex] = distance;
+                }
+            }
+        }
+        
+        staleQueryWork += span + relaxed;
+        
+        if (metrics != null) {
+            metrics.add(SearchMetrics.Counter.NODES_SCANNED, scanned);
+            metrics.add(SearchMetrics.Counter.ARCS_RELAXED, relaxed);
+        }
+        
+        if (parents[span - 1] == UNREACHED) {
+            return Collections.<DirectedGraphNode>emptyList();
+        }
+        
+        beginPhase(metrics, SearchMetrics.Phase.TRACEBACK);
+        return tracebackPath(span - 1, 
+                             parents, 
+                             (i) -> nodeList.get(sourceIndex + i));
+    }
+    
+    /**
+     * {@inheritDoc } 
+     */
+    @Override
+    public List<List<DirectedGraphNode>> 
+        findAll(List<SourceTargetPair<DirectedGraphNode>> pairs) {
+        Objects.requireNonNull(pairs, "The pair list is null.");
+        
+        for (SourceTargetPair<DirectedGraphNode> pair : pairs) {
+            Objects.requireNonNull(pair, "A pair is null.");
+            checkNodeBelongsToGraph(pair.getSource(),
+                                    graph,
+                                    "The source node does not belong to the " + 
+                                    "current graph.");
+            checkNodeBelongsToGraph(pair.getTarget(),
+                                    graph,
+                                    "The target node does not belong to the " + 
+                                    "current graph.");
+        }
+        
+        // Bring the search structures up to date once for the entire batch; 
+        // the concurrent searches only read them.
+        checkGraph(null);
+        return super.findAll(pairs);
+    }
+    
+    /**
+     * Sweeps the topological range from {@code source} to the last of 
+     * {@code targets} once, and traces back the path to each target.
+     * 
+     * @param source  the source node.
+     * @param targets the target nodes.
+     * @return the list of shortest paths in the order of {@code targets}.
+     */
+    @Override
+    protected List<List<DirectedGraphNode>> 
+        findFrom(DirectedGraphNode source, List<DirectedGraphNode> targets) {
+        DagPathQueryEvent event = new DagPathQueryEvent();
+        event.begin();
+        
+        SearchMetrics metrics = beginSearchMetrics();
+        beginPhase(metrics, SearchMetrics.Phase.SEARCH);
+        
+        int sourceIndex = indexOf(source);
+        List<List<DirectedGraphNode>> ret = 
+                findPaths(sourceIndex, targets, metrics, event);
+        
+        reportSearchMetrics(metrics);
+        
+        if (event.shouldCommit()) {
+            int lastIndex = -1;
+            long resultLength = 0L;
+            
+            for (int i = 0; i < targets.size(); ++i) {
+                lastIndex = Math.max(lastIndex, indexOf(targets.get(i)));
+                resultLength += ret.get(i).size();
+            }
+            
+            commit(event, sourceIndex, lastIndex, targets.size(), resultLength);
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Commits the event of a completed query.
+     * 
+     * @param event        the event of the query.
+     * @param sourceIndex  the topological index of the source node.
+     * @param lastIndex    the largest topological index of the target nodes.
+     * @param targetAmount the amount of the target nodes.
+     * @param resultLength the total amount of nodes in the paths found.
+     */
+    private void commit(DagPathQueryEvent event,
+                        int sourceIndex,
+                        int lastIndex,
+                        int targetAmount,
+                        long resultLength) {
+        event.setGraph(graph);
+        event.targetAmount = targetAmount;
+        event.rangeSpan = Math.max(0, lastIndex - sourceIndex + 1);
+        event.resultLength = resultLength;
+        event.commit();
+    }
+    
+    /**
+     * Finds shortest paths from a source node to a list of target nodes in the
+     * current snapshot.
+     * 
+     * @param sourceIndex the topological index of the source node.
+     * @param targets     the target nodes.
+     * @param metrics     the metrics of the search, or {@code null}.
+     * @param event       the event of the query to record the query mode in.
+     * @return the list of shortest paths in the order of {@code targets}.
+     */
+    private List<List<DirectedGraphNode>> 
+        findPaths(int sourceIndex, 
+                  List<DirectedGraphNode> targets,
+                  SearchMetrics metrics,
+                  DagPathQueryEvent event) {
+        int lastIndex = sourceIndex;
+        
+        if (queryMode == QueryMode.TARGET_CONE) {
+            List<List<DirectedGraphNode>> ret = new ArrayList<>(targets.size());
+            
+            for (DirectedGraphNode target : targets) {
+                int targetIndex = indexOf(target);
+                
+                if (sourceIndex > targetIndex 
+                        || !mayReach(sourceIndex, targetIndex)) {
+                    ret.add(Collections.<DirectedGraphNode>emptyList());
+                } else {
+                    // The cone searches alternate with their tracebacks.
+                    event.queryMode = QueryMode.TARGET_CONE.name();
+                    beginPhase(metrics, SearchMetrics.Phase.SEARCH);
+                    ret.add(findInCone(sourceIndex, targetIndex, metrics));
+                }
+            }
+            
+            return ret;
+        }
+        
+        for (DirectedGraphNode target : targets) {
+            int targetIndex = indexOf(target);
+            
+            if (targetIndex > lastIndex 
+                    && mayReach(sourceIndex, targetIndex)) {
+                lastIndex = targetIndex;
+            }
+        }
+        
+        List<List<DirectedGraphNode>> ret = new ArrayList<>(targets.size());
+        QueryMode mode = chooseQueryMode(sourceIndex, lastIndex);
+        event.queryMode = mode.name();
+        
+        if (mode == QueryMode.SPARSE_FRONTIER) {
+            SparseFrontierSweep sweep = 
+                    new SparseFrontierSweep(snapshot, sourceIndex, lastIndex);
+            
+            sweep.recordMetrics(metrics);
+            beginPhase(metrics, SearchMetrics.Phase.TRACEBACK);
+            
+            for (DirectedGraphNode target : targets) {
+                int targetIndex = indexOf(target);
+                ret.add(targetIndex > lastIndex ? 
+                        Collections.<DirectedGraphNode>emptyList() :
+                        tracebackPath(sweep, targetIndex));
+            }
+            
+            return ret;
+        }
+        
+        int span = lastIndex - sourceIndex + 1;
+        double[] distances = new double[span];
+        int[] parents = new int[span];
+        
+        sweep(snapshot, sourceIndex, distances, parents, metrics);
+        beginPhase(metrics, SearchMetrics.Phase.TRACEBACK);
+        
+        for (DirectedGraphNode target : targets) {
+            int targetIndex = indexOf(target) - sourceIndex;
+            
+            if (targetIndex < 0 
+                    || targetIndex >= span
+                    || parents[targetIndex] == UNREACHED) {
+                ret.add(Collections.<DirectedGraphNode>emptyList());
+            } else {
+                ret.add(tracebackPath(targetIndex, 
+                                      parents, 
+                                      (i) -> nodeList.get(sourceIndex + i)));
+            }
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Returns the query mode.
+     * 
+     * @return the query mode.
+     */
+    public QueryMode getQueryMode() {
+        return queryMode;
+    }
+    
+    /**
+     * Sets the query mode of the point-to-point queries.
+     * 
+     * @param queryMode the query mode.
+     */
+    public void setQueryMode(QueryMode queryMode) {
+        this.queryMode = Objects.requireNonNull(queryMode, 
+                                                "The query mode is null.");
+    }
+    
+    /**
+     * Returns the maximum amount of cached target cones.
+     * 
+     * @return the cone cache capacity.
+     */
+    public int getConeCacheCapacity() {
+        return coneCacheCapacity;
+    }
+    
+    /**
+     * Sets the maximum amount of cached target cones. If positive, the 
+     * {@link QueryMode#TARGET_CONE} queries collect all the ancestors of a 
+     * target once and reuse them until the graph changes, which pays off for
+     * targets queried over and over. Otherwise each query collects the 
+     * ancestors within its own topological range.
+     * 
+     * @param coneCacheCapacity the cone cache capacity.
+     * @throws IllegalArgumentException if the capacity is negative.
+     */
+    public void setConeCacheCapacity(int coneCacheCapacity) {
+        if (coneCacheCapacity < 0) {
+            throw new IllegalArgumentException(
+                    "The cone cache capacity is negative: " + 
+                    coneCacheCapacity + ".");
+        }
+        
+        synchronized (coneCache) {
+            this.coneCacheCapacity = coneCacheCapacity;
+            
+            Iterator<Integer> iterator = coneCache.keySet().iterator();
+            
+            while (coneCache.size() > coneCacheCapacity) {
+                iterator.next();
+                iterator.remove();
+            }
+        }
+    }
+    
+    /**
+     * Computes the shortest paths from {@code source} to all the nodes of the
+     * graph in a single sweep. The returned tree describes the graph as it was
+     * at the time of this call, and stays valid after the graph changes.
+     * 
+     * @param source the source node.
+     * @return the shortest path tree rooted at {@code source}.
+     */
+    public ShortestPathTree solveFrom(DirectedGraphNode source) {
+        Objects.requireNonNull(source, "The source node is null.");
+        checkNodeBelongsToGraph(source, 
+                                graph, 
+                                "The source node does not belong to the " + 
+                                "current graph.");
+        checkGraph(null);
+        
+        int sourceIndex = indexOf(source);
+        int span = nodeList.size() - sourceIndex;
+        double[] distances = new double[span];
+        int[] parents = new int[span];
+        
+        sweep(snapshot, sourceIndex, distances, parents, null);
+        return new ShortestPathTree(snapshot, sourceIndex, distances, parents);
+    }
+    
+    /**
+     * Computes the shortest paths from {@code source} to all the nodes of the
+     * graph, relaxing each level of mutually unreachable nodes in parallel in
+     * {@code pool}. The level of a node is the length of a longest path from a
+     * source node to it. This pays off on wide dags, where the levels contain
+     * many nodes.
+     * 
+     * @param source the source node.
+     * @param pool   the pool to run the sweep in.
+     * @return the shortest path tree rooted at {@code source}.
+     */
+    public ShortestPathTree solveFrom(DirectedGraphNode source, 
+                                      ForkJoinPool pool) {
+        Objects.requireNonNull(source, "The source node is null.");
+        Objects.requireNonNull(pool, "The input pool is null.");
+        checkNodeBelongsToGraph(source, 
+                                graph, 
+                                "The source node does not belong to the " + 
+                                "current graph.");
+        checkGraph(null);
+        
+        if (levelSweep == null || levelSweep.getSnapshot() != snapshot) {
+            levelSweep = new LevelSynchronousSweep(snapshot);
+        }
+        
+        int sourceIndex = indexOf(source);
+        int span = nodeList.size() - sourceIndex;
+        double[] distances = new double[span];
+        int[] parents = new int[span];
+        
+        levelSweep.sweep(sourceIndex, distances, parents, pool);
+        return new ShortestPathTree(snapshot, sourceIndex, distances, parents);
+    }
+    
+    /**
+     * Describes the shortest paths from a single source node to all the other 
+     * nodes of a graph.
+     */
+    public static final class ShortestPathTree {
+        
+        /**
+         * The topologically ordered snapshot the tree was computed on.
+         */
+        private final CompressedSparseRowGraph<DirectedGraphNode> snapshot;
+        
+        /**
+         * The topological index of the source node.
+         */
+        private final int sourceIndex;
+        
+        /**
+         * The distances indexed by topological index relative to 
+         * {@code sourceIndex}.
+         */
+        private final double[] distances;
+        
+        /**
+         * The relative parent indices indexed by relative topological index.
+         */
+        private final int[] parents;
+        
+        ShortestPathTree(CompressedSparseRowGraph<DirectedGraphNode> snapshot,
+                         int sourceIndex,
+                         double[] distances,
+                         int[] parents) {
+            this.snapshot = snapshot;
+            this.sourceIndex = sourceIndex;
+            this.distances = distances;
+            this.parents = parents;
+        }
+        
+        /**
+         * Returns the source node of this tree.
+         * 
+         * @return the source node.
+         */
+        public DirectedGraphNode getSource() {
+            return snapshot.getNode(sourceIndex);
+        }
+        
+        /**
+         * Returns {@code true} only if neither the graph nor its weight 
+         * function have been modified since this tree was computed.
+         * 
+         * @return {@code true} if this tree describes the current graph.
+         */
+        public boolean isUpToDate() {
+            return snapshot.isUpToDate();
+        }
+        
+        /**
+         * Returns the approximate amount of memory taken by the distance and 
+         * parent arrays of this tree.
+         * 
+         * @return the size in bytes.
+         */
+        long getSizeInBytes() {
+            return 64L + 
+                   (long) distances.length * Double.BYTES + 
+                   (long) parents.length * Integer.BYTES;
+        }
+        
+        /**
+         * Returns the length of a shortest path from the source node to 
+         * {@code node}.
+         * 
+         * @param node the target node.
+         * @return the shortest path length, or 
+         *         {@link Double#POSITIVE_INFINITY} if {@code node} is not 
+         *         reachable.
+         * @throws IllegalStateException if {@code node} was not in the graph at
+         *                               the time the tree was computed.
+         */
+        public double distanceTo(DirectedGraphNode node) {
+            int index = relativeIndexOf(node);
+            
+            if (index < 0 || parents[index] == UNREACHED) {
+                return Double.POSITIVE_INFINITY;
+            }
+            
+            return distances[index];
+        }
+        
+        /**
+         * Returns a shortest path from the source node to {@code node}.
+         * 
+         * @param node the target node.
+         * @return a shortest path, or an empty list if {@code node} is not 
+         *         reachable.
+         * @throws IllegalStateException if {@code node} was not in the graph at
+         *                               the time the tree was computed.
+         */
+        public List<DirectedGraphNode> pathTo(DirectedGraphNode node) {
+            int index = relativeIndexOf(node);
+            
+            if (index < 0 || parents[index] == UNREACHED) {
+                return Collections.<DirectedGraphNode>emptyList();
+            }
+            
+            List<DirectedGraphNode> path = new ArrayList<>();
+            
+            while (index != -1) {
+                path.add(snapshot.getNode(sourceIndex + index));
+                index = parents[index];
+            }
+            
+            Collections.<DirectedGraphNode>reverse(path);
+            return path;
+        }
+        
+        /**
+         * Returns the topological index of {@code node} relative to the source
+         * node.
+         * 
+         * @param node the node to look up.
+         * @return the relative index, negative if {@code node} precedes the 
+         *         source node.
+         */
+        private int relativeIndexOf(DirectedGraphNode node) {
+            Objects.requireNonNull(node, "The input node is null.");
+            int index = snapshot.getNodeIndex(node);
+            
+            if (index == -1) {
+                throw new IllegalStateException(
+                        "The node " + node + " is not in the graph of this " +
+                        "shortest path tree.");
+            }
+            
+            return index - sourceIndex;
+        }
+    }
+    
+    /**
+     * Resolves the query mode for a query over a topological range.
+     * 
+     * @param sourceIndex the topological index of the source node.
+     * @param lastIndex   the last topological index of the range.
+     * @return the query mode to use.
+     */
+    private QueryMode chooseQueryMode(int sourceIndex, int lastIndex) {
+        QueryMode mode = queryMode;
+        
+        if (mode != QueryMode.AUTOMATIC) {
+            return mode;
+        }
+        
+        ReachabilityIndex index = reachabilityIndex;
+        
+        if (index == null) {
+            // Nothing bounds the reach of the source.
+            return QueryMode.FULL_SWEEP;
+        }
+        
+        long span = lastIndex - sourceIndex + 1;
+        long reach = index.estimateReach(sourceIndex);
+        
+        return reach * SPARSE_FRONTIER_FACTOR < span ? 
+               QueryMode.SPARSE_FRONTIER : 
+               QueryMode.FULL_SWEEP;
+    }
+    
+    /**
+     * Consults the reachability filter. While the filter is out of date, 
+     * every query may reach its target, and its topological range is counted
+     * towards rebuilding the filter.
+     * 
+     * @param sourceIndex the topological index of the source node.
+     * @param targetIndex the topological index of the target node.
+     * @return {@code false} if there is certainly no path.
+     */
+    private boolean mayReach(int sourceIndex, int targetIndex) {
+        ReachabilityIndex index = reachabilityIndex;
+        
+        if (index == null) {
+            unfilteredQueryWork.add(targetIndex - sourceIndex + 1);
+            return true;
+        }
+        
+        return index.mayReach(sourceIndex, targetIndex);
+    }
+    
+    /**
+     * Traces back a shortest path found by a sparse frontier sweep.
+     * 
+     * @param sweep       the sweep.
+     * @param targetIndex the topological index of the target node.
+     * @return a shortest path, or an empty list if the target was not reached.
+     */
+    private List<DirectedGraphNode> tracebackPath(SparseFrontierSweep sweep,
+                                                  int targetIndex) {
+        if (!sweep.isReached(targetIndex)) {
+            return Collections.<DirectedGraphNode>emptyList();
+        }
+        
+        List<DirectedGraphNode> path = new ArrayList<>();
+        
+        for (int index = targetIndex; index != -1; 
+                 index = sweep.getParent(index)) {
+            path.add(nodeList.get(index));
+        }
+        
+        Collections.<DirectedGraphNode>reverse(path);
+        return path;
+    }
+    
+    /**
+     * Finds a shortest path by sweeping the ancestor cone of the target. 
+     * Unless the cone of the target is cached, the ancestors are collected 
+     * within the topological range of the query only.
+     * 
+     * @param sourceIndex the topological index of the source node.
+     * @param targetIndex the topological index of the target node.
+     * @param metrics     the metrics of the search, or {@code null}.
+     * @return a shortest path, or an empty list if there is none.
+     */
+    private List<DirectedGraphNode> findInCone(int sourceIndex, 
+                                               int targetIndex,
+                                               SearchMetrics metrics) {
+        if (coneCacheCapacity > 0) {
+            return findInCachedCone(sourceIndex, targetIndex, metrics);
+        }
+        
+        int span = targetIndex - sourceIndex + 1;
+        double[] distances = new double[span];
+        int[] parents = new int[span];
+        int[] cone = new int[16];
+        int coneSize = 0;
+        
+        Arrays.fill(parents, UNREACHED);
+        parents[span - 1] = IN_CONE;
+        cone[coneSize++] = span - 1;
+        
+        // Collect the ancestors of the target within the range, keeping all
+        // of them in the queue.
+        for (int head = 0; head < coneSize; ++head) {
+            int index = sourceIndex + cone[head];
+            
+            for (int inArc = snapshot.getInArcBeginIndex(index),
+                     end = snapshot.getInArcEndIndex(index);
+                     inArc < end;
+                     ++inArc) {
+                int tail = snapshot.getInArcTail(inArc) - sourceIndex;
+                
+                if (tail >= 0 && parents[tail] == UNREACHED) {
+                    parents[tail] = IN_CONE;
+                    
+                    if (coneSize == cone.length) {
+                        cone = Arrays.copyOf(cone, 2 * coneSize);
+                    }
                     
-                    if (!distanceMap.containsKey(child)
-                            || distanceMap.get(child) > 
-                               distanceMap.get(current) + edgeWeight) {
-                        parentMap.put(child, current);
-                        distanceMap.put(child,
-                                        distanceMap.get(current) + edgeWeight);
-                    } 
+                    cone[coneSize++] = tail;
+                }
+            }
+        }
+        
+        if (parents[0] == UNREACHED) {
+            // The source is not an ancestor of the target.
+            return Collections.<DirectedGraphNode>emptyList();
+        }
+        
+        Arrays.sort(cone, 0, coneSize);
+        distances[0] = 0.0;
+        parents[0] = -1;
+        
+        long relaxed = 0L;
+        
+        // Each cone node takes its distance from its parents, all of which 
+        // within the range are in the cone, so the arcs leaving the cone are
+        // never scanned. The source is the first cone node.
+        for (int i = 1; i < coneSize; ++i) {
+            int current = cone[i];
+            int index = sourceIndex + current;
+            
+            for (int inArc = snapshot.getInArcBeginIndex(index),
+                     end = snapshot.getInArcEndIndex(index);
+                     inArc < end;
+                     ++inArc) {
+                int parent = snapshot.getInArcTail(inArc) - sourceIndex;
+                
+                if (parent < 0 || parents[parent] < -1) {
+                    // 'parent' is out of range or not reached.
+                    continue;
+                }
+                
+                double distance = distances[parent] + 
+                                  snapshot.getInArcWeight(inArc);
+                ++relaxed;
+                
+                if (parents[current] < -1 || distances[current] > distance) {
+                    parents[current] = parent;
+                    distances[current] = distance;
+                }
+            }
+        }
+        
+        if (metrics != null) {
+            metrics.add(SearchMetrics.Counter.NODES_SCANNED, coneSize);
+            metrics.add(SearchMetrics.Counter.ARCS_RELAXED, relaxed);
+        }
+        
+        if (parents[span - 1] < -1) {
+            return Collections.<DirectedGraphNode>emptyList();
+        }
+        
+        beginPhase(metrics, SearchMetrics.Phase.TRACEBACK);
+        return tracebackPath(span - 1, 
+                             parents, 
+                             (i) -> nodeList.get(sourceIndex + i));
+    }
+    
+    /**
+     * Finds a shortest path by sweeping the cached ancestor cone of the 
+     * target.
+     * 
+     * @param sourceIndex the topological index of the source node.
+     * @param targetIndex the topological index of the target node.
+     * @param metrics     the metrics of the search, or {@code null}.
+     * @return a shortest path, or an empty list if there is none.
+     */
+    private List<DirectedGraphNode> findInCachedCone(int sourceIndex, 
+                                                     int targetIndex,
+                                                     SearchMetrics metrics) {
+        TargetCone cone = getCone(targetIndex);
+        int position = cone.positionOf(sourceIndex);
+        
+        if (position < 0) {
+            // The source is not an ancestor of the target.
+            return Collections.<DirectedGraphNode>emptyList();
+        }
+        
+        int span = cone.size() - position;
+        double[] distances = new double[span];
+        int[] parents = new int[span];
+        
+        long relaxed = cone.sweep(position, distances, parents);
+        
+        if (metrics != null) {
+            metrics.add(SearchMetrics.Counter.NODES_SCANNED, span);
+            metrics.add(SearchMetrics.Counter.ARCS_RELAXED, relaxed);
+        }
+        
+        if (parents[span - 1] == UNREACHED) {
+            return Collections.<DirectedGraphNode>emptyList();
+        }
+        
+        beginPhase(metrics, SearchMetrics.Phase.TRACEBACK);
+        return tracebackPath(span - 1, 
+                             parents, 
+                             (i) -> nodeList.get(cone.getNode(position + i)));
+    }
+    
+    /**
+     * Returns the ancestor cone of a target from the cache, collecting it if 
+     * it is not there.
+     * 
+     * @param targetIndex the topological index of the target node.
+     * @return the target cone.
+     */
+    private TargetCone getCone(int targetIndex) {
+        TargetCone cone;
+        
+        synchronized (coneCache) {
+            cone = coneCache.get(targetIndex);
+        }
+        
+        if (cone == null) {
+            cone = new TargetCone(snapshot, targetIndex);
+            
+            synchronized (coneCache) {
+                coneCache.put(targetIndex, cone);
+            }
+        }
+        
+        return cone;
+    }
+    
+    /**
+     * Relaxes the arcs of the nodes with topological indices 
+     * {@code sourceIndex, ..., sourceIndex + distances.length - 1}. Both the 
+     * arrays are indexed by the topological index relative to 
+     * {@code sourceIndex}, and {@code parents} holds relative indices as well.
+     * The nodes not reached are marked with {@code UNREACHED} in 
+     * {@code parents}.
+     * 
+     * @param snapshot    the topologically ordered graph snapshot.
+     * @param sourceIndex the topological index of the source node.
+     * @param distances   the distance array to fill.
+     * @param parents     the parent array to fill.
+     * @param metrics     the metrics of the search, or {@code null}.
+     */
+    private static void sweep(CompressedSparseRowGraph<DirectedGraphNode> 
+                                      snapshot,
+                              int sourceIndex,
+                              double[] distances,
+                              int[] parents,
+                              SearchMetrics metrics) {
+        int span = distances.length;
+        long scanned = 0L;
+        long relaxed = 0L;
+        
+        Arrays.fill(parents, UNREACHED);
+        distances[0] = 0.0;
+        parents[0] = -1;
+        
+        for (int current = 0; current < span; ++current) {
+            if (parents[current] == UNREACHED) {
+                continue;
+            }
+            
+            int index = sourceIndex + current;
+            ++scanned;
+            
+            // Expand the children of 'current'.
+            for (int arc = snapshot.getArcBeginIndex(index),
+                     end = snapshot.getArcEndIndex(index);
+                     arc < end;
+                     ++arc) {
+                int child = snapshot.getArcHead(arc) - sourceIndex;
+                
+                if (child >= span) {
+                    // 'child' lies beyond the swept range and so cannot be on
+                    // a path to the nodes of interest.
+                    continue;
+                }
+                
+                double distance = distances[current] + 
+                                  snapshot.getArcWeight(arc);
+                ++relaxed;
+                
+                if (parents[child] == UNREACHED 
+                        || distances[child] > distance) {
+                    parents[child] = current;
+                    distances[child] = distance;
                 }
             }
         }
         
-        // Path not found.
-        return Collections.<DirectedGraphNode>emptyList();
+        if (metrics != null) {
+            metrics.add(SearchMetrics.Counter.NODES_SCANNED, scanned);
+            metrics.add(SearchMetrics.Counter.ARCS_RELAXED, relaxed);
+        }
     }
     
     /**
-     * Checks whether the graph has changed, and if so, reprocesses it.
+     * Prepares a point-to-point query. If the graph has changed but the 
+     * maintained topological order is still valid, the snapshot is rebuilt 
+     * only after the queries answered from the graph itself have done as much
+     * work as the rebuild would.
+     * 
+     * @param metrics the metrics of the search to count the rebuilds in, or
+     *                {@code null}.
+     * @return {@code true} if the query may use the snapshot, {@code false} if
+     *         it must be answered from the graph.
      */
-    private void checkGraph() {
-        if (graphModificationCount != graph.getModificationCount()) {
+    private boolean checkGraphForQuery(SearchMetrics metrics) {
+        if (orderValid 
+                && !snapshot.isUpToDate()
+                && staleQueryWork < (long) graph.getNodeAmount() + 
+                                    graph.getEdgeAmount()) {
+            return false;
+        }
+        
+        checkGraph(metrics);
+        return true;
+    }
+    
+    /**
+     * Checks whether the graph has changed, and if so, brings the search 
+     * structures up to date. The topological order is recomputed only if an
+     * arc insertion could not be accommodated incrementally.
+     * 
+     * @param metrics the metrics of the search to count the rebuilds in, or
+     *                {@code null}.
+     */
+    private void checkGraph(SearchMetrics metrics) {
+        if (!orderValid) {
             processGraph();
+            countPreprocessingRun(metrics);
+            return;
+        }
+        
+        if (!snapshot.isUpToDate()) {
+            GraphPreprocessingEvent event = new GraphPreprocessingEvent();
+            event.begin();
+            
+            if (removedNodeAmount > 0) {
+                compactNodeList();
+            }
+            
+            snapshot = new CompressedSparseRowGraph<>(graph, 
+                                                      nodeList, 
+                                                      weightFunction);
+            staleQueryWork = 0L;
+            clearConeCache();
+            countPreprocessingRun(metrics);
+            
+            // The reachability index is rebuilt below, in its own event.
+            commit(event, GraphPreprocessingEvent.SNAPSHOT);
+        }
+        
+        if (updateReachabilityIndex()) {
+            countPreprocessingRun(metrics);
+        }
+    }
+    
+    /**
+     * Drops the reachability index if the structure of the graph has changed
+     * since it was built, and rebuilds it once the queries run without it 
+     * have covered as many nodes as the traversals of the index would visit.
+     * Changes of the arc weights alone do not affect reachability. The index 
+     * only prunes the queries, so the queries stay correct without it, and a
+     * graph too large for its labels is not indexed at all.
+     * 
+     * @return {@code true} if the index was rebuilt.
+     */
+    private boolean updateReachabilityIndex() {
+        if (reachabilityIndex != null 
+                && reachabilityIndex.getModificationCount() == 
+                   snapshot.getModificationCount()) {
+            return false;
+        }
+        
+        reachabilityIndex = null;
+        
+        if (!ReachabilityIndex.canIndex(snapshot.getNodeAmount(), 
+                                        REACHABILITY_TRAVERSALS)
+                || unfilteredQueryWork.sum() < 
+                REACHABILITY_TRAVERSALS * 
+                ((long) snapshot.getNodeAmount() + snapshot.getArcAmount())) {
+            return false;
+        }
+        
+        GraphPreprocessingEvent event = new GraphPreprocessingEvent();
+        event.begin();
+        
+        reachabilityIndex = new ReachabilityIndex(snapshot, 
+                                                  REACHABILITY_TRAVERSALS,
+                                                  random);
+        unfilteredQueryWork.reset();
+        commit(event, GraphPreprocessingEvent.REACHABILITY_INDEX);
+        return true;
+    }
+    
+    private static void countPreprocessingRun(SearchMetrics metrics) {
+        if (metrics != null) {
+            metrics.add(SearchMetrics.Counter.PREPROCESSING_RUNS, 1L);
         }
     }
     
@@ -143,13 +1248,247 @@ extends AbstractWeightedPathFinder<DirectedGraphNode> {
      * Establish the data structures for faster path search.
      */
     private void processGraph() {
-        graphModificationCount = graph.getModificationCount();
-        this.nodeIndexMap.clear();
+        GraphPreprocessingEvent event = new GraphPreprocessingEvent();
+        event.begin();
+        
+        this.nodeIndices = new int[graph.getIdCapacity()];
         this.nodeList.clear();
-        this.nodeList.addAll(Arrays.asList(TopologicalSort.sort(graph)));
+        this.nodeList.addAll(Arrays.asList(TopologicalSort.sortByKahn(graph)));
+        
+        Arrays.fill(nodeIndices, -1);
         
         for (int i = 0; i < nodeList.size(); ++i) {
-            nodeIndexMap.put(nodeList.get(i), i);
+            nodeIndices[nodeList.get(i).getId()] = i;
+        }
+        
+        this.snapshot = 
+                new CompressedSparseRowGraph<>(graph, nodeList, weightFunction);
+        this.removedNodeAmount = 0;
+        this.staleQueryWork = 0L;
+        this.orderValid = true;
+        clearConeCache();
+        this.reachabilityIndex = 
+                ReachabilityIndex.canIndex(snapshot.getNodeAmount(), 
+                                           REACHABILITY_TRAVERSALS) ?
+                new ReachabilityIndex(snapshot, 
+                                      REACHABILITY_TRAVERSALS, 
+                                      random) :
+                null;
+        this.unfilteredQueryWork.reset();
+        
+        commit(event, GraphPreprocessingEvent.TOPOLOGICAL_ORDER);
+    }
+    
+    /**
+     * Commits the event of a completed preprocessing stage if it is enabled.
+     * 
+     * @param event the event of the stage.
+     * @param stage the name of the stage.
+     */
+    private void commit(GraphPreprocessingEvent event, String stage) {
+        if (event.shouldCommit()) {
+            event.setGraph(graph);
+            event.stage = stage;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Returns the topological index of the input node.
+     * 
+     * @param node the node whose index to return.
+     * @return the index of the node, or -1 if the node has no index.
+     */
+    private int indexOf(DirectedGraphNode node) {
+        int id = node.getId();
+        return id >= 0 && id < nodeIndices.length ? nodeIndices[id] : -1;
+    }
+    
+    /**
+     * Sets the topological index of the input node, growing 
+     * {@code nodeIndices} as the id capacity of the graph grows.
+     * 
+     * @param node  the node whose index to set.
+     * @param index the new index of the node.
+     */
+    private void setIndex(DirectedGraphNode node, int index) {
+        int id = node.getId();
+        
+        if (id >= nodeIndices.length) {
+            int length = nodeIndices.length;
+            nodeIndices = Arrays.copyOf(nodeIndices, 
+                                        Math.max(graph.getIdCapacity(), 
+                                                 2 * length));
+            Arrays.fill(nodeIndices, length, nodeIndices.length, -1);
+        }
+        
+        nodeIndices[id] = index;
+    }
+    
+    /**
+     * Drops the cached cones, which refer to a previous snapshot.
+     */
+    private void clearConeCache() {
+        synchronized (coneCache) {
+            coneCache.clear();
+        }
+    }
+    
+    /**
+     * Removes the slots of removed nodes from {@code nodeList}.
+     */
+    private void compactNodeList() {
+        int size = 0;
+        
+        for (int i = 0; i < nodeList.size(); ++i) {
+            DirectedGraphNode node = nodeList.get(i);
+            
+            if (node != null) {
+                nodeList.set(size, node);
+                setIndex(node, size++);
+            }
+        }
+        
+        nodeList.subList(size, nodeList.size()).clear();
+        removedNodeAmount = 0;
+    }
+    
+    /**
+     * Maintains the topological order in {@code nodeList} and 
+     * {@code nodeIndices} as the graph changes. Arc insertions are handled by
+     * the algorithm of Pearce and Kelly: only the nodes whose topological 
+     * index lies between the indices of the head and the tail of the new arc 
+     * are visited and reordered.
+     */
+    private final class TopologicalOrderMaintainer 
+    implements GraphListener<DirectedGraphNode> {
+        
+        @Override
+        public void nodeAdded(DirectedGraphNode node) {
+            if (orderValid) {
+                setIndex(node, nodeList.size());
+                nodeList.add(node);
+            }
+        }
+        
+        @Override
+        public void nodeRemoved(DirectedGraphNode node) {
+            if (orderValid) {
+                int index = indexOf(node);
+                
+                if (index != -1) {
+                    setIndex(node, -1);
+                    nodeList.set(index, null);
+                    ++removedNodeAmount;
+                }
+            }
+        }
+        
+        @Override
+        public void arcAdded(DirectedGraphNode tail, DirectedGraphNode head) {
+            if (!orderValid) {
+                return;
+            }
+            
+            int lowerBound = indexOf(head);
+            int upperBound = indexOf(tail);
+            
+            if (lowerBound == -1 || upperBound == -1 
+                    || lowerBound == upperBound) {
+                orderValid = false;
+            } else if (lowerBound < upperBound) {
+                reorder(tail, head, lowerBound, upperBound);
+            }
+        }
+        
+        /**
+         * Restores the topological order after adding the arc 
+         * {@code (tail, head)} where {@code head} precedes {@code tail}.
+         * 
+         * @param tail       the tail node of the new arc.
+         * @param head       the head node of the new arc.
+         * @param lowerBound the topological index of {@code head}.
+         * @param upperBound the topological index of {@code tail}.
+         */
+        private void reorder(DirectedGraphNode tail,
+                             DirectedGraphNode head,
+                             int lowerBound,
+                             int upperBound) {
+            Set<DirectedGraphNode> visited = new HashSet<>();
+            Deque<DirectedGraphNode> stack = new ArrayDeque<>();
+            List<DirectedGraphNode> forward = new ArrayList<>();
+            List<DirectedGraphNode> backward = new ArrayList<>();
+            
+            // Collect the descendants of 'head' preceding 'tail'.
+            visited.add(head);
+            stack.push(head);
+            
+            while (!stack.isEmpty()) {
+                DirectedGraphNode current = stack.pop();
+                forward.add(current);
+                
+                for (DirectedGraphNode child : current.children()) {
+                    if (child.equals(tail)) {
+                        // The new arc closes a cycle.
+                        orderValid = false;
+                        return;
+                    }
+                    
+                    if (indexOf(child) < upperBound 
+                            && visited.add(child)) {
+                        stack.push(child);
+                    }
+                }
+            }
+            
+            // Collect the ancestors of 'tail' following 'head'.
+            visited.add(tail);
+            stack.push(tail);
+            
+            while (!stack.isEmpty()) {
+                DirectedGraphNode current = stack.pop();
+                backward.add(current);
+                
+                for (DirectedGraphNode parent : current.parents()) {
+                    if (indexOf(parent) > lowerBound 
+                            && visited.add(parent)) {
+                        stack.push(parent);
+                    }
+                }
+            }
+            
+            Comparator<DirectedGraphNode> comparator = 
+                    Comparator.comparingInt((node) -> indexOf(node));
+            
+            forward.sort(comparator);
+            backward.sort(comparator);
+            
+            // Reuse the indices of the affected nodes: first the ancestors of
+            // 'tail', then the descendants of 'head', both in their previous
+            // relative order.
+            int[] slots = new int[forward.size() + backward.size()];
+            int slotIndex = 0;
+            
+            for (DirectedGraphNode node : backward) {
+                slots[slotIndex++] = indexOf(node);
+            }
+            
+            for (DirectedGraphNode node : forward) {
+                slots[slotIndex++] = indexOf(node);
+            }
+            
+            Arrays.sort(slots);
+            slotIndex = 0;
+            
+            for (DirectedGraphNode node : backward) {
+                nodeList.set(slots[slotIndex], node);
+                setIndex(node, slots[slotIndex++]);
+            }
+            
+            for (DirectedGraphNode node : forward) {
+                nodeList.set(slots[slotIndex], node);
+                setIndex(node, slots[slotIndex++]);
+            }
         }
     }
     
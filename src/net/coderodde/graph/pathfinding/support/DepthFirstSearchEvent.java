@@ -0,0 +1,21 @@
+package net.coderodde.graph.pathfinding.support;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This event is emitted by each traversal of
+ * {@link DepthFirstSearchTraversal}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@Name("net.coderodde.graph.DepthFirstSearch")
+@Label("Depth-First Search")
+@Description("Traverses an entire graph depth first.")
+final class DepthFirstSearchEvent extends AbstractGraphEvent {
+    
+    @Label("Acyclic")
+    boolean acyclic;
+}
@@ -1,7 +1,15 @@
 package net.coderodde.graph.pathfinding.support;
 
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.IntFunction;
 import net.coderodde.graph.AbstractGraphNode;
 import net.coderodde.graph.Graph;
 
@@ -17,6 +25,11 @@ public class DepthFirstSearchTraversal<N extends AbstractGraphNode<N>> {
     public static final Boolean GRAY = Boolean.FALSE;
     public static final Boolean BLACK = Boolean.TRUE;
     
+    // The node colors used internally.
+    private static final byte WHITE_COLOR = 0;
+    private static final byte GRAY_COLOR = 1;
+    private static final byte BLACK_COLOR = 2;
+    
     /**
      * Describes the graph after being processed by depth-first search.
      * 
@@ -42,66 +55,213 @@ public class DepthFirstSearchTraversal<N extends AbstractGraphNode<N>> {
         }
     }
     
-    private int time;
-    private Map<N, Integer> startingTimeMap;
-    private Map<N, Integer> endingTimeMap;
-    private Map<N, Boolean> colorMap;
-    private Map<N, N> parentMap;
-    private boolean isAcyclic;
-    
     /**
      * Runs depth-first search on the input graph. This algorithm is taken from
-     * "Introduction to Algorithms" 3rd edition, chapter 22, page 604.
+     * "Introduction to Algorithms" 3rd edition, chapter 22, page 604. The
+     * recursion is simulated with an explicit stack, so that the depth of the
+     * graph is not limited by the size of the thread stack.
      * 
      * @param graph the graph to traverse.
      * @return data structures describing the graph.
      */
     public DepthFirstSearchResult<N> search(Graph<N> graph) {
-        // Create new state.
-        time = 0;
-        startingTimeMap = new HashMap<>();
-        endingTimeMap = new HashMap<>();
-        colorMap = new HashMap<>();
-        parentMap = new HashMap<>();
-        isAcyclic = true;
+        DepthFirstSearchEvent event = new DepthFirstSearchEvent();
+        event.begin();
+        
+        int nodeAmount = graph.getNodeAmount();
+        List<N> nodeList = new ArrayList<>(nodeAmount);
+        int[] nodeIndices = new int[graph.getIdCapacity()];
+        
+        Arrays.fill(nodeIndices, -1);
         
         for (N node : graph) {
-            parentMap.put(node, null);
+            nodeIndices[node.getId()] = nodeList.size();
+            nodeList.add(node);
         }
         
+        int time = 0;
+        int[] startingTimes = new int[nodeAmount];
+        int[] endingTimes = new int[nodeAmount];
+        int[] parents = new int[nodeAmount];
+        byte[] colors = new byte[nodeAmount];
+        boolean isAcyclic = true;
+        
+        // The simulated call stack: the node indices and their child
+        // iterators.
+        int[] nodeStack = new int[nodeAmount];
+        List<Iterator<N>> iteratorStack = new ArrayList<>();
+        int stackSize = 0;
+        
         // Traverse.
-        for (N node : graph) {
-            // If 'node' is not in the 'colorMap', its color is assumed to be
-            // white
-            if (!colorMap.containsKey(node)) {
-                visit(node);
+        for (int root = 0; root < nodeAmount; ++root) {
+            if (colors[root] != WHITE_COLOR) {
+                continue;
+            }
+            
+            parents[root] = -1;
+            startingTimes[root] = ++time;
+            colors[root] = GRAY_COLOR;
+            nodeStack[stackSize] = root;
+            push(iteratorStack, stackSize++, nodeList.get(root));
+            
+            while (stackSize > 0) {
+                int current = nodeStack[stackSize - 1];
+                Iterator<N> iterator = iteratorStack.get(stackSize - 1);
+                
+                if (!iterator.hasNext()) {
+                    colors[current] = BLACK_COLOR;
+                    endingTimes[current] = ++time;
+                    iteratorStack.set(--stackSize, null);
+                    continue;
+                }
+                
+                int child = nodeIndices[iterator.next().getId()];
+                
+                if (colors[child] == WHITE_COLOR) {
+                    parents[child] = current;
+                    startingTimes[child] = ++time;
+                    colors[child] = GRAY_COLOR;
+                    nodeStack[stackSize] = child;
+                    push(iteratorStack, stackSize++, nodeList.get(child));
+                } else if (colors[child] == GRAY_COLOR) {
+                    // We have a cycle.
+                    isAcyclic = false;
+                }
             }
         }
         
-        return new DepthFirstSearchResult<>(startingTimeMap,
-                                            endingTimeMap,
-                                            colorMap,
-                                            parentMap,
-                                            isAcyclic);
+        if (event.shouldCommit()) {
+            event.setGraph(graph);
+            event.acyclic = isAcyclic;
+            event.commit();
+        }
+        
+        return new DepthFirstSearchResult<>(
+                new ArrayBackedMap<>(nodeList,
+                                     nodeIndices,
+                                     (i) -> startingTimes[i]),
+                new ArrayBackedMap<>(nodeList,
+                                     nodeIndices,
+                                     (i) -> endingTimes[i]),
+                new ArrayBackedMap<>(nodeList,
+                                     nodeIndices,
+                                     (i) -> colors[i] == BLACK_COLOR ?
+                                            BLACK :
+                                            GRAY),
+                new ArrayBackedMap<>(nodeList,
+                                     nodeIndices,
+                                     (i) -> parents[i] == -1 ?
+                                            null :
+                                            nodeList.get(parents[i])),
+                isAcyclic);
+    }
+    
+    /**
+     * Pushes the child iterator of {@code node} to the simulated call stack.
+     * 
+     * @param iteratorStack the iterator stack.
+     * @param index         the stack index to push to.
+     * @param node          the node being visited.
+     */
+    private void push(List<Iterator<N>> iteratorStack, int index, N node) {
+        Iterator<N> iterator = node.children().iterator();
+        
+        if (index == iteratorStack.size()) {
+            iteratorStack.add(iterator);
+        } else {
+            iteratorStack.set(index, iterator);
+        }
     }
     
-    // Implementation.
-    private void visit(N node) {
-        startingTimeMap.put(node, ++time);
-        colorMap.put(node, GRAY);
-        
-        for (N child : node.children()) {
-            // If the color of 'child' is white, do...
-            if (!colorMap.containsKey(child)) {
-                parentMap.put(child, node);
-                visit(child);
-            } else if (colorMap.get(child).equals(GRAY)) {
-                // We have a cycle.
-                isAcyclic = false;
+    /**
+     * An unmodifiable map view over an array indexed by node indices. The keys
+     * are looked up via their node ids.
+     * 
+     * @param <N> the actual graph node type.
+     * @param <V> the value type.
+     */
+    private static final class ArrayBackedMap<N extends AbstractGraphNode<N>, V>
+    extends AbstractMap<N, V> {
+        
+        private final List<N> nodeList;
+        private final int[] nodeIndices;
+        private final IntFunction<V> valueFunction;
+        
+        ArrayBackedMap(List<N> nodeList,
+                       int[] nodeIndices,
+                       IntFunction<V> valueFunction) {
+            this.nodeList = nodeList;
+            this.nodeIndices = nodeIndices;
+            this.valueFunction = valueFunction;
+        }
+        
+        @Override
+        public V get(Object key) {
+            int index = indexOf(key);
+            return index == -1 ? null : valueFunction.apply(index);
+        }
+        
+        @Override
+        public boolean containsKey(Object key) {
+            return indexOf(key) != -1;
+        }
+        
+        private int indexOf(Object key) {
+            if (!(key instanceof AbstractGraphNode)) {
+                return -1;
             }
+            
+            int id = ((AbstractGraphNode<?>) key).getId();
+            
+            if (id < 0 || id >= nodeIndices.length) {
+                return -1;
+            }
+            
+            int index = nodeIndices[id];
+            return index != -1 && nodeList.get(index).equals(key) ? index : -1;
+        }
+        
+        @Override
+        public int size() {
+            return nodeList.size();
         }
         
-        colorMap.put(node, BLACK);
-        endingTimeMap.put(node, ++time);
+        @Override
+        public Set<Entry<N, V>> entrySet() {
+            return new AbstractSet<Entry<N, V>>() {
+                
+                @Override
+                public Iterator<Entry<N, V>> iterator() {
+                    return new Iterator<Entry<N, V>>() {
+                        
+                        private int index;
+                        
+                        @Override
+                        public boolean hasNext() {
+                            return index < nodeList.size();
+                        }
+                        
+                        @Override
+                        public Entry<N, V> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            
+                            Entry<N, V> entry =
+                                    new SimpleImmutableEntry<>(
+                                            nodeList.get(index),
+                                            valueFunction.apply(index));
+                            ++index;
+                            return entry;
+                        }
+                    };
+                }
+                
+                @Override
+                public int size() {
+                    return nodeList.size();
+                }
+            };
+        }
     }
 }
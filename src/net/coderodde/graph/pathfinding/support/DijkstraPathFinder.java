@@ -1,5 +1,7 @@
 package net.coderodde.graph.pathfinding.support;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -11,7 +13,9 @@ import java.util.Queue;
 import java.util.Set;
 import net.coderodde.graph.AbstractGraphNode;
 import net.coderodde.graph.AbstractWeightFunction;
+import net.coderodde.graph.CompressedSparseRowGraph;
 import net.coderodde.graph.pathfinding.AbstractWeightedPathFinder;
+import net.coderodde.graph.pathfinding.SearchMetrics;
 
 /**
  * This class implements Dijkstra's shortest path algorithm.
@@ -28,6 +32,12 @@ extends AbstractWeightedPathFinder<N> {
      */
     private final AbstractWeightFunction<N> weightFunction;
     
+    /**
+     * The graph snapshot to search, or {@code null} if this finder searches 
+     * the graph objects directly.
+     */
+    private final CompressedSparseRowGraph<N> snapshot;
+    
     /**
      * Constructs this shortest path finder with given weight function.
      * 
@@ -37,6 +47,21 @@ extends AbstractWeightedPathFinder<N> {
         this.weightFunction = 
                 Objects.requireNonNull(weightFunction,
                                        "The weight function is null.");
+        this.snapshot = null;
+    }
+    
+    /**
+     * Constructs this shortest path finder for searching a compressed graph 
+     * snapshot. The search keeps its state in arrays indexed by node index and
+     * uses an indexed 4-ary heap with decrease-key instead of re-inserting 
+     * improved nodes. The snapshot is not rebuilt if its graph changes.
+     * 
+     * @param snapshot the graph snapshot to search.
+     */
+    public DijkstraPathFinder(CompressedSparseRowGraph<N> snapshot) {
+        this.snapshot = Objects.requireNonNull(snapshot, 
+                                               "The graph snapshot is null.");
+        this.weightFunction = null;
     }
     
     /**
@@ -44,10 +69,33 @@ extends AbstractWeightedPathFinder<N> {
      */
     @Override
     public List<N> find(N source, N target) {
-        checkNodes(source, target);
+        return findFrom(source, Collections.<N>singletonList(target)).get(0);
+    }
+    
+    /**
+     * Runs a single search from {@code source} that stops as soon as all the
+     * targets are settled.
+     * 
+     * @param source  the source node.
+     * @param targets the target nodes.
+     * @return the list of shortest paths in the order of {@code targets}.
+     */
+    @Override
+    protected List<List<N>> findFrom(N source, List<N> targets) {
+        for (N target : targets) {
+            checkNodes(source, target);
+        }
+        
+        SearchMetrics metrics = beginSearchMetrics();
+        beginPhase(metrics, SearchMetrics.Phase.SEARCH);
+        
+        if (snapshot != null) {
+            return findInSnapshot(source, targets, metrics);
+        }
         
         Queue<NodeWrapper<N>> open = new PriorityQueue<>();
         Set<N> closed = new HashSet<>();
+        Set<N> remaining = new HashSet<>(targets);
         
         Map<N, N> parentMap = new HashMap<>();
         Map<N, Double> distanceMap = new HashMap<>();
@@ -56,32 +104,184 @@ extends AbstractWeightedPathFinder<N> {
         parentMap.put(source, null);
         distanceMap.put(source, 0.0);
         
+        long scanned = 0L;
+        long relaxed = 0L;
+        long pushes = 1L;
+        long pops = 0L;
+        
         while (!open.isEmpty()) {
             N current = open.poll().node;
+            ++pops;
             
-            if (current.equals(target)) {
-                return tracebackPath(target, parentMap);
+            if (!closed.add(current)) {
+                // A stale entry of an already settled node.
+                continue;
             }
             
             // 'current' is settled.
-            closed.add(current);
+            if (remaining.remove(current) && remaining.isEmpty()) {
+                break;
+            }
+            
+            ++scanned;
             
             for (N child : current.children()) {
                 if (!closed.contains(child)) {
                     double w = distanceMap.get(current) + 
                                weightFunction.get(current, child);
+                    ++relaxed;
                     
                     if (!distanceMap.containsKey(child) 
                             || distanceMap.get(child) > w) {
                         open.add(new NodeWrapper<>(child, w));
                         distanceMap.put(child, w);
                         parentMap.put(child, current);
+                        ++pushes;
                     }
                 }
             }
         }
         
-        return Collections.<N>emptyList();
+        if (metrics != null) {
+            recordSearch(metrics, scanned, relaxed, pushes, pops);
+            metrics.beginPhase(SearchMetrics.Phase.TRACEBACK);
+        }
+        
+        List<List<N>> ret = new ArrayList<>(targets.size());
+        
+        for (N target : targets) {
+            ret.add(closed.contains(target) ? 
+                    tracebackPath(target, parentMap) :
+                    Collections.<N>emptyList());
+        }
+        
+        reportSearchMetrics(metrics);
+        return ret;
+    }
+    
+    /**
+     * Runs the search over the node indices of {@code snapshot}.
+     * 
+     * @param source  the source node.
+     * @param targets the target nodes.
+     * @param metrics the metrics of the search, or {@code null}.
+     * @return the list of shortest paths in the order of {@code targets}.
+     */
+    private List<List<N>> findInSnapshot(N source, 
+                                         List<N> targets,
+                                         SearchMetrics metrics) {
+        int nodeAmount = snapshot.getNodeAmount();
+        int sourceIndex = snapshot.getNodeIndex(source);
+        int[] targetIndices = new int[targets.size()];
+        boolean[] isTarget = new boolean[nodeAmount];
+        int remaining = 0;
+        
+        if (sourceIndex == -1) {
+            throw new IllegalStateException(
+                    "The source node is not in the graph snapshot.");
+        }
+        
+        for (int i = 0; i < targetIndices.length; ++i) {
+            targetIndices[i] = snapshot.getNodeIndex(targets.get(i));
+            
+            if (targetIndices[i] == -1) {
+                throw new IllegalStateException(
+                        "The target node is not in the graph snapshot.");
+            }
+            
+            if (!isTarget[targetIndices[i]]) {
+                isTarget[targetIndices[i]] = true;
+                ++remaining;
+            }
+        }
+        
+        IndexedDaryHeap open = new IndexedDaryHeap(nodeAmount);
+        boolean[] closed = new boolean[nodeAmount];
+        int[] parents = new int[nodeAmount];
+        double[] distances = new double[nodeAmount];
+        
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        
+        open.insert(sourceIndex, 0.0);
+        parents[sourceIndex] = -1;
+        distances[sourceIndex] = 0.0;
+        
+        long scanned = 0L;
+        long relaxed = 0L;
+        long pushes = 1L;
+        long pops = 0L;
+        
+        while (!open.isEmpty()) {
+            int current = open.extractMinimum();
+            closed[current] = true;
+            ++pops;
+            
+            if (isTarget[current] && --remaining == 0) {
+                break;
+            }
+            
+            ++scanned;
+            
+            for (int arc = snapshot.getArcBeginIndex(current),
+                     end = snapshot.getArcEndIndex(current);
+                     arc < end; 
+                     ++arc) {
+                int child = snapshot.getArcHead(arc);
+                
+                if (!closed[child]) {
+                    double w = distances[current] + snapshot.getArcWeight(arc);
+                    ++relaxed;
+                    
+                    if (distances[child] > w) {
+                        if (open.contains(child)) {
+                            open.decreaseKey(child, w);
+                        } else {
+                            open.insert(child, w);
+                            ++pushes;
+                        }
+                        
+                        distances[child] = w;
+                        parents[child] = current;
+                    }
+                }
+            }
+        }
+        
+        if (metrics != null) {
+            recordSearch(metrics, scanned, relaxed, pushes, pops);
+            metrics.beginPhase(SearchMetrics.Phase.TRACEBACK);
+        }
+        
+        List<List<N>> ret = new ArrayList<>(targetIndices.length);
+        
+        for (int targetIndex : targetIndices) {
+            ret.add(closed[targetIndex] ? 
+                    tracebackPath(targetIndex, parents, snapshot::getNode) :
+                    Collections.<N>emptyList());
+        }
+        
+        reportSearchMetrics(metrics);
+        return ret;
+    }
+    
+    /**
+     * Adds the counts of a search to its metrics.
+     * 
+     * @param metrics the metrics of the search.
+     * @param scanned the amount of nodes scanned.
+     * @param relaxed the amount of arcs relaxed.
+     * @param pushes  the amount of heap insertions.
+     * @param pops    the amount of heap extractions.
+     */
+    private static void recordSearch(SearchMetrics metrics,
+                                     long scanned,
+                                     long relaxed,
+                                     long pushes,
+                                     long pops) {
+        metrics.add(SearchMetrics.Counter.NODES_SCANNED, scanned);
+        metrics.add(SearchMetrics.Counter.ARCS_RELAXED, relaxed);
+        metrics.add(SearchMetrics.Counter.HEAP_PUSHES, pushes);
+        metrics.add(SearchMetrics.Counter.HEAP_POPS, pops);
     }
     
     // An ad hoc structure for describing nodes and costs.
@@ -101,27 +301,4 @@ extends AbstractWeightedPathFinder<N> {
             return Double.compare(g, o.g);
         }
     }
-    
-    /**
-     * Checks the source and target nodes are in order.
-     * 
-     * @param <N> the actual graph node implementation type.
-     * @param source the source node.
-     * @param target the target node.
-     */
-    private static <N extends AbstractGraphNode<N>> 
-        void checkNodes(N source, N target) {
-        Objects.requireNonNull(source, "The source node is null.");
-        Objects.requireNonNull(target, "The target node is null.");
-        Objects.requireNonNull(source.getOwnerGraph(), 
-                               "The source node does not belong to any graph.");
-        Objects.requireNonNull(target.getOwnerGraph(),
-                               "The target node does not belong to any graph.");
-        
-        if (source.getOwnerGraph() != target.getOwnerGraph()) {
-            throw new IllegalStateException(
-                    "The source and the target node do not belong to the " +
-                    "same graph");
-        }
-    }
 }
@@ -0,0 +1,37 @@
+package net.coderodde.graph.pathfinding.support;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This event is emitted when {@link DagShortestPathFinder} brings its search
+ * structures up to date with a changed graph.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@Name("net.coderodde.graph.GraphPreprocessing")
+@Label("Graph Preprocessing")
+@Description("Rebuilds the search structures of a dag shortest path finder.")
+final class GraphPreprocessingEvent extends AbstractGraphEvent {
+    
+    /**
+     * The complete rebuild starting from the topological order.
+     */
+    static final String TOPOLOGICAL_ORDER = "TOPOLOGICAL_ORDER";
+    
+    /**
+     * The rebuild of the compressed snapshot only.
+     */
+    static final String SNAPSHOT = "SNAPSHOT";
+    
+    /**
+     * The rebuild of the reachability index only.
+     */
+    static final String REACHABILITY_INDEX = "REACHABILITY_INDEX";
+    
+    @Label("Stage")
+    @Description("The structure rebuilt along with the ones depending on it.")
+    String stage;
+}
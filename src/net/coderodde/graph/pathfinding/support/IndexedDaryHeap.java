@@ -0,0 +1,227 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements an indexed 4-ary minimum heap over the integer keys 
+ * {@code 0, 1, ..., capacity - 1} with {@code double} priorities. Each key may 
+ * appear in the heap at most once, and its priority may be decreased in place,
+ * so a search using this heap never holds stale entries.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class IndexedDaryHeap {
+    
+    /**
+     * The degree of the heap.
+     */
+    private static final int DEGREE = 4;
+    
+    /**
+     * The keys in heap order.
+     */
+    private final int[] keys;
+    
+    /**
+     * The priorities in heap order, parallel to {@code keys}.
+     */
+    private final double[] priorities;
+    
+    /**
+     * Maps each key to its position in the heap, or -1 if the key is not in
+     * the heap.
+     */
+    private final int[] positions;
+    
+    /**
+     * The amount of keys in the heap.
+     */
+    private int size;
+    
+    /**
+     * Constructs an empty heap for the keys {@code 0, ..., capacity - 1}.
+     * 
+     * @param capacity the amount of distinct keys.
+     */
+    IndexedDaryHeap(int capacity) {
+        this.keys = new int[capacity];
+        this.priorities = new double[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+    
+    /**
+     * Returns {@code true} if this heap is empty.
+     * 
+     * @return {@code true} if this heap is empty.
+     */
+    boolean isEmpty() {
+        return size == 0;
+    }
+    
+    /**
+     * Returns the amount of keys in this heap.
+     * 
+     * @return the size of this heap.
+     */
+    int size() {
+        return size;
+    }
+    
+    /**
+     * Returns {@code true} if {@code key} is in this heap.
+     * 
+     * @param key the key to check.
+     * @return {@code true} if {@code key} is in this heap.
+     */
+    boolean contains(int key) {
+        return positions[key] != -1;
+    }
+    
+    /**
+     * Inserts a key that is not yet in this heap.
+     * 
+     * @param key      the key to insert.
+     * @param priority the priority of the key.
+     */
+    void insert(int key, double priority) {
+        if (positions[key] != -1) {
+            throw new IllegalStateException(
+                    "The key " + key + " is already in the heap.");
+        }
+        
+        siftUp(size++, key, priority);
+    }
+    
+    /**
+     * Decreases the priority of a key in this heap.
+     * 
+     * @param key      the key whose priority to decrease.
+     * @param priority the new priority, no larger than the current one.
+     */
+    void decreaseKey(int key, double priority) {
+        siftUp(positions[key], key, priority);
+    }
+    
+    /**
+     * Returns the smallest priority in this heap.
+     * 
+     * @return the smallest priority.
+     * @throws NoSuchElementException if this heap is empty.
+     */
+    double getMinimumPriority() {
+        checkNotEmpty();
+        return priorities[0];
+    }
+    
+    /**
+     * Removes and returns the key with the smallest priority.
+     * 
+     * @return the key with the smallest priority.
+     * @throws NoSuchElementException if this heap is empty.
+     */
+    int extractMinimum() {
+        checkNotEmpty();
+        int ret = keys[0];
+        positions[ret] = -1;
+        
+        if (--size > 0) {
+            siftDown(keys[size], priorities[size]);
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Removes all the keys from this heap.
+     */
+    void clear() {
+        for (int i = 0; i < size; ++i) {
+            positions[keys[i]] = -1;
+        }
+        
+        size = 0;
+    }
+    
+    /**
+     * Moves a key towards the root starting from {@code index}.
+     * 
+     * @param index    the heap position to start from.
+     * @param key      the key to place.
+     * @param priority the priority of the key.
+     */
+    private void siftUp(int index, int key, double priority) {
+        while (index > 0) {
+            int parentIndex = (index - 1) / DEGREE;
+            
+            if (priorities[parentIndex] <= priority) {
+                break;
+            }
+            
+            place(index, keys[parentIndex], priorities[parentIndex]);
+            index = parentIndex;
+        }
+        
+        place(index, key, priority);
+    }
+    
+    /**
+     * Places a key to the root and moves it towards the leaves.
+     * 
+     * @param key      the key to place.
+     * @param priority the priority of the key.
+     */
+    private void siftDown(int key, double priority) {
+        int index = 0;
+        
+        while (true) {
+            int firstChildIndex = DEGREE * index + 1;
+            
+            if (firstChildIndex >= size) {
+                break;
+            }
+            
+            int lastChildIndex = Math.min(firstChildIndex + DEGREE, size);
+            int minimumIndex = firstChildIndex;
+            
+            for (int i = firstChildIndex + 1; i < lastChildIndex; ++i) {
+                if (priorities[i] < priorities[minimumIndex]) {
+                    minimumIndex = i;
+                }
+            }
+            
+            if (priorities[minimumIndex] >= priority) {
+                break;
+            }
+            
+            place(index, keys[minimumIndex], priorities[minimumIndex]);
+            index = minimumIndex;
+        }
+        
+        place(index, key, priority);
+    }
+    
+    /**
+     * Stores a key to the given heap position.
+     * 
+     * @param index    the heap position.
+     * @param key      the key.
+     * @param priority the priority of the key.
+     */
+    private void place(int index, int key, double priority) {
+        keys[index] = key;
+        priorities[index] = priority;
+        positions[key] = index;
+    }
+    
+    /**
+     * Checks that this heap is not empty.
+     */
+    private void checkNotEmpty() {
+        if (size == 0) {
+            throw new NoSuchElementException("The heap is empty.");
+        }
+    }
+}
@@ -0,0 +1,243 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.Objects;
+import net.coderodde.graph.AbstractIndexedGraph;
+
+/**
+ * This class implements shortest path searches that work on the node indices
+ * of an {@link AbstractIndexedGraph} alone, and so never materialize node
+ * objects. The paths are returned as arrays of node indices, and an empty
+ * array means that the target is not reachable from the source.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class IndexedGraphSearch {
+    
+    /**
+     * The empty path denoting an unreachable target.
+     */
+    private static final int[] NO_PATH = new int[0];
+    
+    /**
+     * Finds a shortest path with Dijkstra's algorithm.
+     * 
+     * @param graph       the graph to search.
+     * @param sourceIndex the index of the source node.
+     * @param targetIndex the index of the target node.
+     * @return the node indices of a shortest path.
+     * @throws IllegalArgumentException if either of the indices is out of
+     *                                  range.
+     */
+    public static int[] findShortestPath(AbstractIndexedGraph graph,
+                                         int sourceIndex,
+                                         int targetIndex) {
+        checkIndices(graph, sourceIndex, targetIndex);
+        
+        int nodeAmount = graph.getNodeAmount();
+        IndexedDaryHeap open = new IndexedDaryHeap(nodeAmount);
+        boolean[] closed = new boolean[nodeAmount];
+        int[] parents = new int[nodeAmount];
+        double[] distances = new double[nodeAmount];
+        
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        
+        open.insert(sourceIndex, 0.0);
+        parents[sourceIndex] = -1;
+        distances[sourceIndex] = 0.0;
+        
+        while (!open.isEmpty()) {
+            int current = open.extractMinimum();
+            closed[current] = true;
+            
+            if (current == targetIndex) {
+                return tracebackPath(targetIndex, parents, 0);
+            }
+            
+            for (int arc = graph.getArcBeginIndex(current),
+                     end = graph.getArcEndIndex(current);
+                     arc < end;
+                     ++arc) {
+                int child = graph.getArcHead(arc);
+                
+                if (!closed[child]) {
+                    double w = distances[current] + graph.getArcWeight(arc);
+                    
+                    if (distances[child] > w) {
+                        if (open.contains(child)) {
+                            open.decreaseKey(child, w);
+                        } else {
+                            open.insert(child, w);
+                        }
+                        
+                        distances[child] = w;
+                        parents[child] = current;
+                    }
+                }
+            }
+        }
+        
+        return NO_PATH;
+    }
+    
+    /**
+     * Finds a shortest path in a graph whose node indices are in topological
+     * order, that is, each arc leads from a smaller index to a larger one.
+     * Only the nodes with indices between {@code sourceIndex} and
+     * {@code targetIndex} are swept, each exactly once.
+     * 
+     * @param graph       the graph to search.
+     * @param sourceIndex the index of the source node.
+     * @param targetIndex the index of the target node.
+     * @return the node indices of a shortest path.
+     * @throws IllegalArgumentException if either of the indices is out of
+     *                                  range.
+     * @throws IllegalStateException    if the swept range contains an arc
+     *                                  leading backwards.
+     */
+    public static int[] findShortestPathInDag(AbstractIndexedGraph graph,
+                                              int sourceIndex,
+                                              int targetIndex) {
+        checkIndices(graph, sourceIndex, targetIndex);
+        
+        if (sourceIndex > targetIndex) {
+            return NO_PATH;
+        }
+        
+        int span = targetIndex - sourceIndex + 1;
+        double[] distances = new double[span];
+        int[] parents = new int[span];
+        
+        Arrays.fill(parents, DagShortestPathFinder.UNREACHED);
+        distances[0] = 0.0;
+        parents[0] = -1;
+        
+        for (int current = 0; current < span; ++current) {
+            if (parents[current] == DagShortestPathFinder.UNREACHED) {
+                continue;
+            }
+            
+            int index = sourceIndex + current;
+            
+            for (int arc = graph.getArcBeginIndex(index),
+                     end = graph.getArcEndIndex(index);
+                     arc < end;
+                     ++arc) {
+                int child = graph.getArcHead(arc) - sourceIndex;
+                
+                if (child <= current) {
+                    throw new IllegalStateException(
+                            "The arc (" + index + ", " +
+                            (child + sourceIndex) + ") does not follow " +
+                            "the topological order.");
+                }
+                
+                if (child >= span) {
+                    continue;
+                }
+                
+                double distance = distances[current] + graph.getArcWeight(arc);
+                
+                if (parents[child] == DagShortestPathFinder.UNREACHED
+                        || distances[child] > distance) {
+                    parents[child] = current;
+                    distances[child] = distance;
+                }
+            }
+        }
+        
+        if (parents[span - 1] == DagShortestPathFinder.UNREACHED) {
+            return NO_PATH;
+        }
+        
+        return tracebackPath(span - 1, parents, sourceIndex);
+    }
+    
+    /**
+     * Returns the cost of the input path.
+     * 
+     * @param graph the graph of the path.
+     * @param path  the node indices of the path.
+     * @return the sum of the weights of the path arcs.
+     * @throws IllegalArgumentException if two consecutive path nodes are not
+     *                                  connected by an arc.
+     */
+    public static double getPathCost(AbstractIndexedGraph graph, int[] path) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        Objects.requireNonNull(path, "The input path is null.");
+        
+        double cost = 0.0;
+        
+        for (int i = 1; i < path.length; ++i) {
+            double weight = Double.POSITIVE_INFINITY;
+            
+            // Take the lightest of parallel arcs.
+            for (int arc = graph.getArcBeginIndex(path[i - 1]),
+                     end = graph.getArcEndIndex(path[i - 1]);
+                     arc < end;
+                     ++arc) {
+                if (graph.getArcHead(arc) == path[i]) {
+                    weight = Math.min(weight, graph.getArcWeight(arc));
+                }
+            }
+            
+            if (weight == Double.POSITIVE_INFINITY) {
+                throw new IllegalArgumentException(
+                        "The nodes " + path[i - 1] + " and " + path[i] +
+                        " are not connected.");
+            }
+            
+            cost += weight;
+        }
+        
+        return cost;
+    }
+    
+    /**
+     * Reconstructs a path from a parent array.
+     * 
+     * @param target  the position of the target in {@code parents}.
+     * @param parents the parent position of each node, or -1 for the source.
+     * @param offset  the node index of position 0.
+     * @return the node indices of the path.
+     */
+    private static int[] tracebackPath(int target, int[] parents, int offset) {
+        int length = 0;
+        
+        for (int current = target; current != -1; current = parents[current]) {
+            ++length;
+        }
+        
+        int[] path = new int[length];
+        
+        for (int current = target; current != -1; current = parents[current]) {
+            path[--length] = current + offset;
+        }
+        
+        return path;
+    }
+    
+    /**
+     * Checks the graph and the source and target indices.
+     * 
+     * @param graph       the graph to search.
+     * @param sourceIndex the index of the source node.
+     * @param targetIndex the index of the target node.
+     */
+    private static void checkIndices(AbstractIndexedGraph graph,
+                                     int sourceIndex,
+                                     int targetIndex) {
+        Objects.requireNonNull(graph, "The input graph is null.");
+        
+        if (sourceIndex < 0 || sourceIndex >= graph.getNodeAmount()) {
+            throw new IllegalArgumentException(
+                    "The source index " + sourceIndex + " is out of range.");
+        }
+        
+        if (targetIndex < 0 || targetIndex >= graph.getNodeAmount()) {
+            throw new IllegalArgumentException(
+                    "The target index " + targetIndex + " is out of range.");
+        }
+    }
+}
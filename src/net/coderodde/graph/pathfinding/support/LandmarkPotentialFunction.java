@@ -0,0 +1,465 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import net.coderodde.graph.AbstractGraphNode;
+import net.coderodde.graph.CompressedSparseRowGraph;
+import net.coderodde.graph.pathfinding.AbstractPotentialFunction;
+
+/**
+ * This class implements the landmark potential function of the ALT (A*, 
+ * landmarks and triangle inequality) algorithm. For each landmark {@code L} 
+ * the distances {@code d(L, v)} and {@code d(v, L)} are precomputed for all 
+ * nodes {@code v}, after which the triangle inequality gives the lower bounds 
+ * {@code d(v, t) >= d(L, t) - d(L, v)} and {@code d(v, t) >= d(v, L) - d(t, L)}.
+ * The estimate is the largest of these bounds over all landmarks.
+ * <p>
+ * The distance tables are indexed by the node indices of the graph snapshot
+ * they were computed for. They are not updated if the graph changes, in which 
+ * case the estimates may stop being lower bounds; compute new tables whenever
+ * the snapshot is rebuilt.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ * @param <N> the actual graph node implementation type.
+ */
+public class LandmarkPotentialFunction<N extends AbstractGraphNode<N>> 
+extends AbstractPotentialFunction<N> {
+    
+    /**
+     * The magic number opening the persisted landmark tables.
+     */
+    private static final int MAGIC = 0x414c5431;
+    
+    /**
+     * The graph snapshot the tables were computed for.
+     */
+    private final CompressedSparseRowGraph<N> snapshot;
+    
+    /**
+     * The node indices of the landmarks.
+     */
+    private final int[] landmarks;
+    
+    /**
+     * {@code forwardDistances[l][v]} is the distance from landmark {@code l} to
+     * node {@code v}.
+     */
+    private final double[][] forwardDistances;
+    
+    /**
+     * {@code backwardDistances[l][v]} is the distance from node {@code v} to 
+     * landmark {@code l}.
+     */
+    private final double[][] backwardDistances;
+    
+    /**
+     * Computes the landmark tables for given landmarks in the common fork/join
+     * pool.
+     * 
+     * @param snapshot  the graph snapshot.
+     * @param landmarks the landmark nodes.
+     */
+    public LandmarkPotentialFunction(CompressedSparseRowGraph<N> snapshot,
+                                     List<N> landmarks) {
+        this(snapshot, landmarks, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * Computes the landmark tables for given landmarks. The two searches of 
+     * each landmark are run in parallel in {@code pool}.
+     * 
+     * @param snapshot  the graph snapshot.
+     * @param landmarks the landmark nodes.
+     * @param pool      the pool to run the searches in.
+     */
+    public LandmarkPotentialFunction(CompressedSparseRowGraph<N> snapshot,
+                                     List<N> landmarks,
+                                     ForkJoinPool pool) {
+        this.snapshot = Objects.requireNonNull(snapshot,
+                                               "The graph snapshot is null.");
+        Objects.requireNonNull(landmarks, "The landmark list is null.");
+        Objects.requireNonNull(pool, "The fork/join pool is null.");
+        
+        this.landmarks = new int[landmarks.size()];
+        
+        for (int i = 0; i < this.landmarks.length; ++i) {
+            this.landmarks[i] = snapshot.getNodeIndex(landmarks.get(i));
+            
+            if (this.landmarks[i] == -1) {
+                throw new IllegalStateException(
+                        "The landmark " + landmarks.get(i) + " is not in " +
+                        "the graph snapshot.");
+            }
+        }
+        
+        int landmarkAmount = this.landmarks.length;
+        this.forwardDistances = new double[landmarkAmount][];
+        this.backwardDistances = new double[landmarkAmount][];
+        
+        pool.submit(() -> IntStream.range(0, 2 * landmarkAmount)
+                                   .parallel()
+                                   .forEach(this::computeTable)).join();
+    }
+    
+    /**
+     * Constructs this potential function from persisted tables.
+     * 
+     * @param snapshot          the graph snapshot.
+     * @param landmarks         the node indices of the landmarks.
+     * @param forwardDistances  the distances from the landmarks.
+     * @param backwardDistances the distances to the landmarks.
+     */
+    private LandmarkPotentialFunction(CompressedSparseRowGraph<N> snapshot,
+                                      int[] landmarks,
+                                      double[][] forwardDistances,
+                                      double[][] backwardDistances) {
+        this.snapshot = snapshot;
+        this.landmarks = landmarks;
+        this.forwardDistances = forwardDistances;
+        this.backwardDistances = backwardDistances;
+    }
+    
+    /**
+     * Selects {@code landmarkAmount} landmarks that lie far apart from each 
+     * other. The first landmark is the node farthest from a random node, and 
+     * each following landmark is the node farthest from the landmarks selected
+     * so far. The distances are counted in arcs, ignoring their directions, so
+     * that the selection costs a breadth-first search per landmark.
+     * 
+     * @param <N>            the actual graph node implementation type.
+     * @param snapshot       the graph snapshot.
+     * @param landmarkAmount the amount of landmarks to select.
+     * @param random         the random number generator.
+     * @return the list of landmarks.
+     */
+    public static <N extends AbstractGraphNode<N>> List<N> 
+        selectLandmarks(CompressedSparseRowGraph<N> snapshot,
+                        int landmarkAmount,
+                        Random random) {
+        Objects.requireNonNull(snapshot, "The graph snapshot is null.");
+        Objects.requireNonNull(random, "The random number generator is null.");
+        
+        int nodeAmount = snapshot.getNodeAmount();
+        landmarkAmount = Math.min(landmarkAmount, nodeAmount);
+        
+        if (landmarkAmount <= 0) {
+            return Collections.<N>emptyList();
+        }
+        
+        int[] hops = new int[nodeAmount];
+        int[] minimumHops = new int[nodeAmount];
+        int[] queue = new int[nodeAmount];
+        boolean[] isLandmark = new boolean[nodeAmount];
+        List<N> ret = new ArrayList<>(landmarkAmount);
+        
+        countHops(snapshot, random.nextInt(nodeAmount), hops, queue);
+        System.arraycopy(hops, 0, minimumHops, 0, nodeAmount);
+        
+        for (int i = 0; i < landmarkAmount; ++i) {
+            int farthest = -1;
+            
+            for (int v = 0; v < nodeAmount; ++v) {
+                if (!isLandmark[v] 
+                        && (farthest == -1 
+                            || minimumHops[v] > minimumHops[farthest])) {
+                    farthest = v;
+                }
+            }
+            
+            isLandmark[farthest] = true;
+            ret.add(snapshot.getNode(farthest));
+            
+            if (i == 0) {
+                // Forget the random start node.
+                Arrays.fill(minimumHops, Integer.MAX_VALUE);
+            }
+            
+            countHops(snapshot, farthest, hops, queue);
+            
+            for (int v = 0; v < nodeAmount; ++v) {
+                minimumHops[v] = Math.min(minimumHops[v], hops[v]);
+            }
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Returns the landmark nodes.
+     * 
+     * @return the list of landmarks.
+     */
+    public List<N> getLandmarks() {
+        List<N> ret = new ArrayList<>(landmarks.length);
+        
+        for (int landmark : landmarks) {
+            ret.add(snapshot.getNode(landmark));
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Returns the graph snapshot the tables were computed for.
+     * 
+     * @return the graph snapshot.
+     */
+    public CompressedSparseRowGraph<N> getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double estimate(N node, N target) {
+        int nodeIndex = snapshot.getNodeIndex(node);
+        int targetIndex = snapshot.getNodeIndex(target);
+        
+        if (nodeIndex == -1 || targetIndex == -1) {
+            return 0.0;
+        }
+        
+        return estimate(nodeIndex, targetIndex);
+    }
+    
+    /**
+     * Returns a lower bound on the distance between two nodes of the 
+     * snapshot.
+     * 
+     * @param nodeIndex   the index of the node to estimate from.
+     * @param targetIndex the index of the target node.
+     * @return a lower bound on the distance, or 
+     *         {@link Double#POSITIVE_INFINITY} if the target is not reachable.
+     */
+    public double estimate(int nodeIndex, int targetIndex) {
+        double ret = 0.0;
+        
+        for (int l = 0; l < landmarks.length; ++l) {
+            double[] forward = forwardDistances[l];
+            double[] backward = backwardDistances[l];
+            
+            // If the landmark reaches the node but not the target, or the 
+            // target reaches the landmark but the node does not, the target
+            // is not reachable from the node.
+            if (forward[nodeIndex] != Double.POSITIVE_INFINITY) {
+                ret = Math.max(ret, forward[targetIndex] - forward[nodeIndex]);
+            }
+            
+            if (backward[targetIndex] != Double.POSITIVE_INFINITY) {
+                ret = Math.max(ret, 
+                               backward[nodeIndex] - backward[targetIndex]);
+            }
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Writes the landmark tables to {@code out}.
+     * 
+     * @param out the output to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    public void writeTo(DataOutput out) throws IOException {
+        int nodeAmount = snapshot.getNodeAmount();
+        
+        out.writeInt(MAGIC);
+        out.writeInt(nodeAmount);
+        out.writeInt(snapshot.getArcAmount());
+        out.writeInt(landmarks.length);
+        
+        for (int l = 0; l < landmarks.length; ++l) {
+            out.writeInt(landmarks[l]);
+            
+            for (int v = 0; v < nodeAmount; ++v) {
+                out.writeDouble(forwardDistances[l][v]);
+            }
+            
+            for (int v = 0; v < nodeAmount; ++v) {
+                out.writeDouble(backwardDistances[l][v]);
+            }
+        }
+    }
+    
+    /**
+     * Reads the landmark tables written by {@link #writeTo(DataOutput)}. The 
+     * snapshot must have the same node indices as the one the tables were 
+     * computed for.
+     * 
+     * @param <N>      the actual graph node implementation type.
+     * @param in       the input to read from.
+     * @param snapshot the graph snapshot.
+     * @return the potential function.
+     * @throws IOException if an I/O error occurs, or the tables do not match
+     *                     the snapshot.
+     */
+    public static <N extends AbstractGraphNode<N>> LandmarkPotentialFunction<N>
+        readFrom(DataInput in, CompressedSparseRowGraph<N> snapshot) 
+                throws IOException {
+        Objects.requireNonNull(in, "The input is null.");
+        Objects.requireNonNull(snapshot, "The graph snapshot is null.");
+        
+        if (in.readInt() != MAGIC) {
+            throw new IOException("The input does not hold landmark tables.");
+        }
+        
+        int nodeAmount = in.readInt();
+        int arcAmount = in.readInt();
+        
+        if (nodeAmount != snapshot.getNodeAmount() 
+                || arcAmount != snapshot.getArcAmount()) {
+            throw new IOException(
+                    "The landmark tables do not match the graph snapshot.");
+        }
+        
+        int landmarkAmount = in.readInt();
+        int[] landmarks = new int[landmarkAmount];
+        double[][] forwardDistances = new double[landmarkAmount][nodeAmount];
+        double[][] backwardDistances = new double[landmarkAmount][nodeAmount];
+        
+        for (int l = 0; l < landmarkAmount; ++l) {
+            landmarks[l] = in.readInt();
+            
+            if (landmarks[l] < 0 || landmarks[l] >= nodeAmount) {
+                throw new IOException("Invalid landmark index: " + 
+                                      landmarks[l] + ".");
+            }
+            
+            for (int v = 0; v < nodeAmount; ++v) {
+                forwardDistances[l][v] = in.readDouble();
+            }
+            
+            for (int v = 0; v < nodeAmount; ++v) {
+                backwardDistances[l][v] = in.readDouble();
+            }
+        }
+        
+        return new LandmarkPotentialFunction<>(snapshot, 
+                                               landmarks,
+                                               forwardDistances,
+                                               backwardDistances);
+    }
+    
+    /**
+     * Computes a single distance table. The even tables hold the distances 
+     * from the landmarks, and the odd ones the distances to them.
+     * 
+     * @param table the index of the table.
+     */
+    private void computeTable(int table) {
+        int landmark = landmarks[table / 2];
+        
+        if (table % 2 == 0) {
+            forwardDistances[table / 2] = computeDistances(landmark, true);
+        } else {
+            backwardDistances[table / 2] = computeDistances(landmark, false);
+        }
+    }
+    
+    /**
+     * Runs Dijkstra's algorithm from {@code source} over the out-going or, if 
+     * {@code forward} is {@code false}, the incoming arcs of the snapshot.
+     * 
+     * @param source  the index of the source node.
+     * @param forward whether to follow the arcs forward.
+     * @return the distance of each node.
+     */
+    private double[] computeDistances(int source, boolean forward) {
+        int nodeAmount = snapshot.getNodeAmount();
+        double[] distances = new double[nodeAmount];
+        IndexedDaryHeap open = new IndexedDaryHeap(nodeAmount);
+        
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[source] = 0.0;
+        open.insert(source, 0.0);
+        
+        while (!open.isEmpty()) {
+            int current = open.extractMinimum();
+            int begin = forward ? snapshot.getArcBeginIndex(current) :
+                                  snapshot.getInArcBeginIndex(current);
+            int end = forward ? snapshot.getArcEndIndex(current) :
+                                snapshot.getInArcEndIndex(current);
+            
+            for (int arc = begin; arc < end; ++arc) {
+                int next = forward ? snapshot.getArcHead(arc) :
+                                     snapshot.getInArcTail(arc);
+                double w = distances[current] + 
+                           (forward ? snapshot.getArcWeight(arc) :
+                                      snapshot.getInArcWeight(arc));
+                
+                if (distances[next] > w) {
+                    if (open.contains(next)) {
+                        open.decreaseKey(next, w);
+                    } else {
+                        open.insert(next, w);
+                    }
+                    
+                    distances[next] = w;
+                }
+            }
+        }
+        
+        return distances;
+    }
+    
+    /**
+     * Counts the amount of arcs from {@code source} to each node, ignoring the
+     * arc directions. The nodes in other components get 
+     * {@link Integer#MAX_VALUE}.
+     * 
+     * @param snapshot the graph snapshot.
+     * @param source   the index of the source node.
+     * @param hops     the array to fill with the hop counts.
+     * @param queue    the array to use as the breadth-first search queue.
+     */
+    private static void countHops(CompressedSparseRowGraph<?> snapshot,
+                                  int source,
+                                  int[] hops,
+                                  int[] queue) {
+        int head = 0;
+        int tail = 0;
+        
+        Arrays.fill(hops, Integer.MAX_VALUE);
+        hops[source] = 0;
+        queue[tail++] = source;
+        
+        while (head < tail) {
+            int current = queue[head++];
+            
+            for (int arc = snapshot.getArcBeginIndex(current), 
+                     end = snapshot.getArcEndIndex(current); 
+                     arc < end;
+                     ++arc) {
+                int next = snapshot.getArcHead(arc);
+                
+                if (hops[next] == Integer.MAX_VALUE) {
+                    hops[next] = hops[current] + 1;
+                    queue[tail++] = next;
+                }
+            }
+            
+            for (int arc = snapshot.getInArcBeginIndex(current),
+                     end = snapshot.getInArcEndIndex(current);
+                     arc < end;
+                     ++arc) {
+                int next = snapshot.getInArcTail(arc);
+                
+                if (hops[next] == Integer.MAX_VALUE) {
+                    hops[next] = hops[current] + 1;
+                    queue[tail++] = next;
+                }
+            }
+        }
+    }
+}
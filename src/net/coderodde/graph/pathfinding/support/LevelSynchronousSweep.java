@@ -0,0 +1,186 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import net.coderodde.graph.CompressedSparseRowGraph;
+import net.coderodde.graph.support.DirectedGraphNode;
+
+/**
+ * This class implements a parallel single-source shortest path sweep over a 
+ * topologically ordered graph snapshot. The nodes are grouped into levels by 
+ * the length of a longest path from a source node to them. No two nodes of the
+ * same level are connected by an arc, so once all the lower levels are done, 
+ * each node of a level may compute its distance from its parents 
+ * independently of the others.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class LevelSynchronousSweep {
+    
+    /**
+     * The minimum amount of nodes in a level worth processing in parallel.
+     */
+    private static final int PARALLELISM_THRESHOLD = 1 << 10;
+    
+    /**
+     * The topologically ordered snapshot to sweep.
+     */
+    private final CompressedSparseRowGraph<DirectedGraphNode> snapshot;
+    
+    /**
+     * The level of each node.
+     */
+    private final int[] levels;
+    
+    /**
+     * The index of the first node of each level in {@code levelNodes}. Has one
+     * extra element at the end.
+     */
+    private final int[] levelOffsets;
+    
+    /**
+     * The node indices sorted by level, and within a level, by node index.
+     */
+    private final int[] levelNodes;
+    
+    /**
+     * Computes the levels of the nodes in {@code snapshot}.
+     * 
+     * @param snapshot the topologically ordered snapshot.
+     */
+    LevelSynchronousSweep(CompressedSparseRowGraph<DirectedGraphNode> snapshot) {
+        this.snapshot = snapshot;
+        
+        int nodeAmount = snapshot.getNodeAmount();
+        int levelAmount = 0;
+        this.levels = new int[nodeAmount];
+        
+        for (int node = 0; node < nodeAmount; ++node) {
+            int level = 0;
+            
+            for (int inArc = snapshot.getInArcBeginIndex(node),
+                     end = snapshot.getInArcEndIndex(node);
+                     inArc < end;
+                     ++inArc) {
+                level = Math.max(level, 
+                                 levels[snapshot.getInArcTail(inArc)] + 1);
+            }
+            
+            levels[node] = level;
+            levelAmount = Math.max(levelAmount, level + 1);
+        }
+        
+        this.levelOffsets = new int[levelAmount + 1];
+        this.levelNodes = new int[nodeAmount];
+        
+        for (int node = 0; node < nodeAmount; ++node) {
+            ++levelOffsets[levels[node] + 1];
+        }
+        
+        for (int level = 0; level < levelAmount; ++level) {
+            levelOffsets[level + 1] += levelOffsets[level];
+        }
+        
+        int[] cursors = Arrays.copyOf(levelOffsets, levelAmount);
+        
+        for (int node = 0; node < nodeAmount; ++node) {
+            levelNodes[cursors[levels[node]]++] = node;
+        }
+    }
+    
+    /**
+     * Returns the snapshot this sweep works on.
+     * 
+     * @return the snapshot.
+     */
+    CompressedSparseRowGraph<DirectedGraphNode> getSnapshot() {
+        return snapshot;
+    }
+    
+    /**
+     * Computes the shortest paths from the node with index 
+     * {@code sourceIndex}. The arrays are filled in the same manner as by the
+     * sequential sweep of {@link DagShortestPathFinder}: they are indexed by 
+     * the node index relative to {@code sourceIndex}, {@code parents} holds 
+     * relative indices, and the unreached nodes are marked with 
+     * {@code DagShortestPathFinder.UNREACHED}.
+     * 
+     * @param sourceIndex the index of the source node.
+     * @param distances   the distance array to fill.
+     * @param parents     the parent array to fill.
+     * @param pool        the pool to run the parallel levels in.
+     */
+    void sweep(int sourceIndex, 
+               double[] distances, 
+               int[] parents, 
+               ForkJoinPool pool) {
+        Arrays.fill(parents, DagShortestPathFinder.UNREACHED);
+        distances[0] = 0.0;
+        parents[0] = -1;
+        
+        for (int level = levels[sourceIndex] + 1; 
+                 level < levelOffsets.length - 1;
+                 ++level) {
+            int begin = levelOffsets[level];
+            int end = levelOffsets[level + 1];
+            
+            if (end - begin < PARALLELISM_THRESHOLD) {
+                for (int i = begin; i < end; ++i) {
+                    relax(levelNodes[i], sourceIndex, distances, parents);
+                }
+            } else {
+                pool.submit(() -> IntStream.range(begin, end)
+                                           .parallel()
+                                           .forEach((i) -> 
+                            relax(levelNodes[i], 
+                                  sourceIndex, 
+                                  distances, 
+                                  parents))).join();
+            }
+        }
+    }
+    
+    /**
+     * Computes the distance of a node from the distances of its parents. Only
+     * this node's entries of the arrays are written.
+     * 
+     * @param node        the index of the node.
+     * @param sourceIndex the index of the source node.
+     * @param distances   the relative distance array.
+     * @param parents     the relative parent array.
+     */
+    private void relax(int node, 
+                       int sourceIndex, 
+                       double[] distances, 
+                       int[] parents) {
+        if (node <= sourceIndex) {
+            // Precedes the source in topological order.
+            return;
+        }
+        
+        int current = node - sourceIndex;
+        
+        for (int inArc = snapshot.getInArcBeginIndex(node),
+                 end = snapshot.getInArcEndIndex(node);
+                 inArc < end;
+                 ++inArc) {
+            int parent = snapshot.getInArcTail(inArc) - sourceIndex;
+            
+            if (parent < 0 
+                    || parents[parent] == DagShortestPathFinder.UNREACHED) {
+                continue;
+            }
+            
+            double distance = distances[parent] + 
+                              snapshot.getInArcWeight(inArc);
+            
+            if (parents[current] == DagShortestPathFinder.UNREACHED
+                    || distances[current] > distance) {
+                parents[current] = parent;
+                distances[current] = distance;
+            }
+        }
+    }
+}
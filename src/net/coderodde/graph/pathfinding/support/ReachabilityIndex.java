@@ -0,0 +1,272 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.Random;
+import net.coderodde.graph.CompressedSparseRowGraph;
+import net.coderodde.graph.support.DirectedGraphNode;
+
+/**
+ * This class implements a GRAIL-style reachability filter over a dag 
+ * snapshot. Each of a few randomized depth-first traversals labels every node
+ * {@code v} with the interval {@code [low(v), post(v)]}, where {@code post(v)}
+ * is the post-order rank of {@code v} and {@code low(v)} is the smallest rank
+ * among the descendants of {@code v}. If {@code u} reaches {@code v}, the 
+ * interval of {@code v} is contained in that of {@code u} in every traversal,
+ * so a single traversal violating the containment proves that no path exists.
+ * The converse does not hold: a containment in all the traversals means only
+ * that a path may exist.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class ReachabilityIndex {
+    
+    /**
+     * The largest array length the virtual machines commonly support.
+     */
+    private static final int MAXIMUM_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+    
+    /**
+     * The modification count of the graph at the time of building.
+     */
+    private final int modificationCount;
+    
+    /**
+     * The amount of traversals.
+     */
+    private final int traversalAmount;
+    
+    /**
+     * The labels of the nodes. The labels of node {@code v} in traversal 
+     * {@code t} are {@code low} at {@code 2 * (v * traversalAmount + t)} and 
+     * {@code post} right after it, so that all the labels of a node share a
+     * few cache lines.
+     */
+    private final int[] labels;
+    
+    /**
+     * Labels the nodes of {@code snapshot}.
+     * 
+     * @param snapshot        the dag snapshot.
+     * @param traversalAmount the amount of randomized traversals.
+     * @param random          the random number generator.
+     * @throws IllegalArgumentException if the labels of the snapshot do not 
+     *                                  fit an array.
+     */
+    ReachabilityIndex(CompressedSparseRowGraph<DirectedGraphNode> snapshot,
+                      int traversalAmount,
+                      Random random) {
+        if (!canIndex(snapshot.getNodeAmount(), traversalAmount)) {
+            throw new IllegalArgumentException(
+                    "The labels of " + snapshot.getNodeAmount() + " nodes " + 
+                    "in " + traversalAmount + " traversals do not fit an " +
+                    "array.");
+        }
+        
+        this.modificationCount = snapshot.getModificationCount();
+        this.traversalAmount = traversalAmount;
+        
+        int nodeAmount = snapshot.getNodeAmount();
+        int rootAmount = 0;
+        int[] roots = new int[nodeAmount];
+        
+        for (int node = 0; node < nodeAmount; ++node) {
+            if (snapshot.getInArcBeginIndex(node) == 
+                    snapshot.getInArcEndIndex(node)) {
+                roots[rootAmount++] = node;
+            }
+        }
+        
+        this.labels = new int[2 * nodeAmount * traversalAmount];
+        
+        boolean[] visited = new boolean[nodeAmount];
+        int[] nodeStack = new int[nodeAmount];
+        int[] stepStack = new int[nodeAmount];
+        int[] offsetStack = new int[nodeAmount];
+        
+        for (int t = 0; t < traversalAmount; ++t) {
+            shuffle(roots, rootAmount, random);
+            
+            if (t > 0) {
+                Arrays.fill(visited, false);
+            }
+            
+            traverse(snapshot,
+                     t, 
+                     roots, 
+                     rootAmount, 
+                     visited,
+                     nodeStack, 
+                     stepStack, 
+                     offsetStack,
+                     random);
+        }
+    }
+    
+    /**
+     * Returns {@code true} if the labels of a graph fit an array.
+     * 
+     * @param nodeAmount      the amount of nodes of the graph.
+     * @param traversalAmount the amount of randomized traversals.
+     * @return {@code true} if the graph can be indexed.
+     */
+    static boolean canIndex(int nodeAmount, int traversalAmount) {
+        return 2L * nodeAmount * traversalAmount <= MAXIMUM_ARRAY_LENGTH;
+    }
+    
+    /**
+     * Returns the modification count of the graph at the time this index was
+     * built.
+     * 
+     * @return the modification count.
+     */
+    int getModificationCount() {
+        return modificationCount;
+    }
+    
+    /**
+     * Returns {@code false} only if {@code targetIndex} is certainly not 
+     * reachable from {@code sourceIndex}.
+     * 
+     * @param sourceIndex the index of the source node.
+     * @param targetIndex the index of the target node.
+     * @return {@code false} if there is no path.
+     */
+    boolean mayReach(int sourceIndex, int targetIndex) {
+        int source = 2 * sourceIndex * traversalAmount;
+        int target = 2 * targetIndex * traversalAmount;
+        
+        for (int i = 0; i < 2 * traversalAmount; i += 2) {
+            if (labels[target + i] < labels[source + i] 
+                    || labels[target + i + 1] > labels[source + i + 1]) {
+                return false;
+            }
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Returns an upper bound on the amount of nodes reachable from a node, 
+     * including the node itself. The descendants of a node have distinct 
+     * post-order ranks within its interval, so the narrowest interval bounds 
+     * their amount.
+     * 
+     * @param nodeIndex the index of the node.
+     * @return the upper bound.
+     */
+    int estimateReach(int nodeIndex) {
+        int node = 2 * nodeIndex * traversalAmount;
+        int ret = Integer.MAX_VALUE;
+        
+        for (int i = 0; i < 2 * traversalAmount; i += 2) {
+            ret = Math.min(ret, labels[node + i + 1] - labels[node + i] + 1);
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Runs a single depth-first traversal from the roots, scanning the
+     * children of each node starting from a random one, and labels the nodes.
+     * 
+     * @param snapshot    the dag snapshot.
+     * @param traversal   the index of the traversal.
+     * @param roots       the nodes with no parents.
+     * @param rootAmount  the amount of roots.
+     * @param visited     the visited flags, all cleared.
+     * @param nodeStack   the stack of nodes being visited.
+     * @param stepStack   the amount of children scanned of each stacked node.
+     * @param offsetStack the index of the first child scanned of each stacked
+     *                    node.
+     * @param random      the random number generator.
+     */
+    private void traverse(CompressedSparseRowGraph<DirectedGraphNode> snapshot,
+                          int traversal,
+                          int[] roots,
+                          int rootAmount,
+                          boolean[] visited,
+                          int[] nodeStack,
+                          int[] stepStack,
+                          int[] offsetStack,
+                          Random random) {
+        int rank = 0;
+        
+        for (int r = 0; r < rootAmount; ++r) {
+            int stackSize = 0;
+            
+            visited[roots[r]] = true;
+            nodeStack[stackSize] = roots[r];
+            stepStack[stackSize++] = 0;
+            
+            while (stackSize > 0) {
+                int current = nodeStack[stackSize - 1];
+                int begin = snapshot.getArcBeginIndex(current);
+                int degree = snapshot.getArcEndIndex(current) - begin;
+                int step = stepStack[stackSize - 1];
+                
+                if (step < degree) {
+                    if (step == 0) {
+                        // Start the scan from a random child, so that the 
+                        // traversals differ.
+                        offsetStack[stackSize - 1] = random.nextInt(degree);
+                    }
+                    
+                    int child = snapshot.getArcHead(
+                            begin + (offsetStack[stackSize - 1] + step) % 
+                                    degree);
+                    stepStack[stackSize - 1] = step + 1;
+                    
+                    if (!visited[child]) {
+                        visited[child] = true;
+                        nodeStack[stackSize] = child;
+                        stepStack[stackSize++] = 0;
+                    }
+                    
+                    continue;
+                }
+                
+                // All the children of 'current' are labelled.
+                int post = ++rank;
+                int low = post;
+                
+                for (int arc = begin; arc < begin + degree; ++arc) {
+                    low = Math.min(low, 
+                                   labels[label(snapshot.getArcHead(arc),
+                                                traversal)]);
+                }
+                
+                labels[label(current, traversal)] = low;
+                labels[label(current, traversal) + 1] = post;
+                --stackSize;
+            }
+        }
+    }
+    
+    /**
+     * Returns the position of the {@code low} label of a node in a traversal.
+     * 
+     * @param node      the node index.
+     * @param traversal the traversal index.
+     * @return the label position.
+     */
+    private int label(int node, int traversal) {
+        return 2 * (node * traversalAmount + traversal);
+    }
+    
+    /**
+     * Shuffles the first {@code size} elements of {@code array}.
+     * 
+     * @param array  the array to shuffle.
+     * @param size   the amount of elements to shuffle.
+     * @param random the random number generator.
+     */
+    private static void shuffle(int[] array, int size, Random random) {
+        for (int i = size - 1; i > 0; --i) {
+            int j = random.nextInt(i + 1);
+            int tmp = array[i];
+            array[i] = array[j];
+            array[j] = tmp;
+        }
+    }
+}
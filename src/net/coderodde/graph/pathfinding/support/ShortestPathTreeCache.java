@@ -0,0 +1,331 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import net.coderodde.graph.pathfinding.AbstractWeightedPathFinder;
+import net.coderodde.graph.support.DirectedGraphNode;
+
+/**
+ * This class implements a path finder caching the shortest path trees 
+ * computed by a {@link DagShortestPathFinder}. The first query from a source 
+ * computes the tree rooted at it, and the following ones are answered by 
+ * tracing back the tree. The least recently used trees are evicted once their
+ * total size exceeds the given bound. Each tree remembers the modification 
+ * counts of the graph and the weight function it was computed for, so the 
+ * trees of a graph that has changed since are recomputed on their next use.
+ * A tree keeps the graph snapshot it was computed on reachable, so all the 
+ * out-of-date trees are dropped as soon as a tree of a newer snapshot is 
+ * cached.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class ShortestPathTreeCache
+extends AbstractWeightedPathFinder<DirectedGraphNode> {
+    
+    /**
+     * The finder computing the trees.
+     */
+    private final DagShortestPathFinder finder;
+    
+    /**
+     * The maximum total size of the cached trees in bytes.
+     */
+    private final long maximumBytes;
+    
+    /**
+     * Maps each source node to its tree. Iterates from the least recently 
+     * used entry.
+     */
+    private final Map<DirectedGraphNode, 
+                      DagShortestPathFinder.ShortestPathTree> treeMap =
+            new LinkedHashMap<>(16, 0.75f, true);
+    
+    /**
+     * The total size of the cached trees in bytes.
+     */
+    private long currentBytes;
+    
+    /**
+     * The amount of queries answered from a cached tree.
+     */
+    private long hitCount;
+    
+    /**
+     * The amount of queries that had to compute a tree.
+     */
+    private long missCount;
+    
+    /**
+     * The amount of trees evicted to make room for others.
+     */
+    private long evictionCount;
+    
+    /**
+     * The amount of trees dropped because the graph had changed.
+     */
+    private long invalidationCount;
+    
+    /**
+     * Constructs a cache over given finder.
+     * 
+     * @param finder       the finder computing the trees.
+     * @param maximumBytes the maximum total size of the cached trees.
+     */
+    public ShortestPathTreeCache(DagShortestPathFinder finder, 
+                                 long maximumBytes) {
+        this.finder = Objects.requireNonNull(finder, "The finder is null.");
+        
+        if (maximumBytes < 0L) {
+            throw new IllegalArgumentException(
+                    "The maximum size is negative: " + maximumBytes + ".");
+        }
+        
+        this.maximumBytes = maximumBytes;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public List<DirectedGraphNode> find(DirectedGraphNode source, 
+                                        DirectedGraphNode target) {
+        Objects.requireNonNull(target, "The target node is null.");
+        checkNode(target, "The target node does not belong to the current " +
+                          "graph.");
+        return getTree(source).pathTo(target);
+    }
+    
+    /**
+     * Answers all the queries from {@code source} with a single tree.
+     * 
+     * @param source  the source node.
+     * @param targets the target nodes.
+     * @return the list of shortest paths in the order of {@code targets}.
+     */
+    @Override
+    protected List<List<DirectedGraphNode>> 
+        findFrom(DirectedGraphNode source, List<DirectedGraphNode> targets) {
+        for (DirectedGraphNode target : targets) {
+            checkNode(target, "The target node does not belong to the " + 
+                              "current graph.");
+        }
+        
+        DagShortestPathFinder.ShortestPathTree tree = getTree(source);
+        List<List<DirectedGraphNode>> ret = new ArrayList<>(targets.size());
+        
+        for (DirectedGraphNode target : targets) {
+            ret.add(tree.pathTo(target));
+        }
+        
+        return ret;
+    }
+    
+    /**
+     * Returns the length of a shortest path from {@code source} to 
+     * {@code target}.
+     * 
+     * @param source the source node.
+     * @param target the target node.
+     * @return the shortest path length, or {@link Double#POSITIVE_INFINITY} if
+     *         {@code target} is not reachable.
+     */
+    public double distance(DirectedGraphNode source, DirectedGraphNode target) {
+        Objects.requireNonNull(target, "The target node is null.");
+        checkNode(target, "The target node does not belong to the current " +
+                          "graph.");
+        return getTree(source).distanceTo(target);
+    }
+    
+    /**
+     * Returns the shortest path tree rooted at {@code source}, computing it if
+     * it is not cached or is out of date.
+     * 
+     * @param source the source node.
+     * @return the shortest path tree.
+     * @throws IllegalStateException if {@code source} does not belong to the 
+     *                               graph of the finder.
+     */
+    public DagShortestPathFinder.ShortestPathTree 
+        getTree(DirectedGraphNode source) {
+        Objects.requireNonNull(source, "The source node is null.");
+        
+        // The nodes are equal by name, so a namesake from another graph would
+        // hit the tree of 'source'.
+        checkNode(source, "The source node does not belong to the current " + 
+                          "graph.");
+        
+        synchronized (this) {
+            DagShortestPathFinder.ShortestPathTree tree = treeMap.get(source);
+            
+            if (tree != null) {
+                if (tree.isUpToDate()) {
+                    ++hitCount;
+                    return tree;
+                }
+                
+                treeMap.remove(source);
+                currentBytes -= tree.getSizeInBytes();
+                ++invalidationCount;
+            }
+            
+            ++missCount;
+        }
+        
+        // The finder brings itself up to date, so it may not run concurrently
+        // with itself.
+        DagShortestPathFinder.ShortestPathTree tree;
+        
+        synchronized (finder) {
+            tree = finder.solveFrom(source);
+        }
+        
+        put(source, tree);
+        return tree;
+    }
+    
+    /**
+     * Removes all the cached trees. The statistics are kept.
+     */
+    public synchronized void clear() {
+        treeMap.clear();
+        currentBytes = 0L;
+    }
+    
+    /**
+     * Returns the amount of cached trees.
+     * 
+     * @return the amount of trees.
+     */
+    public synchronized int size() {
+        return treeMap.size();
+    }
+    
+    /**
+     * Returns the total size of the cached trees.
+     * 
+     * @return the size in bytes.
+     */
+    public synchronized long getCurrentBytes() {
+        return currentBytes;
+    }
+    
+    /**
+     * Returns the maximum total size of the cached trees.
+     * 
+     * @return the size in bytes.
+     */
+    public long getMaximumBytes() {
+        return maximumBytes;
+    }
+    
+    /**
+     * Returns the amount of queries answered from a cached tree.
+     * 
+     * @return the hit count.
+     */
+    public synchronized long getHitCount() {
+        return hitCount;
+    }
+    
+    /**
+     * Returns the amount of queries that had to compute a tree.
+     * 
+     * @return the miss count.
+     */
+    public synchronized long getMissCount() {
+        return missCount;
+    }
+    
+    /**
+     * Returns the amount of trees evicted to make room for others.
+     * 
+     * @return the eviction count.
+     */
+    public synchronized long getEvictionCount() {
+        return evictionCount;
+    }
+    
+    /**
+     * Returns the amount of trees dropped because the graph had changed.
+     * 
+     * @return the invalidation count.
+     */
+    public synchronized long getInvalidationCount() {
+        return invalidationCount;
+    }
+    
+    /**
+     * Returns the fraction of queries answered from a cached tree.
+     * 
+     * @return the hit rate, or 0 if there have been no queries.
+     */
+    public synchronized double getHitRate() {
+        long queryCount = hitCount + missCount;
+        return queryCount == 0L ? 0.0 : (double) hitCount / queryCount;
+    }
+    
+    /**
+     * Caches a tree, dropping the out-of-date trees and evicting the least 
+     * recently used ones until the total size fits the bound. A tree larger 
+     * than the bound is not cached.
+     * 
+     * @param source the source node.
+     * @param tree   the tree rooted at {@code source}.
+     */
+    private synchronized void put(DirectedGraphNode source,
+                                  DagShortestPathFinder.ShortestPathTree tree) {
+        Iterator<DagShortestPathFinder.ShortestPathTree> iterator = 
+                treeMap.values().iterator();
+        
+        while (iterator.hasNext()) {
+            DagShortestPathFinder.ShortestPathTree cached = iterator.next();
+            
+            if (!cached.isUpToDate()) {
+                iterator.remove();
+                currentBytes -= cached.getSizeInBytes();
+                ++invalidationCount;
+            }
+        }
+        
+        long size = tree.getSizeInBytes();
+        
+        if (size > maximumBytes) {
+            return;
+        }
+        
+        DagShortestPathFinder.ShortestPathTree old = treeMap.put(source, tree);
+        
+        if (old != null) {
+            // Another thread computed the same tree meanwhile.
+            currentBytes -= old.getSizeInBytes();
+        }
+        
+        currentBytes += size;
+        iterator = treeMap.values().iterator();
+        
+        while (currentBytes > maximumBytes) {
+            DagShortestPathFinder.ShortestPathTree eldest = iterator.next();
+            iterator.remove();
+            currentBytes -= eldest.getSizeInBytes();
+            ++evictionCount;
+        }
+    }
+    
+    /**
+     * Checks that the input node belongs to the graph of the finder.
+     * 
+     * @param node         the node to check.
+     * @param errorMessage the error message upon failure.
+     * @throws IllegalStateException if the node belongs to another graph.
+     */
+    private void checkNode(DirectedGraphNode node, String errorMessage) {
+        if (node.getOwnerGraph() != finder.getGraph()) {
+            throw new IllegalStateException(errorMessage);
+        }
+    }
+}
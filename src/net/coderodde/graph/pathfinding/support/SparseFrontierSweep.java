@@ -0,0 +1,294 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import net.coderodde.graph.CompressedSparseRowGraph;
+import net.coderodde.graph.pathfinding.SearchMetrics;
+import net.coderodde.graph.support.DirectedGraphNode;
+
+/**
+ * This class implements a shortest path sweep over a topologically ordered dag
+ * snapshot that touches only the nodes reached from the source. The reached 
+ * nodes wait in a binary minimum heap keyed by their topological index, so 
+ * that each node is expanded only after all of its reached parents, and their
+ * distances and parents are kept in an open addressing hash table. The sweep
+ * costs {@code O(R log R)}, where {@code R} is the amount of the reached 
+ * nodes, regardless of the length of the topological range.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class SparseFrontierSweep {
+    
+    /**
+     * The initial capacity of the hash table. Must be a power of two.
+     */
+    private static final int INITIAL_CAPACITY = 16;
+    
+    /**
+     * Marks the empty slots of the hash table.
+     */
+    private static final int EMPTY = -1;
+    
+    /**
+     * The topological indices of the reached nodes, or {@code EMPTY}.
+     */
+    private int[] keys;
+    
+    /**
+     * The amount of bits to shift the scrambled keys right by in order to 
+     * obtain their home slots.
+     */
+    private int shift;
+    
+    /**
+     * The distance of the node in each slot.
+     */
+    private double[] distances;
+    
+    /**
+     * The topological index of the parent of the node in each slot, or -1 for
+     * the source node.
+     */
+    private int[] parents;
+    
+    /**
+     * The amount of reached nodes.
+     */
+    private int size;
+    
+    /**
+     * The heap of reached but not yet expanded topological indices.
+     */
+    private int[] heap = new int[INITIAL_CAPACITY];
+    
+    /**
+     * The amount of indices in {@code heap}.
+     */
+    private int heapSize;
+    
+    /**
+     * The amount of indices popped from {@code heap}.
+     */
+    private long pops;
+    
+    /**
+     * The amount of expanded nodes.
+     */
+    private long scanned;
+    
+    /**
+     * The amount of arcs relaxed within the range.
+     */
+    private long relaxed;
+    
+    /**
+     * Computes the shortest paths from {@code sourceIndex} to the nodes with 
+     * topological indices at most {@code lastIndex}.
+     * 
+     * @param snapshot    the topologically ordered snapshot.
+     * @param sourceIndex the topological index of the source node.
+     * @param lastIndex   the largest topological index of interest.
+     */
+    SparseFrontierSweep(CompressedSparseRowGraph<DirectedGraphNode> snapshot,
+                        int sourceIndex,
+                        int lastIndex) {
+        allocate(INITIAL_CAPACITY);
+        put(sourceIndex, 0.0, -1);
+        push(sourceIndex);
+        
+        while (heapSize > 0) {
+            int current = pop();
+            ++pops;
+            
+            if (current == lastIndex) {
+                // The remaining nodes lie beyond the range.
+                break;
+            }
+            
+            ++scanned;
+            double distance = distances[find(current)];
+            
+            for (int arc = snapshot.getArcBeginIndex(current),
+                     end = snapshot.getArcEndIndex(current);
+                     arc < end;
+                     ++arc) {
+                int child = snapshot.getArcHead(arc);
+                
+                if (child > lastIndex) {
+                    continue;
+                }
+                
+                double childDistance = distance + snapshot.getArcWeight(arc);
+                int slot = find(child);
+                ++relaxed;
+                
+                if (keys[slot] == EMPTY) {
+                    put(child, childDistance, current);
+                    push(child);
+                } else if (distances[slot] > childDistance) {
+                    distances[slot] = childDistance;
+                    parents[slot] = current;
+                }
+            }
+        }
+    }
+    
+    /**
+     * Adds the work done by this sweep to the input metrics. Each reached node
+     * was pushed to the heap exactly once.
+     * 
+     * @param metrics the metrics to add to, or {@code null}.
+     */
+    void recordMetrics(SearchMetrics metrics) {
+        if (metrics != null) {
+            metrics.add(SearchMetrics.Counter.NODES_SCANNED, scanned);
+            metrics.add(SearchMetrics.Counter.ARCS_RELAXED, relaxed);
+            metrics.add(SearchMetrics.Counter.HEAP_PUSHES, size);
+            metrics.add(SearchMetrics.Counter.HEAP_POPS, pops);
+        }
+    }
+    
+    /**
+     * Returns {@code true} if the node with given topological index was 
+     * reached.
+     * 
+     * @param nodeIndex the topological index.
+     * @return {@code true} if the node was reached.
+     */
+    boolean isReached(int nodeIndex) {
+        return keys[find(nodeIndex)] != EMPTY;
+    }
+    
+    /**
+     * Returns the topological index of the parent of a reached node, or -1 for
+     * the source node.
+     * 
+     * @param nodeIndex the topological index of a reached node.
+     * @return the topological index of the parent.
+     */
+    int getParent(int nodeIndex) {
+        return parents[find(nodeIndex)];
+    }
+    
+    /**
+     * Returns the slot of {@code key} in the hash table, or the empty slot 
+     * where it would go.
+     * 
+     * @param key the key to look up.
+     * @return the slot index.
+     */
+    private int find(int key) {
+        int mask = keys.length - 1;
+        int slot = (key * 0x9e3779b9) >>> shift;
+        
+        while (keys[slot] != EMPTY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        
+        return slot;
+    }
+    
+    /**
+     * Inserts a new node to the hash table.
+     * 
+     * @param key      the topological index of the node.
+     * @param distance the distance of the node.
+     * @param parent   the topological index of the parent of the node.
+     */
+    private void put(int key, double distance, int parent) {
+        if (2 * (size + 1) > keys.length) {
+            int[] oldKeys = keys;
+            double[] oldDistances = distances;
+            int[] oldParents = parents;
+            
+            allocate(2 * keys.length);
+            
+            for (int i = 0; i < oldKeys.length; ++i) {
+                if (oldKeys[i] != EMPTY) {
+                    int slot = find(oldKeys[i]);
+                    keys[slot] = oldKeys[i];
+                    distances[slot] = oldDistances[i];
+                    parents[slot] = oldParents[i];
+                }
+            }
+        }
+        
+        int slot = find(key);
+        keys[slot] = key;
+        distances[slot] = distance;
+        parents[slot] = parent;
+        ++size;
+    }
+    
+    /**
+     * Allocates an empty hash table.
+     * 
+     * @param capacity the capacity of the table.
+     */
+    private void allocate(int capacity) {
+        shift = 32 - Integer.numberOfTrailingZeros(capacity);
+        keys = new int[capacity];
+        distances = new double[capacity];
+        parents = new int[capacity];
+        Arrays.fill(keys, EMPTY);
+    }
+    
+    /**
+     * Pushes a topological index to the heap.
+     * 
+     * @param nodeIndex the index to push.
+     */
+    private void push(int nodeIndex) {
+        if (heapSize == heap.length) {
+            heap = Arrays.copyOf(heap, 2 * heapSize);
+        }
+        
+        int index = heapSize++;
+        
+        while (index > 0) {
+            int parentIndex = (index - 1) >>> 1;
+            
+            if (heap[parentIndex] <= nodeIndex) {
+                break;
+            }
+            
+            heap[index] = heap[parentIndex];
+            index = parentIndex;
+        }
+        
+        heap[index] = nodeIndex;
+    }
+    
+    /**
+     * Removes and returns the smallest topological index in the heap.
+     * 
+     * @return the smallest index.
+     */
+    private int pop() {
+        int ret = heap[0];
+        int last = heap[--heapSize];
+        int index = 0;
+        
+        while (true) {
+            int child = 2 * index + 1;
+            
+            if (child >= heapSize) {
+                break;
+            }
+            
+            if (child + 1 < heapSize && heap[child + 1] < heap[child]) {
+                ++child;
+            }
+            
+            if (last <= heap[child]) {
+                break;
+            }
+            
+            heap[index] = heap[child];
+            index = child;
+        }
+        
+        heap[index] = last;
+        return ret;
+    }
+}
@@ -0,0 +1,192 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import net.coderodde.graph.CompressedSparseRowGraph;
+import net.coderodde.graph.support.DirectedGraphNode;
+
+/**
+ * This class holds the ancestor cone of a target node in a topologically 
+ * ordered dag snapshot: the nodes from which the target is reachable. The cone
+ * nodes are kept in topological order along with the arcs between them, so 
+ * that a shortest path sweep over the cone never touches a node that cannot 
+ * reach the target, and so that the cone may be reused for any source.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class TargetCone {
+    
+    /**
+     * The topological indices of the cone nodes in increasing order. The last
+     * one is the target.
+     */
+    private final int[] nodes;
+    
+    /**
+     * The position in {@code inTails} of the first incoming arc of each cone
+     * node. Has one extra element at the end.
+     */
+    private final int[] inOffsets;
+    
+    /**
+     * The cone position of the tail node of each in-arc.
+     */
+    private final int[] inTails;
+    
+    /**
+     * The weight of each in-arc.
+     */
+    private final double[] inWeights;
+    
+    /**
+     * Collects the ancestor cone of {@code targetIndex}.
+     * 
+     * @param snapshot    the topologically ordered snapshot.
+     * @param targetIndex the topological index of the target node.
+     */
+    TargetCone(CompressedSparseRowGraph<DirectedGraphNode> snapshot,
+               int targetIndex) {
+        // Maps each topological index up to the target to one plus its cone 
+        // position, or to zero if the node is not in the cone.
+        int[] positions = new int[targetIndex + 1];
+        int[] queue = new int[16];
+        int size = 0;
+        
+        positions[targetIndex] = 1;
+        queue[size++] = targetIndex;
+        
+        // The queue keeps all the nodes ever added, so that it ends up 
+        // holding the entire cone.
+        for (int head = 0; head < size; ++head) {
+            int current = queue[head];
+            
+            for (int inArc = snapshot.getInArcBeginIndex(current),
+                     end = snapshot.getInArcEndIndex(current);
+                     inArc < end;
+                     ++inArc) {
+                int tail = snapshot.getInArcTail(inArc);
+                
+                if (positions[tail] == 0) {
+                    positions[tail] = 1;
+                    
+                    if (size == queue.length) {
+                        queue = Arrays.copyOf(queue, 2 * size);
+                    }
+                    
+                    queue[size++] = tail;
+                }
+            }
+        }
+        
+        this.nodes = Arrays.copyOf(queue, size);
+        Arrays.sort(nodes);
+        
+        for (int position = 0; position < nodes.length; ++position) {
+            positions[nodes[position]] = position + 1;
+        }
+        
+        // Every in-arc of a cone node comes from an ancestor of the target, 
+        // and so from a cone node.
+        this.inOffsets = new int[nodes.length + 1];
+        
+        for (int position = 0; position < nodes.length; ++position) {
+            inOffsets[position + 1] = 
+                    inOffsets[position] +
+                    snapshot.getInArcEndIndex(nodes[position]) - 
+                    snapshot.getInArcBeginIndex(nodes[position]);
+        }
+        
+        this.inTails = new int[inOffsets[nodes.length]];
+        this.inWeights = new double[inTails.length];
+        int arcIndex = 0;
+        
+        for (int position = 0; position < nodes.length; ++position) {
+            for (int inArc = snapshot.getInArcBeginIndex(nodes[position]),
+                     end = snapshot.getInArcEndIndex(nodes[position]);
+                     inArc < end;
+                     ++inArc) {
+                inTails[arcIndex] = 
+                        positions[snapshot.getInArcTail(inArc)] - 1;
+                inWeights[arcIndex++] = snapshot.getInArcWeight(inArc);
+            }
+        }
+    }
+    
+    /**
+     * Returns the amount of nodes in this cone.
+     * 
+     * @return the amount of nodes.
+     */
+    int size() {
+        return nodes.length;
+    }
+    
+    /**
+     * Returns the cone position of the node with given topological index.
+     * 
+     * @param nodeIndex the topological index of the node.
+     * @return the cone position, or a negative value if the node is not in 
+     *         this cone.
+     */
+    int positionOf(int nodeIndex) {
+        return Arrays.binarySearch(nodes, nodeIndex);
+    }
+    
+    /**
+     * Returns the topological index of the cone node at given position.
+     * 
+     * @param position the cone position.
+     * @return the topological index.
+     */
+    int getNode(int position) {
+        return nodes[position];
+    }
+    
+    /**
+     * Computes the shortest paths from the cone node at {@code position} to 
+     * the following cone nodes. Each node takes its distance from its parents,
+     * so the arcs leaving the cone are never scanned. Both the arrays are 
+     * indexed by the cone position relative to {@code position}, and 
+     * {@code parents} holds relative positions as well. The nodes not reached
+     * are marked with {@code DagShortestPathFinder.UNREACHED} in 
+     * {@code parents}.
+     * 
+     * @param position  the cone position of the source node.
+     * @param distances the distance array to fill.
+     * @param parents   the parent array to fill.
+     * @return the amount of relaxed arcs.
+     */
+    long sweep(int position, double[] distances, int[] parents) {
+        int span = nodes.length - position;
+        long relaxed = 0L;
+        
+        Arrays.fill(parents, DagShortestPathFinder.UNREACHED);
+        distances[0] = 0.0;
+        parents[0] = -1;
+        
+        for (int current = 1; current < span; ++current) {
+            for (int inArc = inOffsets[position + current],
+                     end = inOffsets[position + current + 1];
+                     inArc < end;
+                     ++inArc) {
+                int parent = inTails[inArc] - position;
+                
+                if (parent < 0 
+                        || parents[parent] == DagShortestPathFinder.UNREACHED) {
+                    continue;
+                }
+                
+                double distance = distances[parent] + inWeights[inArc];
+                ++relaxed;
+                
+                if (parents[current] == DagShortestPathFinder.UNREACHED
+                        || distances[current] > distance) {
+                    parents[current] = parent;
+                    distances[current] = distance;
+                }
+            }
+        }
+        
+        return relaxed;
+    }
+}
@@ -1,6 +1,10 @@
 package net.coderodde.graph.pathfinding.support;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
 import net.coderodde.graph.Graph;
 import net.coderodde.graph.support.DirectedGraphNode;
 
@@ -13,7 +17,12 @@ import net.coderodde.graph.support.DirectedGraphNode;
 public class TopologicalSort {
 
     /**
-     * Returns the directed graph nodes in topological order. Note that the 
+     * The minimum amount of nodes worth processing in parallel.
+     */
+    private static final int PARALLELISM_THRESHOLD = 1 << 12;
+    
+    /**
+     * Returns the directed graph nodes in topological order. Note that the
      * returned order may not be unique.
      * 
      * @param graph the graph to sort.
@@ -21,6 +30,9 @@ public class TopologicalSort {
      * @throws IllegalStateException if the input graph is not acyclic.
      */
     public static DirectedGraphNode[] sort(Graph<DirectedGraphNode> graph) {
+        TopologicalSortEvent event = new TopologicalSortEvent();
+        event.begin();
+        
         DepthFirstSearchTraversal.DepthFirstSearchResult<DirectedGraphNode> state =
                 new DepthFirstSearchTraversal<DirectedGraphNode>().search(graph);
         
@@ -28,17 +40,180 @@ public class TopologicalSort {
             throw new IllegalStateException("The input graph is not acyclic.");
         }
         
-        DirectedGraphNode[] ret = new DirectedGraphNode[graph.getNodeAmount()];
+        // The ending times are distinct and lie within 1, ..., 2n, so the
+        // nodes may be bucketed by them instead of being compared.
+        int nodeAmount = graph.getNodeAmount();
+        DirectedGraphNode[] buckets = new DirectedGraphNode[2 * nodeAmount + 1];
+        
+        for (DirectedGraphNode node : graph) {
+            buckets[state.endingTimeMap.get(node)] = node;
+        }
+        
+        DirectedGraphNode[] ret = new DirectedGraphNode[nodeAmount];
+        int index = 0;
+        
+        for (int time = buckets.length - 1; time > 0; --time) {
+            if (buckets[time] != null) {
+                ret[index++] = buckets[time];
+            }
+        }
+        
+        commit(event, graph, "DEPTH_FIRST_SEARCH");
+        return ret;
+    }
+    
+    /**
+     * Returns the directed graph nodes in topological order using Kahn's
+     * algorithm. The in-degrees are computed in parallel, and each frontier of
+     * nodes with no unprocessed parents is processed as a parallel batch. The
+     * returned order lists the nodes level by level, where the level of a node
+     * is the length of a longest path from a source node to it.
+     * 
+     * @param graph the graph to sort.
+     * @return an array of nodes in topological order.
+     * @throws CyclicGraphException if the input graph is not acyclic.
+     */
+    public static DirectedGraphNode[]
+        sortByKahn(Graph<DirectedGraphNode> graph) {
+        TopologicalSortEvent event = new TopologicalSortEvent();
+        event.begin();
+        
+        int nodeAmount = graph.getNodeAmount();
+        DirectedGraphNode[] nodes = new DirectedGraphNode[nodeAmount];
+        int[] nodeIndices = new int[graph.getIdCapacity()];
         int index = 0;
         
         for (DirectedGraphNode node : graph) {
-            ret[index++] = node;
+            nodeIndices[node.getId()] = index;
+            nodes[index++] = node;
         }
         
-        Arrays.sort(ret, (DirectedGraphNode a, DirectedGraphNode b) -> {
-            return state.endingTimeMap.get(b) - state.endingTimeMap.get(a);
-        });
+        AtomicIntegerArray inDegrees = new AtomicIntegerArray(nodeAmount);
+        
+        stream(IntStream.range(0, nodeAmount), nodeAmount)
+                .forEach((i) -> inDegrees.set(i, nodes[i].parents().size()));
+        
+        int[] frontier = stream(IntStream.range(0, nodeAmount), nodeAmount)
+                .filter((i) -> inDegrees.get(i) == 0)
+                .toArray();
+        
+        DirectedGraphNode[] ret = new DirectedGraphNode[nodeAmount];
+        index = 0;
+        
+        while (frontier.length > 0) {
+            for (int i : frontier) {
+                ret[index++] = nodes[i];
+            }
+            
+            frontier = stream(IntStream.of(frontier), frontier.length)
+                    .flatMap((i) -> releaseChildren(nodes[i], 
+                                                    nodeIndices, 
+                                                    inDegrees))
+                    .toArray();
+        }
+        
+        if (index < nodeAmount) {
+            throw new CyclicGraphException(
+                    findCycle(nodes, nodeIndices, inDegrees));
+        }
         
+        commit(event, graph, "KAHN");
         return ret;
     }
+    
+    /**
+     * Commits the event of a completed sort if it is enabled.
+     * 
+     * @param event     the event of the sort.
+     * @param graph     the sorted graph.
+     * @param algorithm the name of the sorting algorithm.
+     */
+    private static void commit(TopologicalSortEvent event,
+                               Graph<DirectedGraphNode> graph,
+                               String algorithm) {
+        if (event.shouldCommit()) {
+            event.setGraph(graph);
+            event.algorithm = algorithm;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Decrements the in-degrees of the children of {@code node}.
+     * 
+     * @param node         the node being processed.
+     * @param nodeIndices  the index of each node by its id.
+     * @param inDegrees    the in-degrees of the unprocessed nodes.
+     * @return the indices of the children that have no unprocessed parents 
+     *         left.
+     */
+    private static IntStream 
+        releaseChildren(DirectedGraphNode node,
+                        int[] nodeIndices,
+                        AtomicIntegerArray inDegrees) {
+        return node.children()
+                   .stream()
+                   .mapToInt((child) -> nodeIndices[child.getId()])
+                   .filter((child) -> inDegrees.decrementAndGet(child) == 0);
+    }
+    
+    /**
+     * Finds a cycle among the nodes Kahn's algorithm could not process. Each
+     * such node has an unprocessed parent, so walking the unprocessed parents
+     * eventually revisits a node.
+     * 
+     * @param nodes        the nodes of the graph.
+     * @param nodeIndices  the index of each node by its id.
+     * @param inDegrees    the in-degrees left by Kahn's algorithm.
+     * @return the cycle.
+     */
+    private static List<DirectedGraphNode>
+        findCycle(DirectedGraphNode[] nodes,
+                  int[] nodeIndices,
+                  AtomicIntegerArray inDegrees) {
+        int[] walkPositions = new int[nodes.length];
+        List<Integer> walk = new ArrayList<>();
+        int current = 0;
+        
+        while (inDegrees.get(current) == 0) {
+            ++current;
+        }
+        
+        Arrays.fill(walkPositions, -1);
+        
+        while (walkPositions[current] == -1) {
+            walkPositions[current] = walk.size();
+            walk.add(current);
+            
+            for (DirectedGraphNode parent : nodes[current].parents()) {
+                int parentIndex = nodeIndices[parent.getId()];
+                
+                if (inDegrees.get(parentIndex) > 0) {
+                    current = parentIndex;
+                    break;
+                }
+            }
+        }
+        
+        // The walk follows the arcs backwards, so reverse the cycle.
+        List<DirectedGraphNode> cycle = new ArrayList<>();
+        
+        for (int i = walk.size() - 1; i >= walkPositions[current]; --i) {
+            cycle.add(nodes[walk.get(i)]);
+        }
+        
+        return cycle;
+    }
+    
+    /**
+     * Returns the input stream as parallel if it has enough elements to be
+     * worth it.
+     * 
+     * @param stream the stream to process.
+     * @param size   the amount of elements in the stream.
+     * @return the stream, parallel or sequential.
+     */
+    private static IntStream stream(IntStream stream, int size) {
+        return size < PARALLELISM_THRESHOLD ? stream : stream.parallel();
+    }
 }
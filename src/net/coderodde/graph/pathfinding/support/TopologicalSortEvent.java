@@ -0,0 +1,20 @@
+package net.coderodde.graph.pathfinding.support;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * This event is emitted by each topological sort of {@link TopologicalSort}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+@Name("net.coderodde.graph.TopologicalSort")
+@Label("Topological Sort")
+@Description("Sorts the nodes of a graph topologically.")
+final class TopologicalSortEvent extends AbstractGraphEvent {
+    
+    @Label("Algorithm")
+    String algorithm;
+}
@@ -0,0 +1,333 @@
+package net.coderodde.graph.support;
+
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * This class implements a compact, insertion-ordered set of the neighbours of
+ * a directed graph node. The neighbours are kept in a growable array, and a
+ * removal only clears the slot of the removed node, so that the insertion
+ * order survives; the array is compacted once it runs full. Nodes with at most
+ * {@code HASH_THRESHOLD} slots are looked up by scanning the array. Larger
+ * nodes get an open-addressing hash index over the array positions.
+ * <p>
+ * As seen from outside the package, the set is unmodifiable: the owner node
+ * modifies it via {@link #insert(DirectedGraphNode)},
+ * {@link #delete(DirectedGraphNode)} and {@link #deleteAll()}.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+final class AdjacencySet extends AbstractSet<DirectedGraphNode> {
+    
+    /**
+     * The shared array of the empty sets.
+     */
+    private static final DirectedGraphNode[] EMPTY = new DirectedGraphNode[0];
+    
+    /**
+     * The largest amount of slots looked up by a linear scan.
+     */
+    private static final int HASH_THRESHOLD = 8;
+    
+    /**
+     * The initial amount of slots of a non-empty set.
+     */
+    private static final int INITIAL_CAPACITY = 2;
+    
+    /**
+     * The multiplier of the Fibonacci hashing.
+     */
+    private static final int HASH_MULTIPLIER = 0x9E3779B9;
+    
+    /**
+     * The nodes in insertion order. The removed nodes leave {@code null}
+     * slots behind.
+     */
+    private DirectedGraphNode[] elements = EMPTY;
+    
+    /**
+     * The hash index mapping nodes to their positions in {@code elements},
+     * plus one, with zero denoting an empty slot. Is {@code null} if the
+     * nodes are looked up by scanning.
+     */
+    private int[] table;
+    
+    /**
+     * The amount of used slots in {@code elements}, including the cleared
+     * ones.
+     */
+    private int end;
+    
+    /**
+     * The amount of nodes in this set.
+     */
+    private int size;
+    
+    /**
+     * The amount of modifications, used for detecting concurrent
+     * modifications during iteration.
+     */
+    private int modificationCount;
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof DirectedGraphNode
+                && positionOf((DirectedGraphNode) o) != -1;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public Iterator<DirectedGraphNode> iterator() {
+        return new AdjacencyIterator();
+    }
+    
+    /**
+     * Adds the input node to this set.
+     * 
+     * @param node the node to add.
+     * @return {@code true} if this set changed.
+     */
+    boolean insert(DirectedGraphNode node) {
+        if (positionOf(node) != -1) {
+            return false;
+        }
+        
+        if (end == elements.length) {
+            // Compact in place if at least half of the slots are cleared.
+            resize(size <= end / 2 && end > 0 ?
+                   elements.length :
+                   Math.max(INITIAL_CAPACITY, 2 * elements.length));
+        }
+        
+        elements[end] = node;
+        
+        if (table != null) {
+            insertPosition(end);
+        }
+        
+        ++end;
+        ++size;
+        ++modificationCount;
+        return true;
+    }
+    
+    /**
+     * Removes the input node from this set.
+     * 
+     * @param node the node to remove.
+     * @return {@code true} if this set changed.
+     */
+    boolean delete(DirectedGraphNode node) {
+        int position = positionOf(node);
+        
+        if (position == -1) {
+            return false;
+        }
+        
+        if (table != null) {
+            deletePosition(position);
+        }
+        
+        elements[position] = null;
+        --size;
+        ++modificationCount;
+        
+        while (end > 0 && elements[end - 1] == null) {
+            --end;
+        }
+        
+        if (size == 0) {
+            deleteAll();
+        } else if (size < elements.length / 4) {
+            resize(elements.length / 2);
+        }
+        
+        return true;
+    }
+    
+    /**
+     * Removes all the nodes from this set and releases its storage.
+     */
+    void deleteAll() {
+        elements = EMPTY;
+        table = null;
+        end = 0;
+        size = 0;
+        ++modificationCount;
+    }
+    
+    /**
+     * Returns the position of the input node in {@code elements}.
+     * 
+     * @param node the node to look up.
+     * @return the position of the node, or -1 if it is not in this set.
+     */
+    private int positionOf(DirectedGraphNode node) {
+        if (table == null) {
+            for (int i = 0; i < end; ++i) {
+                DirectedGraphNode element = elements[i];
+                
+                if (element == node
+                        || (element != null && element.equals(node))) {
+                    return i;
+                }
+            }
+            
+            return -1;
+        }
+        
+        int mask = table.length - 1;
+        
+        for (int slot = homeSlot(node); table[slot] != 0;
+                slot = (slot + 1) & mask) {
+            DirectedGraphNode element = elements[table[slot] - 1];
+            
+            if (element == node || element.equals(node)) {
+                return table[slot] - 1;
+            }
+        }
+        
+        return -1;
+    }
+    
+    /**
+     * Moves the nodes to a fresh array of the given capacity, dropping the
+     * cleared slots, and rebuilds the hash index if the capacity calls for
+     * it.
+     * 
+     * @param capacity the new amount of slots.
+     */
+    private void resize(int capacity) {
+        DirectedGraphNode[] newElements = new DirectedGraphNode[capacity];
+        int newEnd = 0;
+        
+        for (int i = 0; i < end; ++i) {
+            if (elements[i] != null) {
+                newElements[newEnd++] = elements[i];
+            }
+        }
+        
+        elements = newElements;
+        end = newEnd;
+        
+        if (capacity <= HASH_THRESHOLD) {
+            table = null;
+            return;
+        }
+        
+        table = new int[Integer.highestOneBit(capacity - 1) << 2];
+        
+        for (int i = 0; i < end; ++i) {
+            insertPosition(i);
+        }
+    }
+    
+    /**
+     * Adds the position of a node to the hash index.
+     * 
+     * @param position the position of the node in {@code elements}.
+     */
+    private void insertPosition(int position) {
+        int mask = table.length - 1;
+        int slot = homeSlot(elements[position]);
+        
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        
+        table[slot] = position + 1;
+    }
+    
+    /**
+     * Removes the position of a node from the hash index, shifting the
+     * following entries of the probe sequence backwards so that no tombstones
+     * are needed.
+     * 
+     * @param position the position of the node in {@code elements}.
+     */
+    private void deletePosition(int position) {
+        int mask = table.length - 1;
+        int slot = homeSlot(elements[position]);
+        
+        while (table[slot] != position + 1) {
+            slot = (slot + 1) & mask;
+        }
+        
+        for (int next = (slot + 1) & mask; table[next] != 0;
+                next = (next + 1) & mask) {
+            int home = homeSlot(elements[table[next] - 1]);
+            
+            if (((next - home) & mask) >= ((next - slot) & mask)) {
+                table[slot] = table[next];
+                slot = next;
+            }
+        }
+        
+        table[slot] = 0;
+    }
+    
+    /**
+     * Returns the first slot of the probe sequence of the input node.
+     * 
+     * @param node the node to hash.
+     * @return the home slot of the node.
+     */
+    private int homeSlot(DirectedGraphNode node) {
+        return (node.hashCode() * HASH_MULTIPLIER)
+                >>> Integer.numberOfLeadingZeros(table.length - 1);
+    }
+    
+    /**
+     * Iterates the nodes in insertion order, skipping the cleared slots.
+     */
+    private final class AdjacencyIterator
+    implements Iterator<DirectedGraphNode> {
+        
+        private final int expectedModificationCount = modificationCount;
+        private int cursor = skip(0);
+        
+        @Override
+        public boolean hasNext() {
+            return cursor < end;
+        }
+        
+        @Override
+        public DirectedGraphNode next() {
+            if (expectedModificationCount != modificationCount) {
+                throw new ConcurrentModificationException();
+            }
+            
+            if (cursor >= end) {
+                throw new NoSuchElementException("No more nodes to iterate.");
+            }
+            
+            DirectedGraphNode ret = elements[cursor];
+            cursor = skip(cursor + 1);
+            return ret;
+        }
+        
+        private int skip(int position) {
+            while (position < end && elements[position] == null) {
+                ++position;
+            }
+            
+            return position;
+        }
+    }
+}
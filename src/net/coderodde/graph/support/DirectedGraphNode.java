@@ -1,7 +1,7 @@
 package net.coderodde.graph.support;
 
-import java.util.Collections;
-import java.util.LinkedHashSet;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import net.coderodde.graph.AbstractGraphNode;
@@ -17,12 +17,12 @@ public class DirectedGraphNode extends AbstractGraphNode<DirectedGraphNode>  {
     /**
      * The set of incoming nodes, namely, the set of parent nodes.
      */
-    private final Set<DirectedGraphNode> in;
+    private final AdjacencySet in;
     
     /**
      * The set of outgoing nodes, namely, the set of child nodes.
      */
-    private final Set<DirectedGraphNode> out;
+    private final AdjacencySet out;
     
     /**
      * Constructs a new directed graph node with given name.
@@ -31,8 +31,8 @@ public class DirectedGraphNode extends AbstractGraphNode<DirectedGraphNode>  {
      */
     public DirectedGraphNode(String name) {
         super(name);
-        this.in = new LinkedHashSet<>();
-        this.out = new LinkedHashSet<>();
+        this.in = new AdjacencySet();
+        this.out = new AdjacencySet();
     }
     
     /**
@@ -43,15 +43,16 @@ public class DirectedGraphNode extends AbstractGraphNode<DirectedGraphNode>  {
         Objects.requireNonNull(child, "The child node is null.");
         checkNodesBelongToSameGraph(this, child);
         
-        boolean modified = out.add(child);
+        boolean modified = out.insert(child);
         
         if (!modified) {
             return false;
         }
         
-        child.in.add(this);
+        child.in.insert(this);
         ownerGraph.incModificationCount();
         incEdgeAmount();
+        fireArcAdded(this, child);
         return modified;
     }
 
@@ -63,15 +64,16 @@ public class DirectedGraphNode extends AbstractGraphNode<DirectedGraphNode>  {
         Objects.requireNonNull(child, "The child node is null.");
         checkNodesBelongToSameGraph(this, child);
         
-        boolean modified = out.remove(child);
+        boolean modified = out.delete(child);
         
         if (!modified) {
             return false;
         }
         
-        child.in.remove(this);
+        child.in.delete(this);
         ownerGraph.incModificationCount();
         decEdgeAmount();
+        fireArcRemoved(this, child);
         return modified;
     }
 
@@ -82,20 +84,30 @@ public class DirectedGraphNode extends AbstractGraphNode<DirectedGraphNode>  {
     public void clear() {
         checkOwnerGraphNotNull();
         
+        List<DirectedGraphNode> removedChildren = new ArrayList<>(out.size());
+        List<DirectedGraphNode> removedParents = new ArrayList<>(in.size());
+        
         out.stream().forEach((child) -> {
-            if (child.in.remove(this)) {
+            if (child.in.delete(this)) {
                 ownerGraph.incModificationCount();
+                decEdgeAmount();
+                removedChildren.add(child);
             }
         });
         
         in.stream().forEach((parent) -> {
-            if (parent.out.remove(this)) {
+            if (parent.out.delete(this)) {
                 ownerGraph.incModificationCount();
+                decEdgeAmount();
+                removedParents.add(parent);
             }
         });
         
-        in.clear();
-        out.clear();
+        in.deleteAll();
+        out.deleteAll();
+        
+        removedChildren.forEach((child) -> fireArcRemoved(this, child));
+        removedParents.forEach((parent) -> fireArcRemoved(parent, this));
     }
 
     /**
@@ -113,7 +125,7 @@ public class DirectedGraphNode extends AbstractGraphNode<DirectedGraphNode>  {
     @Override
     public Set<DirectedGraphNode> children() {
         checkOwnerGraphNotNull();
-        return Collections.<DirectedGraphNode>unmodifiableSet(out);
+        return out;
     }
 
     /**
@@ -122,7 +134,7 @@ public class DirectedGraphNode extends AbstractGraphNode<DirectedGraphNode>  {
     @Override
     public Set<DirectedGraphNode> parents() {
         checkOwnerGraphNotNull();
-        return Collections.<DirectedGraphNode>unmodifiableSet(in);
+        return in;
     }
    
     /**
@@ -44,6 +44,7 @@ extends AbstractWeightFunction<DirectedGraphNode> {
         }
         
         map.get(tail).put(head, weight);
+        incModificationCount();
     }
 
    /**
@@ -77,5 +78,6 @@ extends AbstractWeightFunction<DirectedGraphNode> {
      */
     public void clear() {
         map.clear();
+        incModificationCount();
     }
 }
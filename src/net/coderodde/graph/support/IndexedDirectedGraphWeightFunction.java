@@ -0,0 +1,384 @@
+package net.coderodde.graph.support;
+
+import java.util.Arrays;
+import java.util.Objects;
+import net.coderodde.graph.AbstractWeightFunction;
+
+/**
+ * This class implements weight functions for directed edges that assign each
+ * edge a dense edge id {@code 0, 1, ..., getEdgeAmount() - 1} in the order the
+ * edges are first given a weight. The end nodes and the weights of the edges 
+ * are kept in arrays indexed by edge id, and an open addressing hash table 
+ * maps each {@code (tail, head)} pair to its edge id. Unlike 
+ * {@link DirectedGraphWeightFunction}, this function allocates no objects per
+ * edge, and looking up a weight costs a single probe sequence with no 
+ * unboxing.
+ * 
+ * @author Rodion "rodde" Efremov
+ * @version 1.6
+ */
+public class IndexedDirectedGraphWeightFunction 
+extends AbstractWeightFunction<DirectedGraphNode> {
+    
+    /**
+     * The default initial edge capacity.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+    
+    /**
+     * The maximum edge capacity. The hash table of this many edges is the 
+     * largest power-of-two {@code int} array, {@code 2^30} elements long.
+     */
+    static final int MAXIMUM_CAPACITY = 1 << 28;
+    
+    /**
+     * Marks the empty slots of the hash table.
+     */
+    private static final int EMPTY = -1;
+    
+    /**
+     * The tail node of each edge.
+     */
+    private DirectedGraphNode[] tails;
+    
+    /**
+     * The head node of each edge.
+     */
+    private DirectedGraphNode[] heads;
+    
+    /**
+     * The weight of each edge.
+     */
+    private double[] weights;
+    
+    /**
+     * The hash table mapping the end nodes of an edge to its edge id. Each 
+     * slot takes two elements: the hash value of the edge, so that most of 
+     * the mismatching slots are skipped without touching the nodes, and the
+     * edge id. The amount of slots is a power of two at least twice the edge
+     * capacity.
+     */
+    private int[] table;
+    
+    /**
+     * The amount of edges.
+     */
+    private int edgeAmount;
+    
+    /**
+     * Constructs an empty weight function.
+     */
+    public IndexedDirectedGraphWeightFunction() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    /**
+     * Constructs an empty weight function with room for 
+     * {@code expectedEdgeAmount} edges before growing.
+     * 
+     * @param expectedEdgeAmount the expected amount of edges.
+     * @throws IllegalArgumentException if the expected edge amount is negative
+     *                                  or exceeds {@code 2^28}.
+     */
+    public IndexedDirectedGraphWeightFunction(int expectedEdgeAmount) {
+        if (expectedEdgeAmount < 0) {
+            throw new IllegalArgumentException(
+                    "The expected edge amount is negative: " + 
+                    expectedEdgeAmount + ".");
+        }
+        
+        if (expectedEdgeAmount > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException(
+                    "The expected edge amount " + expectedEdgeAmount + 
+                    " exceeds the maximum capacity " + MAXIMUM_CAPACITY + 
+                    ".");
+        }
+        
+        allocate(Math.max(expectedEdgeAmount, DEFAULT_CAPACITY));
+    }
+    
+    /**
+     * {@inheritDoc }
+     * 
+     * @throws IllegalStateException if a new edge would exceed the maximum 
+     *                               capacity of {@code 2^28} edges.
+     */
+    @Override
+    public void put(DirectedGraphNode tail, 
+                    DirectedGraphNode head, 
+                    double weight) {
+        Objects.requireNonNull(tail, "The tail node of an arc is null.");
+        Objects.requireNonNull(head, "The head node of an arc is null.");
+        checkWeight(weight);
+        
+        int hash = hash(tail, head);
+        int slot = findSlot(tail, head, hash);
+        
+        if (table[slot + 1] != EMPTY) {
+            weights[table[slot + 1]] = weight;
+            incModificationCount();
+            return;
+        }
+        
+        if (edgeAmount == weights.length) {
+            grow();
+            slot = findSlot(tail, head, hash);
+        }
+        
+        tails[edgeAmount] = tail;
+        heads[edgeAmount] = head;
+        weights[edgeAmount] = weight;
+        table[slot] = hash;
+        table[slot + 1] = edgeAmount++;
+        incModificationCount();
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public double get(DirectedGraphNode tail, DirectedGraphNode head) {
+        int edgeId = getEdgeId(tail, head);
+        
+        if (edgeId == EMPTY) {
+            throw new IllegalStateException(
+                    "The requested arc (" + tail + ", " + head + ") has no " +
+                    "weight in this weight function.");
+        }
+        
+        return weights[edgeId];
+    }
+    
+    /**
+     * Returns the id of the edge {@code (tail, head)}.
+     * 
+     * @param tail the tail node of the edge.
+     * @param head the head node of the edge.
+     * @return the edge id, or -1 if the edge has no weight.
+     */
+    public int getEdgeId(DirectedGraphNode tail, DirectedGraphNode head) {
+        Objects.requireNonNull(tail, "The tail node of an arc is null.");
+        Objects.requireNonNull(head, "The head node of an arc is null.");
+        return table[findSlot(tail, head, hash(tail, head)) + 1];
+    }
+    
+    /**
+     * Returns the weight of the edge with given id.
+     * 
+     * @param edgeId the edge id.
+     * @return the weight of the edge.
+     */
+    public double getWeight(int edgeId) {
+        checkEdgeId(edgeId);
+        return weights[edgeId];
+    }
+    
+    /**
+     * Sets the weight of the edge with given id.
+     * 
+     * @param edgeId the edge id.
+     * @param weight the new weight of the edge.
+     */
+    public void setWeight(int edgeId, double weight) {
+        checkEdgeId(edgeId);
+        checkWeight(weight);
+        weights[edgeId] = weight;
+        incModificationCount();
+    }
+    
+    /**
+     * Returns the tail node of the edge with given id.
+     * 
+     * @param edgeId the edge id.
+     * @return the tail node.
+     */
+    public DirectedGraphNode getTail(int edgeId) {
+        checkEdgeId(edgeId);
+        return tails[edgeId];
+    }
+    
+    /**
+     * Returns the head node of the edge with given id.
+     * 
+     * @param edgeId the edge id.
+     * @return the head node.
+     */
+    public DirectedGraphNode getHead(int edgeId) {
+        checkEdgeId(edgeId);
+        return heads[edgeId];
+    }
+    
+    /**
+     * Returns the amount of edges with a weight.
+     * 
+     * @return the amount of edges.
+     */
+    public int getEdgeAmount() {
+        return edgeAmount;
+    }
+    
+    /**
+     * {@inheritDoc }
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(tails, 0, edgeAmount, null);
+        Arrays.fill(heads, 0, edgeAmount, null);
+        Arrays.fill(table, EMPTY);
+        edgeAmount = 0;
+        incModificationCount();
+    }
+    
+    /**
+     * Returns the position of the slot of the edge {@code (tail, head)} in the
+     * hash table, or of the empty slot where it would go.
+     * 
+     * @param tail the tail node of the edge.
+     * @param head the head node of the edge.
+     * @param hash the hash value of the edge.
+     * @return the slot position.
+     */
+    private int findSlot(DirectedGraphNode tail, 
+                         DirectedGraphNode head, 
+                         int hash) {
+        int mask = table.length - 1;
+        int slot = homeSlot(hash, mask);
+        
+        while (table[slot + 1] != EMPTY) {
+            if (table[slot] == hash) {
+                int edgeId = table[slot + 1];
+                
+                if ((tails[edgeId] == tail || tails[edgeId].equals(tail))
+                        && (heads[edgeId] == head 
+                            || heads[edgeId].equals(head))) {
+                    break;
+                }
+            }
+            
+            slot = (slot + 2) & mask;
+        }
+        
+        return slot;
+    }
+    
+    /**
+     * Doubles the edge capacity, up to the maximum capacity, and rehashes the
+     * edges.
+     * 
+     * @throws IllegalStateException if the capacity is at its maximum.
+     */
+    private void grow() {
+        if (weights.length == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException(
+                    "The weight function cannot hold more than " + 
+                    MAXIMUM_CAPACITY + " edges.");
+        }
+        
+        DirectedGraphNode[] oldTails = tails;
+        DirectedGraphNode[] oldHeads = heads;
+        double[] oldWeights = weights;
+        int[] oldTable = table;
+        
+        allocate((int) Math.min(2L * weights.length, MAXIMUM_CAPACITY));
+        
+        System.arraycopy(oldTails, 0, tails, 0, edgeAmount);
+        System.arraycopy(oldHeads, 0, heads, 0, edgeAmount);
+        System.arraycopy(oldWeights, 0, weights, 0, edgeAmount);
+        
+        int mask = table.length - 1;
+        
+        for (int oldSlot = 0; oldSlot < oldTable.length; oldSlot += 2) {
+            if (oldTable[oldSlot + 1] == EMPTY) {
+                continue;
+            }
+            
+            int slot = homeSlot(oldTable[oldSlot], mask);
+            
+            while (table[slot + 1] != EMPTY) {
+                slot = (slot + 2) & mask;
+            }
+            
+            table[slot] = oldTable[oldSlot];
+            table[slot + 1] = oldTable[oldSlot + 1];
+        }
+    }
+    
+    /**
+     * Allocates empty arrays for {@code capacity} edges.
+     * 
+     * @param capacity the edge capacity.
+     */
+    private void allocate(int capacity) {
+        tails = new DirectedGraphNode[capacity];
+        heads = new DirectedGraphNode[capacity];
+        weights = new double[capacity];
+        table = new int[tableLength(capacity)];
+        Arrays.fill(table, EMPTY);
+    }
+    
+    /**
+     * Returns the length of the hash table for {@code capacity} edges: two
+     * elements for each of at least twice as many slots as edges, rounded up
+     * to a power of two.
+     * 
+     * @param capacity the edge capacity.
+     * @return the table length.
+     * @throws IllegalStateException if the capacity exceeds {@code 2^28}, 
+     *                               whose table would not fit an array.
+     */
+    static int tableLength(long capacity) {
+        if (capacity > MAXIMUM_CAPACITY) {
+            throw new IllegalStateException(
+                    "The edge capacity " + capacity + " exceeds the maximum " +
+                    "capacity " + MAXIMUM_CAPACITY + ".");
+        }
+        
+        return (int) (Long.highestOneBit(Math.max(capacity - 1, 1L)) << 3);
+    }
+    
+    /**
+     * Checks that the edge id is valid.
+     * 
+     * @param edgeId the edge id to check.
+     */
+    private void checkEdgeId(int edgeId) {
+        if (edgeId < 0 || edgeId >= edgeAmount) {
+            throw new IndexOutOfBoundsException(
+                    "The edge id " + edgeId + " is out of range [0, " + 
+                    edgeAmount + ").");
+        }
+    }
+    
+    /**
+     * Returns the position of the home slot of an edge. The home slots are 
+     * spread over the entire table, so that the many edges of a high 
+     * out-degree node do not crowd into a single probe sequence.
+     * 
+     * @param hash the hash value of the edge.
+     * @param mask the length of the hash table minus one.
+     * @return the slot position.
+     */
+    private static int homeSlot(int hash, int mask) {
+        return (hash << 1) & mask;
+    }
+    
+    /**
+     * Mixes the hash codes of the end nodes of an edge with the 64-bit 
+     * finalizer of MurmurHash3, so that every bit of both hash codes affects
+     * every bit of the hash value.
+     * 
+     * @param tail the tail node of the edge.
+     * @param head the head node of the edge.
+     * @return the hash value.
+     */
+    private static int hash(DirectedGraphNode tail, DirectedGraphNode head) {
+        long h = ((long) tail.hashCode() << 32) 
+               | (head.hashCode() & 0xffffffffL);
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb53a4aa8b025L;
+        h ^= h >>> 33;
+        return (int) h;
+    }
+}
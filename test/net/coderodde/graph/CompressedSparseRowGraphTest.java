@@ -0,0 +1,114 @@
+package net.coderodde.graph;
+
+import java.util.Arrays;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class CompressedSparseRowGraphTest {
+
+    private final DirectedGraphNode a = new DirectedGraphNode("A");
+    private final DirectedGraphNode b = new DirectedGraphNode("B");
+    private final DirectedGraphNode c = new DirectedGraphNode("C");
+
+    private final Graph<DirectedGraphNode> graph = new Graph<>();
+    private final DirectedGraphWeightFunction weightFunction =
+            new DirectedGraphWeightFunction();
+
+    public CompressedSparseRowGraphTest() {
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+
+        a.addChild(b);
+        a.addChild(c);
+        b.addChild(c);
+
+        weightFunction.put(a, b, 1.0);
+        weightFunction.put(a, c, 5.0);
+        weightFunction.put(b, c, 2.0);
+    }
+
+    @Test
+    public void testStructure() {
+        CompressedSparseRowGraph<DirectedGraphNode> snapshot =
+                new CompressedSparseRowGraph<>(graph, weightFunction);
+
+        assertEquals(3, snapshot.getNodeAmount());
+        assertEquals(3, snapshot.getArcAmount());
+
+        assertEquals(0, snapshot.getNodeIndex(a));
+        assertEquals(1, snapshot.getNodeIndex(b));
+        assertEquals(2, snapshot.getNodeIndex(c));
+
+        assertEquals(0, snapshot.getArcBeginIndex(0));
+        assertEquals(2, snapshot.getArcEndIndex(0));
+        assertEquals(2, snapshot.getArcBeginIndex(1));
+        assertEquals(3, snapshot.getArcEndIndex(1));
+        assertEquals(3, snapshot.getArcBeginIndex(2));
+        assertEquals(3, snapshot.getArcEndIndex(2));
+
+        assertEquals(1, snapshot.getArcHead(0));
+        assertEquals(2, snapshot.getArcHead(1));
+        assertEquals(2, snapshot.getArcHead(2));
+
+        assertEquals(1.0, snapshot.getArcWeight(0), 0.001);
+        assertEquals(5.0, snapshot.getArcWeight(1), 0.001);
+        assertEquals(2.0, snapshot.getArcWeight(2), 0.001);
+    }
+
+    @Test
+    public void testInArcs() {
+        CompressedSparseRowGraph<DirectedGraphNode> snapshot =
+                new CompressedSparseRowGraph<>(graph, weightFunction);
+
+        assertEquals(0, snapshot.getInArcEndIndex(0) -
+                        snapshot.getInArcBeginIndex(0));
+        assertEquals(1, snapshot.getInArcEndIndex(1) -
+                        snapshot.getInArcBeginIndex(1));
+        assertEquals(2, snapshot.getInArcEndIndex(2) -
+                        snapshot.getInArcBeginIndex(2));
+
+        int inArc = snapshot.getInArcBeginIndex(2);
+
+        assertEquals(0, snapshot.getInArcTail(inArc));
+        assertEquals(5.0, snapshot.getInArcWeight(inArc), 0.001);
+        assertEquals(1, snapshot.getInArcTail(inArc + 1));
+        assertEquals(2.0, snapshot.getInArcWeight(inArc + 1), 0.001);
+    }
+
+    @Test
+    public void testNodeOrder() {
+        CompressedSparseRowGraph<DirectedGraphNode> snapshot =
+                new CompressedSparseRowGraph<>(graph,
+                                               Arrays.asList(c, b, a),
+                                               weightFunction);
+
+        assertEquals(c, snapshot.getNode(0));
+        assertEquals(a, snapshot.getNode(2));
+        assertEquals(2, snapshot.getArcEndIndex(2) -
+                        snapshot.getArcBeginIndex(2));
+        assertEquals(0, snapshot.getArcHead(snapshot.getArcBeginIndex(1)));
+    }
+
+    @Test
+    public void testIsUpToDate() {
+        CompressedSparseRowGraph<DirectedGraphNode> snapshot =
+                new CompressedSparseRowGraph<>(graph, weightFunction);
+
+        assertTrue(snapshot.isUpToDate());
+
+        c.addChild(a);
+
+        assertFalse(snapshot.isUpToDate());
+        assertEquals(3, snapshot.getArcAmount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnIncompleteNodeOrder() {
+        new CompressedSparseRowGraph<>(graph,
+                                       Arrays.asList(a, b),
+                                       weightFunction);
+    }
+}
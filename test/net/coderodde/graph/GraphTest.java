@@ -41,6 +41,27 @@ public class GraphTest {
         assertNull(graph.getNode("F"));
     }
 
+    @Test
+    public void testAddNodeReplacesNamesake() {
+        Graph<DirectedGraphNode> graph = new Graph<>();
+        DirectedGraphNode b2 = new DirectedGraphNode("B");
+        
+        graph.addNode(a);
+        graph.addNode(b);
+        a.addChild(b);
+        
+        assertEquals(1, graph.getEdgeAmount());
+        assertTrue(graph.addNode(b2));
+        
+        assertEquals(2, graph.getNodeAmount());
+        assertEquals(0, graph.getEdgeAmount());
+        assertSame(b2, graph.getNode("B"));
+        assertSame(b2, graph.getNodeById(b2.getId()));
+        assertNull(b.getOwnerGraph());
+        assertEquals(-1, b.getId());
+        assertTrue(a.children().isEmpty());
+    }
+
     @Test
     public void testRemoveNode() {
         Graph<DirectedGraphNode> graph = new Graph<>();
@@ -186,6 +207,51 @@ public class GraphTest {
         assertNull(graph1.getNode(b.getName()));
     }
     
+    @Test
+    public void testListener() {
+        Graph<DirectedGraphNode> graph = new Graph<>();
+        StringBuilder sb = new StringBuilder();
+        GraphListener<DirectedGraphNode> listener = 
+                new GraphListener<DirectedGraphNode>() {
+            
+            @Override
+            public void nodeAdded(DirectedGraphNode node) {
+                sb.append("+").append(node.getName());
+            }
+            
+            @Override
+            public void nodeRemoved(DirectedGraphNode node) {
+                sb.append("-").append(node.getName());
+            }
+            
+            @Override
+            public void arcAdded(DirectedGraphNode tail, 
+                                 DirectedGraphNode head) {
+                sb.append("+").append(tail.getName()).append(head.getName());
+            }
+            
+            @Override
+            public void arcRemoved(DirectedGraphNode tail, 
+                                   DirectedGraphNode head) {
+                sb.append("-").append(tail.getName()).append(head.getName());
+            }
+        };
+        
+        graph.addGraphListener(listener);
+        graph.addNode(a);
+        graph.addNode(b);
+        a.addChild(b);
+        graph.removeNode(b);
+        
+        assertEquals("+A+B+AB-AB-B", sb.toString());
+        assertEquals(0, graph.getEdgeAmount());
+        
+        graph.removeGraphListener(listener);
+        graph.addNode(c);
+        
+        assertEquals("+A+B+AB-AB-B", sb.toString());
+    }
+    
     @Test
     public void testIterator() {
         Graph<DirectedGraphNode> graph = new Graph<>();
@@ -210,4 +276,43 @@ public class GraphTest {
         
         assertFalse(iter.hasNext());
     }
+    
+    @Test
+    public void testNodeIds() {
+        Graph<DirectedGraphNode> graph = new Graph<>();
+        
+        assertEquals(-1, a.getId());
+        
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        
+        assertEquals(0, a.getId());
+        assertEquals(1, b.getId());
+        assertEquals(2, c.getId());
+        assertEquals(3, graph.getIdCapacity());
+        
+        assertEquals(a, graph.getNodeById(0));
+        assertEquals(c, graph.getNodeById(2));
+        assertNull(graph.getNodeById(3));
+        assertNull(graph.getNodeById(-1));
+        
+        graph.removeNode(b);
+        
+        assertEquals(-1, b.getId());
+        assertNull(graph.getNodeById(1));
+        
+        // The freed id is recycled.
+        graph.addNode(d);
+        
+        assertEquals(1, d.getId());
+        assertEquals(d, graph.getNodeById(1));
+        assertEquals(3, graph.getIdCapacity());
+        
+        graph.clear();
+        
+        assertEquals(-1, a.getId());
+        assertNull(a.getOwnerGraph());
+        assertEquals(0, graph.getIdCapacity());
+    }
 }
@@ -0,0 +1,179 @@
+package net.coderodde.graph.generation;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import net.coderodde.graph.AbstractIndexedGraph;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.pathfinding.support.DagShortestPathFinder;
+import net.coderodde.graph.pathfinding.support.IndexedGraphSearch;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GraphGeneratorTest {
+    
+    @Test
+    public void testGenerationIsDeterministic() {
+        AbstractGraphModel model = new RandomGraphModel(50_000, 3.0);
+        ForkJoinPool sequentialPool = new ForkJoinPool(1);
+        ForkJoinPool parallelPool = new ForkJoinPool(4);
+        
+        try {
+            GeneratedGraph graph1 =
+                    new GraphGenerator(7L, sequentialPool).generate(model);
+            GeneratedGraph graph2 =
+                    new GraphGenerator(7L, parallelPool).generate(model);
+            GeneratedGraph graph3 =
+                    new GraphGenerator(8L, parallelPool).generate(model);
+            
+            assertSameGraph(graph1, graph2);
+            assertNotEquals(graph1.getArcAmount(), graph3.getArcAmount());
+            assertFalse(graph1.isTopologicallyOrdered());
+        } finally {
+            sequentialPool.shutdown();
+            parallelPool.shutdown();
+        }
+    }
+    
+    @Test
+    public void testLayeredDag() {
+        LayeredDagModel model = new LayeredDagModel(5000, 10, 15, 4.0);
+        GeneratedGraph graph = new GraphGenerator(1L).generate(model);
+        
+        assertTrue(graph.isTopologicallyOrdered());
+        assertArcsGoForward(graph);
+        
+        for (int i = 0; i < graph.getNodeAmount(); ++i) {
+            for (int arc = graph.getArcBeginIndex(i);
+                     arc < graph.getArcEndIndex(i);
+                     ++arc) {
+                int advance = model.getLayer(graph.getArcHead(arc)) -
+                              model.getLayer(i);
+                
+                assertTrue(advance >= 1 && advance <= 15);
+            }
+        }
+        
+        double averageOutDegree =
+                (double) graph.getArcAmount() / graph.getNodeAmount();
+        
+        assertEquals(4.0, averageOutDegree, 0.2);
+    }
+    
+    @Test
+    public void testPowerLawDag() {
+        GeneratedGraph graph =
+                new GraphGenerator(1L).generate(
+                        new PowerLawDagModel(100_000, 4.0, 2.5, 1000));
+        int maximumOutDegree = 0;
+        
+        assertArcsGoForward(graph);
+        
+        for (int i = 0; i < graph.getNodeAmount(); ++i) {
+            maximumOutDegree =
+                    Math.max(maximumOutDegree,
+                             graph.getArcEndIndex(i) -
+                             graph.getArcBeginIndex(i));
+        }
+        
+        assertTrue(maximumOutDegree > 100);
+        assertTrue(maximumOutDegree <= 1000);
+    }
+    
+    @Test
+    public void testGridDag() {
+        GeneratedGraph graph =
+                new GraphGenerator(1L).generate(new GridDagModel(3, 4));
+        
+        assertEquals(12, graph.getNodeAmount());
+        assertEquals(3 * 3 + 2 * 4, graph.getArcAmount());
+        assertArcsGoForward(graph);
+        
+        // The node at row 1, column 1 has a right and a lower neighbor.
+        assertEquals(2, graph.getArcEndIndex(5) - graph.getArcBeginIndex(5));
+        assertEquals(6, graph.getArcHead(graph.getArcBeginIndex(5)));
+        assertEquals(9, graph.getArcHead(graph.getArcBeginIndex(5) + 1));
+        
+        // Any path from the corner to the corner takes 5 arcs.
+        assertEquals(6,
+                     IndexedGraphSearch.findShortestPathInDag(graph, 0, 11)
+                                       .length);
+    }
+    
+    @Test
+    public void testGenerateIntoGraph() {
+        Graph<DirectedGraphNode> graph = new Graph<>();
+        DirectedGraphWeightFunction weightFunction =
+                new DirectedGraphWeightFunction();
+        AbstractGraphModel model = new LayeredDagModel(200, 5, 3, 3.0);
+        GeneratedGraph generated = new GraphGenerator(3L).generate(model);
+        DirectedGraphNode[] nodes =
+                new GraphGenerator(3L).generate(model, graph, weightFunction);
+        
+        assertEquals(generated.getNodeAmount(), graph.getNodeAmount());
+        
+        for (int i = 0; i < nodes.length; ++i) {
+            assertEquals(i, nodes[i].getId());
+            assertEquals(generated.getNodeName(i), nodes[i].getName());
+        }
+        
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+        int target = nodes.length - 1;
+        int[] expected =
+                IndexedGraphSearch.findShortestPathInDag(generated, 0, target);
+        List<DirectedGraphNode> path =
+                finder.find(nodes[0], nodes[target]);
+        
+        assertEquals(expected.length, path.size());
+        
+        for (int i = 0; i < expected.length; ++i) {
+            assertEquals(nodes[expected[i]], path.get(i));
+        }
+    }
+    
+    @Test
+    public void testGetNodeIndex() {
+        GeneratedGraph graph =
+                new GraphGenerator(1L).generate(new GridDagModel(2, 2));
+        
+        assertEquals(3, graph.getNodeIndex("3"));
+        assertEquals(-1, graph.getNodeIndex("4"));
+        assertEquals(-1, graph.getNodeIndex("03"));
+        assertEquals(-1, graph.getNodeIndex("x"));
+    }
+    
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnSmallExponent() {
+        new PowerLawDagModel(10, 2.0, 2.0, 5);
+    }
+    
+    private static void assertArcsGoForward(AbstractIndexedGraph graph) {
+        for (int i = 0; i < graph.getNodeAmount(); ++i) {
+            for (int arc = graph.getArcBeginIndex(i);
+                     arc < graph.getArcEndIndex(i);
+                     ++arc) {
+                assertTrue(graph.getArcHead(arc) > i);
+            }
+        }
+    }
+    
+    private static void assertSameGraph(AbstractIndexedGraph expected,
+                                        AbstractIndexedGraph actual) {
+        assertEquals(expected.getNodeAmount(), actual.getNodeAmount());
+        assertEquals(expected.getArcAmount(), actual.getArcAmount());
+        
+        for (int i = 0; i < expected.getNodeAmount(); ++i) {
+            assertEquals(expected.getArcBeginIndex(i),
+                         actual.getArcBeginIndex(i));
+        }
+        
+        for (int arc = 0; arc < expected.getArcAmount(); ++arc) {
+            assertEquals(expected.getArcHead(arc), actual.getArcHead(arc));
+            assertEquals(expected.getArcWeight(arc),
+                         actual.getArcWeight(arc),
+                         0.0);
+        }
+    }
+}
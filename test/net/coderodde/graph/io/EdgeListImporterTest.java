@@ -0,0 +1,137 @@
+package net.coderodde.graph.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPOutputStream;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class EdgeListImporterTest {
+    
+    private final Graph<DirectedGraphNode> graph = new Graph<>();
+    private final DirectedGraphWeightFunction weightFunction =
+            new DirectedGraphWeightFunction();
+    
+    @Test
+    public void testImport() throws IOException {
+        String text = "# A comment.\n" +
+                      "A B 1.5\n" +
+                      "\n" +
+                      "  B\tC  2\r\n" +
+                      "A C -3e-1\n" +
+                      "C Dé 4";
+        
+        assertEquals(4L, importText(text, false, 8));
+        assertEquals(4, graph.getNodeAmount());
+        assertEquals(4, graph.getEdgeAmount());
+        
+        DirectedGraphNode a = graph.getNode("A");
+        DirectedGraphNode b = graph.getNode("B");
+        DirectedGraphNode c = graph.getNode("C");
+        DirectedGraphNode d = graph.getNode("Dé");
+        
+        assertTrue(a.hasChild(b));
+        assertTrue(a.hasChild(c));
+        assertTrue(c.hasChild(d));
+        assertEquals(1.5, weightFunction.get(a, b), 0.0);
+        assertEquals(-0.3, weightFunction.get(a, c), 0.0);
+        assertEquals(4.0, weightFunction.get(c, d), 0.0);
+        
+        // The ids follow the order of appearance.
+        assertEquals(0, a.getId());
+        assertEquals(1, b.getId());
+        assertEquals(2, c.getId());
+        assertEquals(3, d.getId());
+    }
+    
+    @Test
+    public void testImportCompressedInManyBatches() throws IOException {
+        Random random = new Random(3L);
+        StringBuilder sb = new StringBuilder();
+        Graph<DirectedGraphNode> expectedGraph = new Graph<>();
+        DirectedGraphWeightFunction expectedWeights =
+                new DirectedGraphWeightFunction();
+        
+        for (int i = 0; i < 5000; ++i) {
+            String tail = "n" + random.nextInt(300);
+            String head = "n" + random.nextInt(300);
+            int weight = random.nextInt(100);
+            
+            sb.append(tail).append(' ').append(head).append(' ')
+              .append(weight).append('\n');
+            
+            DirectedGraphNode t = intern(expectedGraph, tail);
+            DirectedGraphNode h = intern(expectedGraph, head);
+            t.addChild(h);
+            expectedWeights.put(t, h, weight);
+        }
+        
+        assertEquals(5000L, importText(sb.toString(), true, 64));
+        assertEquals(expectedGraph.getNodeAmount(), graph.getNodeAmount());
+        assertEquals(expectedGraph.getEdgeAmount(), graph.getEdgeAmount());
+        
+        for (DirectedGraphNode t : expectedGraph) {
+            DirectedGraphNode tail = graph.getNode(t.getName());
+            
+            assertEquals(t.children().size(), tail.children().size());
+            
+            for (DirectedGraphNode h : t.children()) {
+                DirectedGraphNode head = graph.getNode(h.getName());
+                
+                assertTrue(tail.hasChild(head));
+                assertEquals(expectedWeights.get(t, h),
+                             weightFunction.get(tail, head),
+                             0.0);
+            }
+        }
+    }
+    
+    @Test(expected = IOException.class)
+    public void testThrowsOnMalformedLine() throws IOException {
+        importText("A B 1\nA B\n", false, 4);
+    }
+    
+    @Test(expected = IOException.class)
+    public void testThrowsOnMalformedWeight() throws IOException {
+        importText("A B x\n", false, 1024);
+    }
+    
+    private long importText(String text, boolean compress, int batchSize)
+            throws IOException {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        
+        if (compress) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            
+            try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+                gzip.write(bytes);
+            }
+            
+            bytes = out.toByteArray();
+        }
+        
+        return new EdgeListImporter(ForkJoinPool.commonPool(), batchSize)
+                .importGraph(new ByteArrayInputStream(bytes),
+                             graph,
+                             weightFunction);
+    }
+    
+    private static DirectedGraphNode intern(Graph<DirectedGraphNode> graph,
+                                            String name) {
+        DirectedGraphNode node = graph.getNode(name);
+        
+        if (node == null) {
+            node = new DirectedGraphNode(name);
+            graph.addNode(node);
+        }
+        
+        return node;
+    }
+}
@@ -0,0 +1,132 @@
+package net.coderodde.graph.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import net.coderodde.graph.CompressedSparseRowGraph;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.pathfinding.support.IndexedGraphSearch;
+import net.coderodde.graph.pathfinding.support.TopologicalSort;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class MappedGraphTest {
+    
+    private final DirectedGraphNode a = new DirectedGraphNode("A");
+    private final DirectedGraphNode b = new DirectedGraphNode("B");
+    private final DirectedGraphNode c = new DirectedGraphNode("C");
+    private final DirectedGraphNode d = new DirectedGraphNode("Dé");
+    
+    private final Graph<DirectedGraphNode> graph = new Graph<>();
+    private final DirectedGraphWeightFunction weightFunction =
+            new DirectedGraphWeightFunction();
+    
+    public MappedGraphTest() {
+        graph.addNode(d);
+        graph.addNode(c);
+        graph.addNode(b);
+        graph.addNode(a);
+        
+        arc(a, b, 1.0);
+        arc(a, c, 1.0);
+        arc(a, d, 10.0);
+        arc(b, d, 2.0);
+        arc(c, d, 4.0);
+    }
+    
+    @Test
+    public void testWriteAndMap() throws IOException {
+        CompressedSparseRowGraph<DirectedGraphNode> snapshot =
+                new CompressedSparseRowGraph<>(
+                        graph,
+                        Arrays.asList(TopologicalSort.sortByKahn(graph)),
+                        weightFunction);
+        Path file = Files.createTempFile("graph", ".bin");
+        
+        try {
+            GraphFileWriter.write(snapshot, file);
+            MappedGraph mapped = MappedGraph.open(file);
+            
+            assertEquals(4, mapped.getNodeAmount());
+            assertEquals(5, mapped.getArcAmount());
+            assertTrue(mapped.isTopologicallyOrdered());
+            
+            for (int i = 0; i < 4; ++i) {
+                assertEquals(snapshot.getNodeName(i), mapped.getNodeName(i));
+                assertEquals(i, mapped.getNodeIndex(snapshot.getNodeName(i)));
+                assertEquals(snapshot.getArcBeginIndex(i),
+                             mapped.getArcBeginIndex(i));
+                assertEquals(snapshot.getArcEndIndex(i),
+                             mapped.getArcEndIndex(i));
+            }
+            
+            for (int arc = 0; arc < 5; ++arc) {
+                assertEquals(snapshot.getArcHead(arc), mapped.getArcHead(arc));
+                assertEquals(snapshot.getArcWeight(arc),
+                             mapped.getArcWeight(arc),
+                             0.0);
+            }
+            
+            assertEquals(-1, mapped.getNodeIndex("E"));
+            
+            int source = mapped.getNodeIndex("A");
+            int target = mapped.getNodeIndex("Dé");
+            int[] path = 
+                    IndexedGraphSearch.findShortestPathInDag(mapped, 
+                                                             source, 
+                                                             target);
+            
+            assertArrayEquals(new int[]{ source, 
+                                         mapped.getNodeIndex("B"), 
+                                         target }, 
+                              path);
+            assertEquals(3.0, IndexedGraphSearch.getPathCost(mapped, path), 
+                         0.0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+    
+    @Test
+    public void testWriteInGraphOrder() throws IOException {
+        Path file = Files.createTempFile("graph", ".bin");
+        
+        try {
+            c.addChild(b);
+            weightFunction.put(c, b, 1.0);
+            weightFunction.put(a, b, 3.0);
+            GraphFileWriter.write(graph, weightFunction, file);
+            MappedGraph mapped = MappedGraph.open(file);
+            
+            // The name order puts C before B although C -> B.
+            assertFalse(mapped.isTopologicallyOrdered());
+            assertEquals("A", mapped.getNodeName(0));
+            assertArrayEquals(new int[]{ 0, 2, 1 },
+                              IndexedGraphSearch.findShortestPath(mapped, 0, 1));
+        } finally {
+            Files.delete(file);
+        }
+    }
+    
+    @Test(expected = IOException.class)
+    public void testThrowsOnForeignFile() throws IOException {
+        Path file = Files.createTempFile("graph", ".bin");
+        
+        try {
+            Files.write(file, new byte[64]);
+            MappedGraph.open(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+    
+    private void arc(DirectedGraphNode tail,
+                     DirectedGraphNode head,
+                     double weight) {
+        tail.addChild(head);
+        weightFunction.put(tail, head, weight);
+    }
+}
@@ -0,0 +1,157 @@
+package net.coderodde.graph.io;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import net.coderodde.graph.AbstractIndexedGraph;
+import net.coderodde.graph.CompressedSparseRowGraph;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.pathfinding.support.IndexedGraphSearch;
+import net.coderodde.graph.pathfinding.support.TopologicalSort;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class OffHeapGraphTest {
+    
+    private final DirectedGraphNode a = new DirectedGraphNode("A");
+    private final DirectedGraphNode b = new DirectedGraphNode("B");
+    private final DirectedGraphNode c = new DirectedGraphNode("C");
+    private final DirectedGraphNode d = new DirectedGraphNode("Dé");
+    
+    private final Graph<DirectedGraphNode> graph = new Graph<>();
+    private final DirectedGraphWeightFunction weightFunction =
+            new DirectedGraphWeightFunction();
+    private final CompressedSparseRowGraph<DirectedGraphNode> snapshot;
+    
+    public OffHeapGraphTest() {
+        graph.addNode(d);
+        graph.addNode(c);
+        graph.addNode(b);
+        graph.addNode(a);
+        
+        arc(a, b, 1.0);
+        arc(a, c, 1.0);
+        arc(a, d, 10.0);
+        arc(b, d, 2.0);
+        arc(c, d, 4.0);
+        
+        snapshot = new CompressedSparseRowGraph<>(
+                        graph,
+                        Arrays.asList(TopologicalSort.sortByKahn(graph)),
+                        weightFunction);
+    }
+    
+    @Test
+    public void testCopyOf() {
+        OffHeapGraph copy = OffHeapGraph.copyOf(snapshot);
+        
+        assertTrue(copy.isTopologicallyOrdered());
+        assertSameGraph(snapshot, copy);
+        assertEquals(-1, copy.getNodeIndex("E"));
+        
+        int source = copy.getNodeIndex("A");
+        int target = copy.getNodeIndex("Dé");
+        int[] path = IndexedGraphSearch.findShortestPathInDag(copy,
+                                                              source,
+                                                              target);
+        
+        assertArrayEquals(new int[]{ source, copy.getNodeIndex("B"), target },
+                          path);
+        assertArrayEquals(path,
+                          IndexedGraphSearch.findShortestPath(copy,
+                                                              source,
+                                                              target));
+    }
+    
+    @Test
+    public void testCopyOfEmptyGraph() {
+        OffHeapGraph copy =
+                OffHeapGraph.copyOf(
+                        new CompressedSparseRowGraph<>(new Graph<>(),
+                                                       weightFunction));
+        
+        assertEquals(0, copy.getNodeAmount());
+        assertEquals(0, copy.getArcAmount());
+        assertEquals(-1, copy.getNodeIndex("A"));
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testClose() {
+        OffHeapGraph copy = OffHeapGraph.copyOf(snapshot);
+        
+        copy.close();
+        copy.close();
+        copy.getArcHead(0);
+    }
+    
+    @Test
+    public void testLoad() throws IOException {
+        Path file = Files.createTempFile("graph", ".bin");
+        
+        try {
+            GraphFileWriter.write(snapshot, file);
+            OffHeapGraph loaded = OffHeapGraph.load(file);
+            
+            assertEquals(Files.size(file), loaded.getSizeInBytes());
+            assertSameGraph(snapshot, loaded);
+            
+            // Writing the copy back produces the same file.
+            Path copyFile = Files.createTempFile("graph", ".bin");
+            
+            try {
+                GraphFileWriter.write(loaded, copyFile);
+                assertTrue(Arrays.equals(Files.readAllBytes(file),
+                                         Files.readAllBytes(copyFile)));
+            } finally {
+                Files.delete(copyFile);
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+    
+    @Test(expected = IOException.class)
+    public void testLoadThrowsOnTruncatedFile() throws IOException {
+        Path file = Files.createTempFile("graph", ".bin");
+        
+        try {
+            GraphFileWriter.write(snapshot, file);
+            byte[] bytes = Files.readAllBytes(file);
+            Files.write(file, Arrays.copyOf(bytes, bytes.length - 8));
+            OffHeapGraph.load(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+    
+    private static void assertSameGraph(AbstractIndexedGraph expected,
+                                        AbstractIndexedGraph actual) {
+        assertEquals(expected.getNodeAmount(), actual.getNodeAmount());
+        assertEquals(expected.getArcAmount(), actual.getArcAmount());
+        
+        for (int i = 0; i < expected.getNodeAmount(); ++i) {
+            assertEquals(expected.getNodeName(i), actual.getNodeName(i));
+            assertEquals(i, actual.getNodeIndex(expected.getNodeName(i)));
+            assertEquals(expected.getArcBeginIndex(i),
+                         actual.getArcBeginIndex(i));
+            assertEquals(expected.getArcEndIndex(i), actual.getArcEndIndex(i));
+        }
+        
+        for (int arc = 0; arc < expected.getArcAmount(); ++arc) {
+            assertEquals(expected.getArcHead(arc), actual.getArcHead(arc));
+            assertEquals(expected.getArcWeight(arc),
+                         actual.getArcWeight(arc),
+                         0.0);
+        }
+    }
+    
+    private void arc(DirectedGraphNode tail,
+                     DirectedGraphNode head,
+                     double weight) {
+        tail.addChild(head);
+        weightFunction.put(tail, head, weight);
+    }
+}
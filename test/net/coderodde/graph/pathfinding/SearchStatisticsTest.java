@@ -0,0 +1,170 @@
+package net.coderodde.graph.pathfinding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.pathfinding.support.DagShortestPathFinder;
+import net.coderodde.graph.pathfinding.support.DijkstraPathFinder;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SearchStatisticsTest {
+
+    private final DirectedGraphNode a = new DirectedGraphNode("A");
+    private final DirectedGraphNode b = new DirectedGraphNode("B");
+    private final DirectedGraphNode c = new DirectedGraphNode("C");
+    private final DirectedGraphNode d = new DirectedGraphNode("D");
+
+    private final Graph<DirectedGraphNode> graph = new Graph<>();
+    private final DirectedGraphWeightFunction weightFunction =
+            new DirectedGraphWeightFunction();
+    private final List<SearchMetrics> reported = new ArrayList<>();
+
+    public SearchStatisticsTest() {
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addNode(d);
+
+        arc(a, b, 1.0);
+        arc(a, c, 1.0);
+        arc(a, d, 10.0);
+        arc(b, d, 2.0);
+        arc(c, d, 4.0);
+    }
+
+    @Test
+    public void testDagShortestPathFinderReportsMetrics() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+
+        finder.setQueryMode(DagShortestPathFinder.QueryMode.FULL_SWEEP);
+        finder.setSearchListener(reported::add);
+
+        assertEquals(Arrays.asList(a, b, d), finder.find(a, d));
+        assertEquals(1, reported.size());
+
+        SearchMetrics metrics = reported.get(0);
+
+        assertEquals(4L, metrics.get(SearchMetrics.Counter.NODES_SCANNED));
+        assertEquals(5L, metrics.get(SearchMetrics.Counter.ARCS_RELAXED));
+        assertEquals(0L, metrics.get(SearchMetrics.Counter.HEAP_PUSHES));
+        assertEquals(0L,
+                     metrics.get(SearchMetrics.Counter.PREPROCESSING_RUNS));
+        assertTrue(metrics.getTotalNanos() > 0L);
+
+        // The first query after a weight change sweeps the graph itself. Once
+        // it has done as much work as a rebuild, the next query rebuilds the
+        // snapshot, but not the reachability.
+        weightFunction.put(a, d, 1.0);
+
+        assertEquals(Arrays.asList(a, d), finder.find(a, d));
+        assertEquals(0L,
+                     reported.get(1)
+                             .get(SearchMetrics.Counter.PREPROCESSING_RUNS));
+        assertEquals(Arrays.asList(a, d), finder.find(a, d));
+        assertEquals(1L,
+                     reported.get(2)
+                             .get(SearchMetrics.Counter.PREPROCESSING_RUNS));
+    }
+
+    @Test
+    public void testSparseFrontierCountsHeapOperations() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+
+        finder.setQueryMode(DagShortestPathFinder.QueryMode.SPARSE_FRONTIER);
+        finder.setSearchListener(reported::add);
+        finder.find(a, d);
+
+        SearchMetrics metrics = reported.get(0);
+
+        assertEquals(4L, metrics.get(SearchMetrics.Counter.HEAP_PUSHES));
+        assertEquals(4L, metrics.get(SearchMetrics.Counter.HEAP_POPS));
+        assertEquals(3L, metrics.get(SearchMetrics.Counter.NODES_SCANNED));
+    }
+
+    @Test
+    public void testDijkstraPathFinderReportsMetrics() {
+        DijkstraPathFinder<DirectedGraphNode> finder =
+                new DijkstraPathFinder<>(weightFunction);
+        SearchStatistics statistics = new SearchStatistics();
+
+        finder.setSearchListener(statistics);
+
+        for (int i = 0; i < 10; ++i) {
+            assertEquals(Arrays.asList(a, b, d), finder.find(a, d));
+        }
+
+        assertEquals(10L, statistics.getSearchAmount());
+
+        SearchStatistics.Histogram pops =
+                statistics.getHistogram(SearchMetrics.Counter.HEAP_POPS);
+
+        assertEquals(10L, pops.getCount());
+        assertEquals(pops.getSum(), 10L * pops.getMax());
+        assertEquals(10L, statistics.getLatencyHistogram().getCount());
+
+        statistics.reset();
+
+        assertEquals(0L, statistics.getSearchAmount());
+        assertEquals(0L, pops.getCount());
+    }
+
+    @Test
+    public void testNoReportsWithoutListener() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+
+        finder.setSearchListener(reported::add);
+        finder.find(a, d);
+        finder.setSearchListener(null);
+        finder.find(a, d);
+
+        assertEquals(1, reported.size());
+    }
+
+    @Test
+    public void testHistogram() {
+        SearchStatistics.Histogram histogram =
+                new SearchStatistics().getLatencyHistogram();
+
+        assertEquals(0L, histogram.getQuantileUpperBound(0.5));
+        assertTrue(Double.isNaN(histogram.getMean()));
+
+        histogram.record(0L);
+        histogram.record(1L);
+        histogram.record(5L);
+        histogram.record(6L);
+        histogram.record(1000L);
+
+        assertEquals(1L, histogram.getBucketCount(0));
+        assertEquals(1L, histogram.getBucketCount(1));
+        assertEquals(2L, histogram.getBucketCount(3));
+        assertEquals(1L, histogram.getBucketCount(10));
+        assertEquals(0L, SearchStatistics.Histogram.getBucketUpperBound(0));
+        assertEquals(7L, SearchStatistics.Histogram.getBucketUpperBound(3));
+
+        assertEquals(5L, histogram.getCount());
+        assertEquals(1012L, histogram.getSum());
+        assertEquals(1000L, histogram.getMax());
+        assertEquals(7L, histogram.getQuantileUpperBound(0.8));
+        assertEquals(1000L, histogram.getQuantileUpperBound(1.0));
+        assertEquals(0L, histogram.getQuantileUpperBound(0.0));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testThrowsOnInvalidQuantile() {
+        new SearchStatistics().getLatencyHistogram().getQuantileUpperBound(1.5);
+    }
+
+    private void arc(DirectedGraphNode tail,
+                     DirectedGraphNode head,
+                     double weight) {
+        tail.addChild(head);
+        weightFunction.put(tail, head, weight);
+    }
+}
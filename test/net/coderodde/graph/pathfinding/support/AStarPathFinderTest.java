@@ -0,0 +1,131 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import net.coderodde.graph.CompressedSparseRowGraph;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.pathfinding.AbstractPotentialFunction;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AStarPathFinderTest {
+    
+    private final DirectedGraphNode a = new DirectedGraphNode("A");
+    private final DirectedGraphNode b = new DirectedGraphNode("B");
+    private final DirectedGraphNode c = new DirectedGraphNode("C");
+    private final DirectedGraphNode d = new DirectedGraphNode("D");
+    private final DirectedGraphNode e = new DirectedGraphNode("E");
+    
+    private final Graph<DirectedGraphNode> graph = new Graph<>();
+    private final DirectedGraphWeightFunction weightFunction =
+            new DirectedGraphWeightFunction();
+    
+    public AStarPathFinderTest() {
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addNode(d);
+        graph.addNode(e);
+        
+        arc(a, b, 1.0);
+        arc(b, c, 1.0);
+        arc(c, d, 1.0);
+        arc(a, d, 5.0);
+        arc(d, a, 1.0);
+        arc(c, a, 1.0);
+    }
+    
+    @Test
+    public void testFindWithZeroPotential() {
+        AbstractPotentialFunction<DirectedGraphNode> potentialFunction =
+                new AbstractPotentialFunction<DirectedGraphNode>() {
+            @Override
+            public double estimate(DirectedGraphNode node,
+                                   DirectedGraphNode target) {
+                return 0.0;
+            }
+        };
+        AStarPathFinder<DirectedGraphNode> finder =
+                new AStarPathFinder<>(weightFunction, potentialFunction);
+
+        assertEquals(Arrays.asList(a, b, c, d), finder.find(a, d));
+        assertEquals(Arrays.asList(b), finder.find(b, b));
+        assertTrue(finder.find(a, e).isEmpty());
+    }
+    
+    @Test
+    public void testFindWithLandmarks() {
+        LandmarkPotentialFunction<DirectedGraphNode> potentialFunction =
+                createLandmarks();
+        AStarPathFinder<DirectedGraphNode> finder =
+                new AStarPathFinder<>(weightFunction, potentialFunction);
+        
+        assertEquals(Arrays.asList(a, b, c, d), finder.find(a, d));
+        assertEquals(Arrays.asList(d, a, b), finder.find(d, b));
+        assertTrue(finder.find(a, e).isEmpty());
+        assertTrue(finder.find(e, a).isEmpty());
+    }
+    
+    @Test
+    public void testLandmarkEstimates() {
+        LandmarkPotentialFunction<DirectedGraphNode> potentialFunction =
+                createLandmarks();
+        
+        assertEquals(2, potentialFunction.getLandmarks().size());
+        assertEquals(0.0, potentialFunction.estimate(a, a), 0.0);
+        assertTrue(potentialFunction.estimate(a, d) <= 3.0);
+        assertTrue(potentialFunction.estimate(d, c) <= 3.0);
+        assertEquals(Double.POSITIVE_INFINITY, 
+                     potentialFunction.estimate(a, e), 
+                     0.0);
+    }
+    
+    @Test
+    public void testPersistence() throws IOException {
+        LandmarkPotentialFunction<DirectedGraphNode> potentialFunction =
+                createLandmarks();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        
+        potentialFunction.writeTo(new DataOutputStream(bytes));
+        
+        LandmarkPotentialFunction<DirectedGraphNode> loaded =
+                LandmarkPotentialFunction.readFrom(
+                        new DataInputStream(
+                                new ByteArrayInputStream(bytes.toByteArray())),
+                        potentialFunction.getSnapshot());
+        
+        assertEquals(potentialFunction.getLandmarks(), loaded.getLandmarks());
+        
+        for (DirectedGraphNode node : graph) {
+            for (DirectedGraphNode target : graph) {
+                assertEquals(potentialFunction.estimate(node, target),
+                             loaded.estimate(node, target),
+                             0.0);
+            }
+        }
+    }
+    
+    private LandmarkPotentialFunction<DirectedGraphNode> createLandmarks() {
+        CompressedSparseRowGraph<DirectedGraphNode> snapshot =
+                new CompressedSparseRowGraph<>(graph, weightFunction);
+        return new LandmarkPotentialFunction<>(
+                snapshot, 
+                LandmarkPotentialFunction.selectLandmarks(snapshot, 
+                                                          2, 
+                                                          new Random(1)));
+    }
+    
+    private void arc(DirectedGraphNode tail,
+                     DirectedGraphNode head,
+                     double weight) {
+        tail.addChild(head);
+        weightFunction.put(tail, head, weight);
+    }
+}
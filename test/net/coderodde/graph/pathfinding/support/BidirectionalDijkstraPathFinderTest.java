@@ -0,0 +1,135 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class BidirectionalDijkstraPathFinderTest {
+    
+    private final DirectedGraphNode a = new DirectedGraphNode("A");
+    private final DirectedGraphNode b = new DirectedGraphNode("B");
+    private final DirectedGraphNode c = new DirectedGraphNode("C");
+    private final DirectedGraphNode d = new DirectedGraphNode("D");
+    private final DirectedGraphNode e = new DirectedGraphNode("E");
+    
+    private final Graph<DirectedGraphNode> graph = new Graph<>();
+    private final DirectedGraphWeightFunction weightFunction =
+            new DirectedGraphWeightFunction();
+    
+    public BidirectionalDijkstraPathFinderTest() {
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addNode(d);
+        graph.addNode(e);
+        
+        // The direct arc A -> D is longer than the detour A -> B -> C -> D.
+        arc(a, b, 1.0);
+        arc(b, c, 1.0);
+        arc(c, d, 1.0);
+        arc(a, d, 5.0);
+        arc(d, a, 1.0);
+        arc(c, a, 1.0);
+    }
+    
+    @Test
+    public void testFind() {
+        BidirectionalDijkstraPathFinder<DirectedGraphNode> finder =
+                new BidirectionalDijkstraPathFinder<>(weightFunction);
+        
+        assertEquals(Arrays.asList(a, b, c, d), finder.find(a, d));
+        assertEquals(Arrays.asList(d, a, b), finder.find(d, b));
+        assertEquals(Arrays.asList(c), finder.find(c, c));
+        assertTrue(finder.find(a, e).isEmpty());
+        assertTrue(finder.find(e, a).isEmpty());
+    }
+    
+    @Test
+    public void testAgreesWithDijkstraOnRandomGraphs() {
+        Random random = new Random(7L);
+        
+        for (int round = 0; round < 20; ++round) {
+            Graph<DirectedGraphNode> randomGraph = new Graph<>();
+            DirectedGraphWeightFunction weights = 
+                    new DirectedGraphWeightFunction();
+            DirectedGraphNode[] nodes = 
+                    new DirectedGraphNode[10 + random.nextInt(40)];
+            
+            for (int i = 0; i < nodes.length; ++i) {
+                nodes[i] = new DirectedGraphNode("" + i);
+                randomGraph.addNode(nodes[i]);
+            }
+            
+            // Sparse enough to leave some of the pairs unreachable. Small 
+            // integer weights produce many ties between the paths.
+            int arcAmount = random.nextInt(2 * nodes.length);
+            
+            for (int i = 0; i < arcAmount; ++i) {
+                DirectedGraphNode tail = nodes[random.nextInt(nodes.length)];
+                DirectedGraphNode head = nodes[random.nextInt(nodes.length)];
+                tail.addChild(head);
+                weights.put(tail, head, random.nextInt(5));
+            }
+            
+            BidirectionalDijkstraPathFinder<DirectedGraphNode> finder =
+                    new BidirectionalDijkstraPathFinder<>(weights);
+            DijkstraPathFinder<DirectedGraphNode> referenceFinder =
+                    new DijkstraPathFinder<>(weights);
+            
+            for (DirectedGraphNode source : nodes) {
+                for (DirectedGraphNode target : nodes) {
+                    List<DirectedGraphNode> path = finder.find(source, target);
+                    List<DirectedGraphNode> expected = 
+                            referenceFinder.find(source, target);
+                    
+                    assertEquals(expected.isEmpty(), path.isEmpty());
+                    
+                    if (!path.isEmpty()) {
+                        assertEquals(source, path.get(0));
+                        assertEquals(target, path.get(path.size() - 1));
+                        assertEquals(weightOf(expected, weights),
+                                     weightOf(path, weights),
+                                     0.0);
+                    }
+                    
+                    if (source == target) {
+                        assertEquals(Arrays.asList(source), path);
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testThrowsOnNodesOfDifferentGraphs() {
+        Graph<DirectedGraphNode> other = new Graph<>();
+        DirectedGraphNode f = new DirectedGraphNode("F");
+        other.addNode(f);
+        
+        new BidirectionalDijkstraPathFinder<>(weightFunction).find(a, f);
+    }
+    
+    private static double weightOf(List<DirectedGraphNode> path,
+                                   DirectedGraphWeightFunction weights) {
+        double weight = 0.0;
+        
+        for (int i = 1; i < path.size(); ++i) {
+            assertTrue(path.get(i - 1).hasChild(path.get(i)));
+            weight += weights.get(path.get(i - 1), path.get(i));
+        }
+        
+        return weight;
+    }
+    
+    private void arc(DirectedGraphNode tail,
+                     DirectedGraphNode head,
+                     double weight) {
+        tail.addChild(head);
+        weightFunction.put(tail, head, weight);
+    }
+}
@@ -0,0 +1,370 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.pathfinding.SearchMetrics;
+import net.coderodde.graph.pathfinding.SourceTargetPair;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class DagShortestPathFinderTest {
+
+    private final DirectedGraphNode a = new DirectedGraphNode("A");
+    private final DirectedGraphNode b = new DirectedGraphNode("B");
+    private final DirectedGraphNode c = new DirectedGraphNode("C");
+    private final DirectedGraphNode d = new DirectedGraphNode("D");
+    private final DirectedGraphNode e = new DirectedGraphNode("E");
+
+    private final Graph<DirectedGraphNode> graph = new Graph<>();
+    private final DirectedGraphWeightFunction weightFunction =
+            new DirectedGraphWeightFunction();
+
+    public DagShortestPathFinderTest() {
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addNode(d);
+        graph.addNode(e);
+
+        // A -> B -> D is shorter than A -> C -> D, and A -> D is longest.
+        arc(a, b, 1.0);
+        arc(a, c, 1.0);
+        arc(a, d, 10.0);
+        arc(b, d, 2.0);
+        arc(c, d, 4.0);
+    }
+
+    @Test
+    public void testFind() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+
+        assertEquals(Arrays.asList(a, b, d), finder.find(a, d));
+        assertEquals(Arrays.asList(c, d), finder.find(c, d));
+        assertEquals(Arrays.asList(a), finder.find(a, a));
+        assertTrue(finder.find(d, a).isEmpty());
+        assertTrue(finder.find(a, e).isEmpty());
+    }
+
+    @Test
+    public void testFindUnreachable() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+
+        // B and C are siblings, so neither reaches the other whatever their 
+        // topological order.
+        assertTrue(finder.find(b, c).isEmpty());
+        assertTrue(finder.find(c, b).isEmpty());
+        assertTrue(finder.find(e, d).isEmpty());
+
+        arc(b, c, 1.0);
+
+        assertEquals(Arrays.asList(b, c), finder.find(b, c));
+        assertEquals(Arrays.asList(b, c), 
+                     finder.findAll(Arrays.asList(
+                             new SourceTargetPair<>(b, c))).get(0));
+    }
+
+    @Test
+    public void testFindAfterModification() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+
+        assertTrue(finder.find(d, e).isEmpty());
+
+        arc(d, e, 1.0);
+
+        assertEquals(Arrays.asList(a, b, d, e), finder.find(a, e));
+    }
+
+    @Test
+    public void testFindAfterReordering() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+        DirectedGraphNode f = new DirectedGraphNode("F");
+
+        graph.addNode(f);
+        arc(e, a, 1.0);
+        arc(f, e, 1.0);
+
+        assertEquals(Arrays.asList(f, e, a, b, d), finder.find(f, d));
+        assertTrue(finder.find(d, f).isEmpty());
+
+        graph.removeNode(e);
+
+        assertTrue(finder.find(f, d).isEmpty());
+        assertEquals(Arrays.asList(a, c), finder.find(a, c));
+    }
+
+    @Test
+    public void testFindAfterRecyclingNodeId() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+        DirectedGraphNode f = new DirectedGraphNode("F");
+        int id = b.getId();
+        
+        graph.removeNode(b);
+        graph.addNode(f);
+        
+        assertEquals(id, f.getId());
+        
+        arc(d, f, 1.0);
+        
+        assertEquals(Arrays.asList(a, c, d, f), finder.find(a, f));
+        assertTrue(finder.find(f, d).isEmpty());
+    }
+    
+    @Test
+    public void testFindAfterReplacingNode() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+        
+        assertEquals(Arrays.asList(a, b, d), finder.find(a, d));
+        
+        DirectedGraphNode b2 = new DirectedGraphNode("B");
+        graph.addNode(b2);
+        
+        assertNull(b.getOwnerGraph());
+        assertEquals(Arrays.asList(a, c, d), finder.find(a, d));
+        
+        arc(a, b2, 1.0);
+        arc(b2, e, 1.0);
+        
+        assertEquals(Arrays.asList(a, b2, e), finder.find(a, e));
+        assertEquals(Arrays.asList(a, c, d), finder.find(a, d));
+    }
+    
+    @Test
+    public void testInterleavedWritesRebuildRarely() {
+        Graph<DirectedGraphNode> dag = new Graph<>();
+        DirectedGraphWeightFunction weights = 
+                new DirectedGraphWeightFunction();
+        DirectedGraphNode[] nodes = new DirectedGraphNode[300];
+        Random random = new Random(13L);
+        
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new DirectedGraphNode("" + i);
+            dag.addNode(nodes[i]);
+        }
+        
+        for (int i = 0; i < 2 * nodes.length; ++i) {
+            int tail = random.nextInt(nodes.length - 1);
+            int head = tail + 1 + random.nextInt(nodes.length - tail - 1);
+            nodes[tail].addChild(nodes[head]);
+            weights.put(nodes[tail], nodes[head], 1.0 + random.nextInt(10));
+        }
+        
+        DagShortestPathFinder finder = new DagShortestPathFinder(dag, weights);
+        DijkstraPathFinder<DirectedGraphNode> referenceFinder = 
+                new DijkstraPathFinder<>(weights);
+        long[] rebuilds = new long[1];
+        int rounds = 200;
+        
+        finder.setSearchListener((metrics) -> rebuilds[0] += 
+                metrics.get(SearchMetrics.Counter.PREPROCESSING_RUNS));
+        
+        for (int round = 0; round < rounds; ++round) {
+            int tail = random.nextInt(nodes.length - 1);
+            int head = tail + 1 + random.nextInt(nodes.length - tail - 1);
+            nodes[tail].addChild(nodes[head]);
+            weights.put(nodes[tail], nodes[head], 1.0 + random.nextInt(10));
+            
+            int source = random.nextInt(nodes.length - 5);
+            DirectedGraphNode target = 
+                    nodes[source + random.nextInt(5)];
+            
+            assertEquals(
+                    weightOf(referenceFinder.find(nodes[source], target),
+                             weights),
+                    weightOf(finder.find(nodes[source], target), weights),
+                    0.0);
+        }
+        
+        // The short queries do little work, so the snapshot is rebuilt far 
+        // less often than the graph changes.
+        assertTrue(rebuilds[0] < rounds / 10);
+    }
+    
+    @Test
+    public void testRebuildsReachabilityIndexLazily() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+        long[] rebuilds = new long[1];
+        
+        finder.setSearchListener((metrics) -> rebuilds[0] += 
+                metrics.get(SearchMetrics.Counter.PREPROCESSING_RUNS));
+        arc(d, e, 1.0);
+        
+        // Rebuilds the snapshot, but not the reachability index.
+        finder.findAll(Arrays.asList(new SourceTargetPair<>(a, e)));
+        
+        int queries = 0;
+        
+        while (rebuilds[0] == 0L && queries < 100) {
+            assertEquals(Arrays.asList(a, b, d, e), finder.find(a, e));
+            assertTrue(finder.find(b, c).isEmpty());
+            ++queries;
+        }
+        
+        // The index is rebuilt only after the unfiltered queries have covered
+        // as many nodes as its traversals would, and then only once.
+        assertTrue(queries > 1);
+        assertEquals(1L, rebuilds[0]);
+        
+        for (int i = 0; i < queries; ++i) {
+            assertTrue(finder.find(b, c).isEmpty());
+        }
+        
+        assertEquals(1L, rebuilds[0]);
+    }
+    
+    @Test
+    public void testFindInTargetCone() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+        
+        finder.setQueryMode(DagShortestPathFinder.QueryMode.TARGET_CONE);
+        
+        assertEquals(Arrays.asList(a, b, d), finder.find(a, d));
+        assertEquals(Arrays.asList(c, d), finder.find(c, d));
+        assertEquals(Arrays.asList(a), finder.find(a, a));
+        assertTrue(finder.find(b, c).isEmpty());
+        assertTrue(finder.find(a, e).isEmpty());
+        
+        finder.setConeCacheCapacity(1);
+        
+        assertEquals(Arrays.asList(a, b, d), finder.find(a, d));
+        assertEquals(Arrays.asList(c, d), finder.find(c, d));
+        assertTrue(finder.find(b, c).isEmpty());
+        
+        // The cached cone of D must not outlive the change of a weight.
+        weightFunction.put(c, d, 1.0);
+        
+        assertEquals(Arrays.asList(a, c, d), finder.find(a, d));
+    }
+    
+    @Test
+    public void testFindInSparseFrontier() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+        
+        assertEquals(DagShortestPathFinder.QueryMode.AUTOMATIC, 
+                     finder.getQueryMode());
+        
+        finder.setQueryMode(DagShortestPathFinder.QueryMode.SPARSE_FRONTIER);
+        
+        assertEquals(Arrays.asList(a, b, d), finder.find(a, d));
+        assertEquals(Arrays.asList(c, d), finder.find(c, d));
+        assertEquals(Arrays.asList(a), finder.find(a, a));
+        assertTrue(finder.find(b, c).isEmpty());
+        assertTrue(finder.find(a, e).isEmpty());
+        
+        List<List<DirectedGraphNode>> paths = finder.findAll(Arrays.asList(
+                new SourceTargetPair<>(a, d),
+                new SourceTargetPair<>(a, c),
+                new SourceTargetPair<>(a, e)));
+        
+        assertEquals(Arrays.asList(a, b, d), paths.get(0));
+        assertEquals(Arrays.asList(a, c), paths.get(1));
+        assertTrue(paths.get(2).isEmpty());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testThrowsOnClosingCycle() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+
+        arc(d, a, 1.0);
+        finder.find(a, d);
+    }
+
+    @Test
+    public void testFindAll() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+        List<List<DirectedGraphNode>> paths = finder.findAll(Arrays.asList(
+                new SourceTargetPair<>(a, d),
+                new SourceTargetPair<>(c, d),
+                new SourceTargetPair<>(a, c),
+                new SourceTargetPair<>(a, e),
+                new SourceTargetPair<>(d, a)));
+
+        assertEquals(5, paths.size());
+        assertEquals(Arrays.asList(a, b, d), paths.get(0));
+        assertEquals(Arrays.asList(c, d), paths.get(1));
+        assertEquals(Arrays.asList(a, c), paths.get(2));
+        assertTrue(paths.get(3).isEmpty());
+        assertTrue(paths.get(4).isEmpty());
+    }
+
+    @Test
+    public void testSolveFrom() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+        DagShortestPathFinder.ShortestPathTree tree = finder.solveFrom(a);
+
+        assertEquals(a, tree.getSource());
+        assertEquals(0.0, tree.distanceTo(a), 0.001);
+        assertEquals(1.0, tree.distanceTo(b), 0.001);
+        assertEquals(1.0, tree.distanceTo(c), 0.001);
+        assertEquals(3.0, tree.distanceTo(d), 0.001);
+        assertEquals(Double.POSITIVE_INFINITY, tree.distanceTo(e), 0.0);
+
+        assertEquals(Arrays.asList(a, b, d), tree.pathTo(d));
+        assertTrue(tree.pathTo(e).isEmpty());
+
+        List<DirectedGraphNode> path = finder.solveFrom(b).pathTo(a);
+        assertTrue(path.isEmpty());
+    }
+
+    @Test
+    public void testSolveFromInParallel() {
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+        DagShortestPathFinder.ShortestPathTree tree = 
+                finder.solveFrom(a, ForkJoinPool.commonPool());
+
+        assertEquals(3.0, tree.distanceTo(d), 0.001);
+        assertEquals(Arrays.asList(a, b, d), tree.pathTo(d));
+        assertEquals(Double.POSITIVE_INFINITY, tree.distanceTo(e), 0.0);
+
+        tree = finder.solveFrom(c, ForkJoinPool.commonPool());
+
+        assertEquals(4.0, tree.distanceTo(d), 0.001);
+        assertEquals(Double.POSITIVE_INFINITY, tree.distanceTo(b), 0.0);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testThrowsOnCyclicGraph() {
+        arc(d, a, 1.0);
+        new DagShortestPathFinder(graph, weightFunction);
+    }
+
+    private static double weightOf(
+            List<DirectedGraphNode> path,
+            DirectedGraphWeightFunction weights) {
+        if (path.isEmpty()) {
+            return Double.POSITIVE_INFINITY;
+        }
+        
+        double weight = 0.0;
+        
+        for (int i = 1; i < path.size(); ++i) {
+            weight += weights.get(path.get(i - 1), path.get(i));
+        }
+        
+        return weight;
+    }
+    
+    private void arc(DirectedGraphNode tail,
+                     DirectedGraphNode head,
+                     double weight) {
+        tail.addChild(head);
+        weightFunction.put(tail, head, weight);
+    }
+}
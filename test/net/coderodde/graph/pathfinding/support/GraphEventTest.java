@@ -0,0 +1,150 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.pathfinding.SourceTargetPair;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class GraphEventTest {
+
+    private final DirectedGraphNode a = new DirectedGraphNode("A");
+    private final DirectedGraphNode b = new DirectedGraphNode("B");
+    private final DirectedGraphNode c = new DirectedGraphNode("C");
+    private final DirectedGraphNode d = new DirectedGraphNode("D");
+
+    private final Graph<DirectedGraphNode> graph = new Graph<>();
+    private final DirectedGraphWeightFunction weightFunction =
+            new DirectedGraphWeightFunction();
+
+    public GraphEventTest() {
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addNode(d);
+
+        arc(a, b, 1.0);
+        arc(a, c, 1.0);
+        arc(b, d, 2.0);
+    }
+
+    @Test
+    public void testEvents() throws IOException {
+        List<RecordedEvent> events;
+        int modificationCount;
+
+        try (Recording recording = new Recording()) {
+            recording.enable("net.coderodde.graph.GraphPreprocessing");
+            recording.enable("net.coderodde.graph.TopologicalSort");
+            recording.enable("net.coderodde.graph.DepthFirstSearch");
+            recording.enable("net.coderodde.graph.DagPathQuery");
+            recording.start();
+
+            DagShortestPathFinder finder =
+                    new DagShortestPathFinder(graph, weightFunction);
+
+            assertEquals(Arrays.asList(a, b, d), finder.find(a, d));
+
+            // Changing a weight rebuilds the snapshot only.
+            weightFunction.put(b, d, 3.0);
+            finder.findAll(Arrays.asList(new SourceTargetPair<>(a, c),
+                                         new SourceTargetPair<>(a, d)));
+            
+            finder.setQueryMode(DagShortestPathFinder.QueryMode.TARGET_CONE);
+            assertEquals(Arrays.asList(a, b, d), finder.find(a, d));
+            assertTrue(finder.find(d, a).isEmpty());
+
+            TopologicalSort.sort(graph);
+            modificationCount = graph.getModificationCount();
+            recording.stop();
+            events = dump(recording);
+        }
+
+        List<String> stages = new ArrayList<>();
+        List<String> algorithms = new ArrayList<>();
+        List<RecordedEvent> queries = new ArrayList<>();
+        int traversals = 0;
+
+        for (RecordedEvent event : events) {
+            assertEquals(4, event.getInt("nodeAmount"));
+            assertEquals(3, event.getInt("arcAmount"));
+            assertEquals(modificationCount,
+                         event.getInt("modificationCount"));
+
+            switch (event.getEventType().getName()) {
+                case "net.coderodde.graph.GraphPreprocessing":
+                    stages.add(event.getString("stage"));
+                    break;
+
+                case "net.coderodde.graph.TopologicalSort":
+                    algorithms.add(event.getString("algorithm"));
+                    break;
+
+                case "net.coderodde.graph.DepthFirstSearch":
+                    assertTrue(event.getBoolean("acyclic"));
+                    ++traversals;
+                    break;
+
+                default:
+                    queries.add(event);
+            }
+        }
+
+        assertEquals(Arrays.asList(GraphPreprocessingEvent.TOPOLOGICAL_ORDER,
+                                   GraphPreprocessingEvent.SNAPSHOT),
+                     stages);
+        assertEquals(Arrays.asList("KAHN", "DEPTH_FIRST_SEARCH"), algorithms);
+        assertEquals(1, traversals);
+        assertEquals(4, queries.size());
+
+        // Order the queries by their completion.
+        queries.sort((e1, e2) -> e1.getEndTime().compareTo(e2.getEndTime()));
+
+        RecordedEvent find = queries.get(0);
+        RecordedEvent findAll = queries.get(1);
+        RecordedEvent findInCone = queries.get(2);
+        RecordedEvent findNothing = queries.get(3);
+
+        assertEquals(1, find.getInt("targetAmount"));
+        assertEquals(4, find.getInt("rangeSpan"));
+        assertEquals(3L, find.getLong("resultLength"));
+        assertEquals(2, findAll.getInt("targetAmount"));
+        assertEquals(4, findAll.getInt("rangeSpan"));
+        assertEquals(5L, findAll.getLong("resultLength"));
+        
+        // The automatic mode records the mode it chose.
+        assertEquals("FULL_SWEEP", find.getString("queryMode"));
+        assertEquals("FULL_SWEEP", findAll.getString("queryMode"));
+        assertEquals("TARGET_CONE", findInCone.getString("queryMode"));
+        assertNull(findNothing.getString("queryMode"));
+    }
+
+    private static List<RecordedEvent> dump(Recording recording)
+            throws IOException {
+        Path file = Files.createTempFile("graph", ".jfr");
+
+        try {
+            recording.dump(file);
+            return RecordingFile.readAllEvents(file);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private void arc(DirectedGraphNode tail,
+                     DirectedGraphNode head,
+                     double weight) {
+        tail.addChild(head);
+        weightFunction.put(tail, head, weight);
+    }
+}
@@ -0,0 +1,74 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class IndexedDaryHeapTest {
+    
+    @Test
+    public void testExtractsInPriorityOrder() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(100);
+        Random random = new Random(13L);
+        double[] priorities = new double[100];
+        
+        for (int key = 0; key < 100; ++key) {
+            priorities[key] = random.nextDouble();
+            heap.insert(key, priorities[key]);
+        }
+        
+        // Decrease half of the keys.
+        for (int key = 0; key < 100; key += 2) {
+            priorities[key] /= 2.0;
+            heap.decreaseKey(key, priorities[key]);
+        }
+        
+        double[] sorted = priorities.clone();
+        Arrays.sort(sorted);
+        
+        assertEquals(100, heap.size());
+        
+        for (int i = 0; i < 100; ++i) {
+            assertEquals(sorted[i], heap.getMinimumPriority(), 0.0);
+            int key = heap.extractMinimum();
+            assertEquals(sorted[i], priorities[key], 0.0);
+            assertFalse(heap.contains(key));
+        }
+        
+        assertTrue(heap.isEmpty());
+    }
+    
+    @Test
+    public void testClear() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(3);
+        
+        heap.insert(0, 1.0);
+        heap.insert(2, 0.5);
+        
+        assertTrue(heap.contains(2));
+        
+        heap.clear();
+        
+        assertTrue(heap.isEmpty());
+        assertFalse(heap.contains(0));
+        assertFalse(heap.contains(2));
+        
+        heap.insert(2, 3.0);
+        
+        assertEquals(2, heap.extractMinimum());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testThrowsOnDuplicateInsert() {
+        IndexedDaryHeap heap = new IndexedDaryHeap(2);
+        heap.insert(1, 1.0);
+        heap.insert(1, 2.0);
+    }
+    
+    @Test(expected = NoSuchElementException.class)
+    public void testThrowsOnExtractingFromEmptyHeap() {
+        new IndexedDaryHeap(1).extractMinimum();
+    }
+}
@@ -0,0 +1,93 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import net.coderodde.graph.CompressedSparseRowGraph;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class IndexedGraphSearchTest {
+    
+    @Test
+    public void testAgainstDagShortestPathFinder() {
+        Random random = new Random(7L);
+        Graph<DirectedGraphNode> graph = new Graph<>();
+        DirectedGraphWeightFunction weightFunction =
+                new DirectedGraphWeightFunction();
+        DirectedGraphNode[] nodes = new DirectedGraphNode[200];
+        
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new DirectedGraphNode("" + i);
+            graph.addNode(nodes[i]);
+        }
+        
+        for (int i = 0; i < 1000; ++i) {
+            int tail = random.nextInt(nodes.length - 1);
+            int head = tail + 1 + random.nextInt(nodes.length - tail - 1);
+            nodes[tail].addChild(nodes[head]);
+            weightFunction.put(nodes[tail], nodes[head], random.nextDouble());
+        }
+        
+        DagShortestPathFinder finder =
+                new DagShortestPathFinder(graph, weightFunction);
+        CompressedSparseRowGraph<DirectedGraphNode> snapshot =
+                new CompressedSparseRowGraph<>(
+                        graph,
+                        Arrays.asList(TopologicalSort.sortByKahn(graph)),
+                        weightFunction);
+        
+        for (int i = 0; i < 100; ++i) {
+            DirectedGraphNode source = nodes[random.nextInt(nodes.length)];
+            DirectedGraphNode target = nodes[random.nextInt(nodes.length)];
+            List<DirectedGraphNode> expected = finder.find(source, target);
+            int sourceIndex = snapshot.getNodeIndex(source);
+            int targetIndex = snapshot.getNodeIndex(target);
+            int[] path1 = IndexedGraphSearch.findShortestPathInDag(
+                    snapshot, sourceIndex, targetIndex);
+            int[] path2 = IndexedGraphSearch.findShortestPath(
+                    snapshot, sourceIndex, targetIndex);
+            
+            assertEquals(expected.isEmpty(), path1.length == 0);
+            assertEquals(expected.isEmpty(), path2.length == 0);
+            
+            if (!expected.isEmpty()) {
+                double cost = 0.0;
+                
+                for (int j = 1; j < expected.size(); ++j) {
+                    cost += weightFunction.get(expected.get(j - 1),
+                                               expected.get(j));
+                }
+                
+                assertEquals(cost,
+                             IndexedGraphSearch.getPathCost(snapshot, path1),
+                             1e-9);
+                assertEquals(cost,
+                             IndexedGraphSearch.getPathCost(snapshot, path2),
+                             1e-9);
+            }
+        }
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testThrowsOnBackwardArc() {
+        Graph<DirectedGraphNode> graph = new Graph<>();
+        DirectedGraphWeightFunction weightFunction =
+                new DirectedGraphWeightFunction();
+        DirectedGraphNode a = new DirectedGraphNode("A");
+        DirectedGraphNode b = new DirectedGraphNode("B");
+        
+        graph.addNode(a);
+        graph.addNode(b);
+        b.addChild(a);
+        a.addChild(b);
+        weightFunction.put(a, b, 1.0);
+        weightFunction.put(b, a, 1.0);
+        
+        IndexedGraphSearch.findShortestPathInDag(
+                new CompressedSparseRowGraph<>(graph, weightFunction), 0, 1);
+    }
+}
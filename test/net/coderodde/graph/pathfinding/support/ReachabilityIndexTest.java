@@ -0,0 +1,51 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.Random;
+import net.coderodde.graph.CompressedSparseRowGraph;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ReachabilityIndexTest {
+    
+    @Test
+    public void testMayReach() {
+        Graph<DirectedGraphNode> graph = new Graph<>();
+        DirectedGraphWeightFunction weightFunction = 
+                new DirectedGraphWeightFunction();
+        DirectedGraphNode a = new DirectedGraphNode("A");
+        DirectedGraphNode b = new DirectedGraphNode("B");
+        DirectedGraphNode c = new DirectedGraphNode("C");
+        
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        a.addChild(b);
+        weightFunction.put(a, b, 1.0);
+        
+        CompressedSparseRowGraph<DirectedGraphNode> snapshot = 
+                new CompressedSparseRowGraph<>(graph, 
+                                               Arrays.asList(a, b, c),
+                                               weightFunction);
+        ReachabilityIndex index = 
+                new ReachabilityIndex(snapshot, 4, new Random(1L));
+        
+        assertTrue(index.mayReach(0, 1));
+        assertFalse(index.mayReach(0, 2));
+        assertFalse(index.mayReach(1, 2));
+    }
+    
+    @Test
+    public void testCanIndex() {
+        assertTrue(ReachabilityIndex.canIndex(0, 4));
+        assertTrue(ReachabilityIndex.canIndex(1 << 28, 3));
+        assertTrue(ReachabilityIndex.canIndex(Integer.MAX_VALUE / 8 - 1, 4));
+        
+        // 2 * 4 * 2^28 overflows int.
+        assertFalse(ReachabilityIndex.canIndex(1 << 28, 4));
+        assertFalse(ReachabilityIndex.canIndex(Integer.MAX_VALUE, 1));
+    }
+}
@@ -0,0 +1,140 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.support.DirectedGraphNode;
+import net.coderodde.graph.support.DirectedGraphWeightFunction;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ShortestPathTreeCacheTest {
+    
+    private final DirectedGraphNode a = new DirectedGraphNode("A");
+    private final DirectedGraphNode b = new DirectedGraphNode("B");
+    private final DirectedGraphNode c = new DirectedGraphNode("C");
+    private final DirectedGraphNode d = new DirectedGraphNode("D");
+    
+    private final Graph<DirectedGraphNode> graph = new Graph<>();
+    private final DirectedGraphWeightFunction weightFunction =
+            new DirectedGraphWeightFunction();
+    
+    public ShortestPathTreeCacheTest() {
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addNode(d);
+        
+        arc(a, b, 1.0);
+        arc(b, d, 1.0);
+        arc(a, c, 1.0);
+        arc(c, d, 3.0);
+    }
+    
+    @Test
+    public void testHitsAndMisses() {
+        ShortestPathTreeCache cache = 
+                new ShortestPathTreeCache(
+                        new DagShortestPathFinder(graph, weightFunction), 
+                        1L << 20);
+        
+        assertEquals(Arrays.asList(a, b, d), cache.find(a, d));
+        assertEquals(Arrays.asList(a, c), cache.find(a, c));
+        assertEquals(2.0, cache.distance(a, d), 0.001);
+        assertTrue(cache.find(b, c).isEmpty());
+        
+        assertEquals(2L, cache.getHitCount());
+        assertEquals(2L, cache.getMissCount());
+        assertEquals(2, cache.size());
+        assertEquals(0.5, cache.getHitRate(), 0.001);
+    }
+    
+    @Test
+    public void testInvalidation() {
+        ShortestPathTreeCache cache = 
+                new ShortestPathTreeCache(
+                        new DagShortestPathFinder(graph, weightFunction), 
+                        1L << 20);
+        
+        assertEquals(Arrays.asList(a, b, d), cache.find(a, d));
+        
+        weightFunction.put(c, d, 0.5);
+        
+        assertEquals(Arrays.asList(a, c, d), cache.find(a, d));
+        assertEquals(1L, cache.getInvalidationCount());
+        
+        arc(b, c, 0.0);
+        
+        assertEquals(Arrays.asList(b, c, d), cache.find(b, d));
+        assertEquals(1.5, cache.distance(a, d), 0.001);
+        assertEquals(2L, cache.getInvalidationCount());
+        assertEquals(0L, cache.getHitCount());
+    }
+    
+    @Test
+    public void testDropsOutOfDateTrees() {
+        ShortestPathTreeCache cache = 
+                new ShortestPathTreeCache(
+                        new DagShortestPathFinder(graph, weightFunction), 
+                        1L << 20);
+        
+        cache.find(a, d);
+        cache.find(b, d);
+        
+        assertEquals(2, cache.size());
+        
+        arc(b, c, 1.0);
+        cache.find(c, d);
+        
+        // Caching the tree of the new snapshot drops the trees pinning the
+        // old one.
+        assertEquals(1, cache.size());
+        assertEquals(2L, cache.getInvalidationCount());
+        assertEquals(cache.getTree(c).getSizeInBytes(), 
+                     cache.getCurrentBytes());
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testThrowsOnSourceOfAnotherGraph() {
+        ShortestPathTreeCache cache = 
+                new ShortestPathTreeCache(
+                        new DagShortestPathFinder(graph, weightFunction), 
+                        1L << 20);
+        Graph<DirectedGraphNode> other = new Graph<>();
+        DirectedGraphNode namesake = new DirectedGraphNode("A");
+        
+        other.addNode(namesake);
+        cache.find(a, d);
+        cache.getTree(namesake);
+    }
+    
+    @Test
+    public void testEviction() {
+        DagShortestPathFinder finder = 
+                new DagShortestPathFinder(graph, weightFunction);
+        long treeSize = finder.solveFrom(a).getSizeInBytes();
+        ShortestPathTreeCache cache = 
+                new ShortestPathTreeCache(finder, treeSize);
+        
+        cache.find(a, d);
+        cache.find(b, d);
+        
+        assertEquals(1, cache.size());
+        assertEquals(1L, cache.getEvictionCount());
+        
+        cache.find(a, d);
+        cache.find(a, b);
+        
+        assertEquals(1, cache.size());
+        assertEquals(2L, cache.getEvictionCount());
+        assertEquals(3L, cache.getMissCount());
+        assertEquals(1L, cache.getHitCount());
+        assertEquals(treeSize, cache.getCurrentBytes());
+    }
+    
+    private void arc(DirectedGraphNode tail,
+                     DirectedGraphNode head,
+                     double weight) {
+        tail.addChild(head);
+        weightFunction.put(tail, head, weight);
+    }
+}
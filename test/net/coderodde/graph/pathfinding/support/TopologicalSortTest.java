@@ -0,0 +1,85 @@
+package net.coderodde.graph.pathfinding.support;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.coderodde.graph.Graph;
+import net.coderodde.graph.support.DirectedGraphNode;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class TopologicalSortTest {
+    
+    private final DirectedGraphNode a = new DirectedGraphNode("A");
+    private final DirectedGraphNode b = new DirectedGraphNode("B");
+    private final DirectedGraphNode c = new DirectedGraphNode("C");
+    private final DirectedGraphNode d = new DirectedGraphNode("D");
+    private final DirectedGraphNode e = new DirectedGraphNode("E");
+    
+    private final Graph<DirectedGraphNode> graph = new Graph<>();
+    
+    public TopologicalSortTest() {
+        graph.addNode(a);
+        graph.addNode(b);
+        graph.addNode(c);
+        graph.addNode(d);
+        graph.addNode(e);
+        
+        d.addChild(b);
+        b.addChild(a);
+        d.addChild(c);
+        c.addChild(a);
+        e.addChild(c);
+    }
+    
+    @Test
+    public void testSort() {
+        checkOrder(TopologicalSort.sort(graph));
+    }
+    
+    @Test
+    public void testSortByKahn() {
+        DirectedGraphNode[] order = TopologicalSort.sortByKahn(graph);
+        
+        checkOrder(order);
+        
+        // Kahn's algorithm lists the nodes level by level.
+        assertEquals(Arrays.asList(d, e), Arrays.asList(order).subList(0, 2));
+        assertEquals(a, order[4]);
+    }
+    
+    @Test
+    public void testSortByKahnReportsCycle() {
+        a.addChild(e);
+        
+        try {
+            TopologicalSort.sortByKahn(graph);
+            fail("The cycle was not detected.");
+        } catch (CyclicGraphException ex) {
+            List<DirectedGraphNode> cycle = ex.getCycle();
+            
+            assertEquals(3, cycle.size());
+            
+            for (int i = 0; i < cycle.size(); ++i) {
+                assertTrue(cycle.get(i)
+                                .hasChild(cycle.get((i + 1) % cycle.size())));
+            }
+        }
+    }
+    
+    private void checkOrder(DirectedGraphNode[] order) {
+        assertEquals(graph.getNodeAmount(), order.length);
+        Map<DirectedGraphNode, Integer> indexMap = new HashMap<>();
+        
+        for (int i = 0; i < order.length; ++i) {
+            indexMap.put(order[i], i);
+        }
+        
+        for (DirectedGraphNode node : graph) {
+            for (DirectedGraphNode child : node.children()) {
+                assertTrue(indexMap.get(node) < indexMap.get(child));
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package net.coderodde.graph.support;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class AdjacencySetTest {
+    
+    private final DirectedGraphNode a = new DirectedGraphNode("A");
+    private final DirectedGraphNode b = new DirectedGraphNode("B");
+    private final DirectedGraphNode c = new DirectedGraphNode("C");
+    
+    @Test
+    public void testInsertAndDelete() {
+        AdjacencySet set = new AdjacencySet();
+        
+        assertTrue(set.isEmpty());
+        assertTrue(set.insert(a));
+        assertTrue(set.insert(b));
+        assertFalse(set.insert(a));
+        assertTrue(set.insert(c));
+        
+        assertEquals(3, set.size());
+        assertTrue(set.contains(b));
+        assertTrue(set.contains(new DirectedGraphNode("B")));
+        assertFalse(set.contains(null));
+        
+        assertTrue(set.delete(b));
+        assertFalse(set.delete(b));
+        assertFalse(set.contains(b));
+        
+        // The insertion order survives removals.
+        assertTrue(set.insert(b));
+        assertEquals(Arrays.asList(a, c, b), new ArrayList<>(set));
+        
+        set.deleteAll();
+        
+        assertTrue(set.isEmpty());
+        assertFalse(set.iterator().hasNext());
+    }
+    
+    @Test
+    public void testAgainstLinkedHashSet() {
+        Random random = new Random(13L);
+        List<DirectedGraphNode> nodes = new ArrayList<>();
+        
+        for (int i = 0; i < 200; ++i) {
+            nodes.add(new DirectedGraphNode("" + i));
+        }
+        
+        AdjacencySet set = new AdjacencySet();
+        Set<DirectedGraphNode> expected = new LinkedHashSet<>();
+        
+        for (int i = 0; i < 20000; ++i) {
+            // Drift between small and large sets.
+            int range = i % 4000 < 2000 ? 200 : 6;
+            DirectedGraphNode node = nodes.get(random.nextInt(range));
+            
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(node), set.delete(node));
+            } else {
+                assertEquals(expected.add(node), set.insert(node));
+            }
+            
+            assertEquals(expected.size(), set.size());
+            
+            if (i % 100 == 0) {
+                assertEquals(new ArrayList<>(expected), new ArrayList<>(set));
+                
+                for (DirectedGraphNode n : nodes) {
+                    assertEquals(expected.contains(n), set.contains(n));
+                }
+            }
+        }
+    }
+    
+    @Test(expected = UnsupportedOperationException.class)
+    public void testIsUnmodifiableFromOutside() {
+        AdjacencySet set = new AdjacencySet();
+        set.insert(a);
+        set.add(b);
+    }
+    
+    @Test(expected = ConcurrentModificationException.class)
+    public void testThrowsOnConcurrentModification() {
+        AdjacencySet set = new AdjacencySet();
+        set.insert(a);
+        set.insert(b);
+        
+        Iterator<DirectedGraphNode> iterator = set.iterator();
+        iterator.next();
+        set.delete(b);
+        iterator.next();
+    }
+}
@@ -0,0 +1,124 @@
+package net.coderodde.graph.support;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class IndexedDirectedGraphWeightFunctionTest {
+    
+    DirectedGraphNode a = new DirectedGraphNode("A");
+    DirectedGraphNode b = new DirectedGraphNode("B");
+    DirectedGraphNode c = new DirectedGraphNode("C");
+    
+    IndexedDirectedGraphWeightFunction f = 
+            new IndexedDirectedGraphWeightFunction();
+    
+    @Test
+    public void test() {
+        f.put(a, b, 2.0);
+        f.put(b, a, 3.0);
+        
+        assertEquals(2.0, f.get(a, b), 0.001);
+        assertEquals(3.0, f.get(b, a), 0.001);
+        
+        f.put(a, b, 4.0);
+        
+        assertEquals(4.0, f.get(a, b), 0.001);
+        assertEquals(2, f.getEdgeAmount());
+    }
+    
+    @Test
+    public void testEdgeIds() {
+        f.put(a, b, 2.0);
+        f.put(b, c, 3.0);
+        
+        assertEquals(0, f.getEdgeId(a, b));
+        assertEquals(1, f.getEdgeId(b, c));
+        assertEquals(-1, f.getEdgeId(a, c));
+        assertEquals(b, f.getTail(1));
+        assertEquals(c, f.getHead(1));
+        
+        int modificationCount = f.getModificationCount();
+        f.setWeight(1, 5.0);
+        
+        assertEquals(5.0, f.get(b, c), 0.001);
+        assertEquals(5.0, f.getWeight(1), 0.001);
+        assertTrue(f.getModificationCount() > modificationCount);
+    }
+    
+    @Test
+    public void testGrowth() {
+        DirectedGraphNode[] nodes = new DirectedGraphNode[100];
+        
+        for (int i = 0; i < nodes.length; ++i) {
+            nodes[i] = new DirectedGraphNode("" + i);
+        }
+        
+        for (int i = 0; i < nodes.length; ++i) {
+            for (int j = 0; j < nodes.length; j += 7) {
+                f.put(nodes[i], nodes[j], i * 1000 + j);
+            }
+        }
+        
+        for (int i = 0; i < nodes.length; ++i) {
+            for (int j = 0; j < nodes.length; j += 7) {
+                assertEquals(i * 1000 + j, f.get(nodes[i], nodes[j]), 0.0);
+            }
+        }
+        
+        f.clear();
+        
+        assertEquals(0, f.getEdgeAmount());
+        assertEquals(-1, f.getEdgeId(nodes[0], nodes[0]));
+    }
+    
+    @Test(timeout = 2000L)
+    public void testHighOutDegree() {
+        DirectedGraphNode[] heads = new DirectedGraphNode[50_000];
+        
+        for (int i = 0; i < heads.length; ++i) {
+            heads[i] = new DirectedGraphNode("" + i);
+            f.put(a, heads[i], i);
+        }
+        
+        for (int i = 0; i < heads.length; ++i) {
+            assertEquals(i, f.getEdgeId(a, heads[i]));
+            assertEquals(i, f.get(a, heads[i]), 0.0);
+        }
+        
+        assertEquals(heads.length, f.getEdgeAmount());
+    }
+    
+    @Test
+    public void testTableLength() {
+        int maximum = IndexedDirectedGraphWeightFunction.MAXIMUM_CAPACITY;
+        
+        assertEquals(64, IndexedDirectedGraphWeightFunction.tableLength(16));
+        assertEquals(128, IndexedDirectedGraphWeightFunction.tableLength(17));
+        assertEquals(1 << 29, 
+                     IndexedDirectedGraphWeightFunction.tableLength(
+                             maximum / 2));
+        assertEquals(1 << 30,
+                     IndexedDirectedGraphWeightFunction.tableLength(maximum));
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testTableLengthThrowsBeyondMaximumCapacity() {
+        IndexedDirectedGraphWeightFunction.tableLength(
+                2L * IndexedDirectedGraphWeightFunction.MAXIMUM_CAPACITY);
+    }
+    
+    @Test(expected = NullPointerException.class)
+    public void testThrowsOnMissingHeadNode() {
+        f.put(a, null, 1.0);
+    }
+    
+    @Test(expected = IllegalStateException.class)
+    public void testThrowsOnNonExistentEdge() {
+        f.get(a, c);
+    }
+    
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void testThrowsOnInvalidEdgeId() {
+        f.getWeight(0);
+    }
+}